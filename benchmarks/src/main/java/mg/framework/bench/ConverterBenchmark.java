@@ -0,0 +1,82 @@
+package mg.framework.bench;
+
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.ParameterConverter;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion des paramètres de requête (ancien convertParameter, désormais
+ * ConverterRegistry), convertisseur résolu au démarrage comme dans
+ * ControllerMapping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    public enum Color { RED, GREEN, BLUE }
+
+    private ParameterConverter<?> intConverter;
+    private ParameterConverter<?> longConverter;
+    private ParameterConverter<?> doubleConverter;
+    private ParameterConverter<?> booleanConverter;
+    private ParameterConverter<?> dateConverter;
+    private ParameterConverter<?> enumConverter;
+
+    @Setup
+    public void setup() {
+        ConverterRegistry registry = new ConverterRegistry();
+        intConverter = registry.get(int.class);
+        longConverter = registry.get(Long.class);
+        doubleConverter = registry.get(double.class);
+        booleanConverter = registry.get(boolean.class);
+        dateConverter = registry.get(LocalDate.class);
+        enumConverter = registry.get(Color.class);
+    }
+
+    @Benchmark
+    public Object toInt() throws Exception {
+        return intConverter.convert("123456");
+    }
+
+    @Benchmark
+    public Object toLong() throws Exception {
+        return longConverter.convert("9876543210");
+    }
+
+    @Benchmark
+    public Object toDouble() throws Exception {
+        return doubleConverter.convert("3.14159");
+    }
+
+    @Benchmark
+    public Object toBoolean() throws Exception {
+        return booleanConverter.convert("true");
+    }
+
+    @Benchmark
+    public Object toLocalDate() throws Exception {
+        return dateConverter.convert("2024-02-29");
+    }
+
+    @Benchmark
+    public Object toEnum() throws Exception {
+        return enumConverter.convert("GREEN");
+    }
+}
@@ -0,0 +1,82 @@
+package mg.framework.bench;
+
+import mg.framework.log.Level;
+import mg.framework.log.LoggerFactory;
+import mg.framework.servlet.DispatcherServlet;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Traitement complet d'une requête par DispatcherServlet.service : recherche
+ * de route, résolution des arguments, invocation et rendu, avec des
+ * requêtes et réponses factices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    private DispatcherServlet servlet;
+    private HttpServletResponse response;
+    private HttpServletRequest ping;
+    private HttpServletRequest user;
+    private HttpServletRequest json;
+    private HttpServletRequest create;
+
+    @Setup
+    public void setup() throws Exception {
+        LoggerFactory.setRootLevel(Level.WARN);
+        servlet = new DispatcherServlet();
+        servlet.init(Mocks.config("bench", Map.of("basePackage", "mg.framework.bench.app")));
+
+        response = Mocks.response();
+        ping = Mocks.request("GET", "/ping", Mocks.parameters());
+        user = Mocks.request("GET", "/users/42", Mocks.parameters("q", "search"));
+        json = Mocks.request("GET", "/users/42/json", Mocks.parameters());
+        create = Mocks.request("POST", "/users", Mocks.parameters("name", "Rakoto", "age", "31"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public void noArguments() throws Exception {
+        servlet.service(ping, response);
+    }
+
+    @Benchmark
+    public void pathVariableAndParameter() throws Exception {
+        servlet.service(user, response);
+    }
+
+    @Benchmark
+    public void responseBodyJson() throws Exception {
+        servlet.service(json, response);
+    }
+
+    @Benchmark
+    public void postWithConversion() throws Exception {
+        servlet.service(create, response);
+    }
+}
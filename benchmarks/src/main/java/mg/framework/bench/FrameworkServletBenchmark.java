@@ -0,0 +1,152 @@
+package mg.framework.bench;
+
+import framework.FrameworkServlet;
+import mg.framework.annotation.ModelAttribute;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * FrameworkServlet.processRequest : construction de la map des paramètres
+ * et attributs passée à save(Map), et liaison directe via
+ * save(@ModelAttribute).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FrameworkServletBenchmark {
+
+    @Param({ "5", "50" })
+    public int parameters;
+
+    private MapServlet mapServlet;
+    private ModelServlet modelServlet;
+    private HttpServletRequest request;
+    private HttpServletRequest modelRequest;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        String[] namesAndValues = new String[parameters * 2];
+        for (int i = 0; i < parameters; i++) {
+            namesAndValues[2 * i] = "field" + i;
+            namesAndValues[2 * i + 1] = "value" + i;
+        }
+        request = Mocks.request("POST", "/save", Mocks.parameters(namesAndValues));
+        request.setAttribute("user", "admin");
+        modelRequest = Mocks.request("POST", "/save", Mocks.parameters("name", "Rakoto", "age", "31", "email", "r@mg.mg"));
+        response = Mocks.response();
+        mapServlet = new MapServlet();
+        modelServlet = new ModelServlet();
+    }
+
+    @Benchmark
+    public void mapBuilding(Blackhole blackhole) throws Exception {
+        mapServlet.blackhole = blackhole;
+        mapServlet.handle(request, response);
+    }
+
+    @Benchmark
+    public void modelBinding(Blackhole blackhole) throws Exception {
+        modelServlet.blackhole = blackhole;
+        modelServlet.handle(modelRequest, response);
+    }
+
+    public static class MapServlet extends FrameworkServlet {
+        Blackhole blackhole;
+
+        void handle(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+            processRequest(request, response);
+        }
+
+        public void save(Map<String, Object> parameters) {
+            blackhole.consume(parameters.get("field0"));
+        }
+
+        @Override
+        protected void onSuccess(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters) {
+            blackhole.consume(parameters);
+        }
+
+        @Override
+        protected void onError(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters, Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class ModelServlet extends FrameworkServlet {
+        Blackhole blackhole;
+
+        void handle(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+            processRequest(request, response);
+        }
+
+        public void save(@ModelAttribute Person person) {
+            blackhole.consume(person);
+        }
+
+        @Override
+        protected void onSuccess(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters) {
+        }
+
+        @Override
+        protected void onError(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters, Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private String email;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+}
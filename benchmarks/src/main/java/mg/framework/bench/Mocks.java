@@ -0,0 +1,157 @@
+package mg.framework.bench;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requêtes, réponses et configuration factices (proxies dynamiques) pour les
+ * benchmarks. Les réponses jettent tout ce qui est écrit.
+ */
+final class Mocks {
+    private Mocks() {
+    }
+
+    static HttpServletRequest request(String method, String uri, Map<String, String[]> parameters) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(Mocks.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getRequestURI":
+                            return uri;
+                        case "getContextPath":
+                            return "";
+                        case "getParameter": {
+                            String[] values = parameters.get(args[0]);
+                            return values == null ? null : values[0];
+                        }
+                        case "getParameterValues":
+                            return parameters.get(args[0]);
+                        case "getParameterMap":
+                            return parameters;
+                        case "getParameterNames":
+                            return Collections.enumeration(parameters.keySet());
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove(args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "isAsyncSupported":
+                            return false;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    static HttpServletResponse response() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        PrintWriter writer = new PrintWriter(OutputStream.nullOutputStream());
+        return (HttpServletResponse) Proxy.newProxyInstance(Mocks.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getOutputStream":
+                            return out;
+                        case "getWriter":
+                            return writer;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "isCommitted":
+                            return false;
+                        case "getStatus":
+                            return 200;
+                        case "containsHeader":
+                            return false;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    static ServletConfig config(String servletName, Map<String, String> initParameters) {
+        ServletContext context = (ServletContext) Proxy.newProxyInstance(Mocks.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getContextPath":
+                            return "";
+                        case "getInitParameter":
+                            return null;
+                        case "getMajorVersion":
+                            return 6;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        return (ServletConfig) Proxy.newProxyInstance(Mocks.class.getClassLoader(),
+                new Class<?>[] { ServletConfig.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getServletName":
+                            return servletName;
+                        case "getServletContext":
+                            return context;
+                        case "getInitParameter":
+                            return initParameters.get(args[0]);
+                        case "getInitParameterNames":
+                            return Collections.enumeration(initParameters.keySet());
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    static Map<String, String[]> parameters(String... namesAndValues) {
+        Map<String, String[]> parameters = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            parameters.put(namesAndValues[i], new String[] { namesAndValues[i + 1] });
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,68 @@
+package mg.framework.bench;
+
+import mg.framework.core.RouteMatch;
+import mg.framework.core.Router;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recherche de route dans la table utilisée par DispatcherServlet
+ * (urlMappings), avec 10, 1 000 et 10 000 routes : moitié statiques, moitié
+ * avec variable de chemin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    public int routes;
+
+    private Router<String> router;
+    private String staticPath;
+    private String variablePath;
+    private String missingPath;
+
+    @Setup
+    public void setup() {
+        router = new Router<>();
+        for (int i = 0; i < routes / 2; i++) {
+            router.add("GET", "/api/resource" + i + "/items", "static" + i);
+            router.add("GET", "/api/resource" + i + "/items/{id}", "variable" + i);
+        }
+        int middle = routes / 4;
+        staticPath = "/app/api/resource" + middle + "/items";
+        variablePath = "/app/api/resource" + middle + "/items/42";
+        missingPath = "/app/api/resource" + middle + "/unknown";
+    }
+
+    @Benchmark
+    public RouteMatch<String> staticRoute() {
+        return router.find("GET", staticPath, 4);
+    }
+
+    @Benchmark
+    public RouteMatch<String> variableRoute() {
+        return router.find("GET", variablePath, 4);
+    }
+
+    @Benchmark
+    public RouteMatch<String> missingRoute() {
+        return router.find("GET", missingPath, 4);
+    }
+}
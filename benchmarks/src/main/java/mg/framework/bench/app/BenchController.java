@@ -0,0 +1,36 @@
+package mg.framework.bench.app;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.GetMapping;
+import mg.framework.annotation.PathVariable;
+import mg.framework.annotation.PostMapping;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.ResponseBody;
+
+/**
+ * Contrôleur chargé par DispatcherServlet dans DispatchBenchmark.
+ */
+@Controller
+public class BenchController {
+
+    @GetMapping("/ping")
+    public String ping() {
+        return "pong";
+    }
+
+    @GetMapping("/users/{id}")
+    public String user(@PathVariable int id, @RequestParam("q") String q) {
+        return "user " + id + " " + q;
+    }
+
+    @GetMapping("/users/{id}/json")
+    @ResponseBody
+    public Item json(@PathVariable int id) {
+        return new Item(id, "item-" + id, 12.5);
+    }
+
+    @PostMapping("/users")
+    public String create(@RequestParam("name") String name, @RequestParam("age") int age) {
+        return name + ":" + age;
+    }
+}
@@ -1,7 +1,11 @@
 package servlet;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ModelView {
     String view;
+    Map<String, Object> model = new LinkedHashMap<>();
 
     public String getView() {
         return view;
@@ -11,6 +15,15 @@ public class ModelView {
         this.view = view;
     }
 
+    public Map<String, Object> getModel() {
+        return model;
+    }
+
+    public ModelView addObject(String name, Object value) {
+        model.put(name, value);
+        return this;
+    }
+
     public ModelView(String view) {
         this.view = view;
     }
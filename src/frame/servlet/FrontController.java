@@ -2,95 +2,137 @@ package frame.servlet;
 
 import frame.annotation.URLMapping;
 import frame.annotation.RequestParam;
+import mg.framework.core.ClassPathScanner;
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.InstanceProvider;
+import mg.framework.core.InstanceProviders;
+import mg.framework.core.ParameterConverter;
+import mg.framework.core.RouteIndex;
+import mg.framework.core.RouteMatch;
+import mg.framework.core.Router;
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+import mg.framework.metrics.MetricsRegistry;
+import mg.framework.metrics.RouteMetrics;
+import mg.framework.view.ResponseBuffer;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.File;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class FrontController extends HttpServlet {
+    private static final Logger LOG = LoggerFactory.getLogger(FrontController.class);
+
+    // Fragments HTML constants, encodés une seule fois en UTF-8
+    private static final byte[] RESULT_HEAD = utf8(
+            "<!DOCTYPE html>\n"
+            + "<html>\n"
+            + "<head>\n"
+            + "  <meta charset='UTF-8'>\n"
+            + "  <title>Résultat</title>\n"
+            + "  <style>\n"
+            + "    body { font-family: Arial; margin: 40px; background: #f5f5f5; }\n"
+            + "    .result { padding: 20px; background: #e8f5e9; border-radius: 8px; border-left: 4px solid #4CAF50; margin: 20px 0; }\n"
+            + "    .back { margin-top: 20px; }\n"
+            + "    a { color: #0066cc; text-decoration: none; padding: 8px 15px; background: #e3f2fd; border-radius: 4px; }\n"
+            + "    a:hover { background: #2196F3; color: white; }\n"
+            + "  </style>\n"
+            + "</head>\n"
+            + "<body>\n"
+            + "  <h2>✅ Résultat</h2>\n"
+            + "  <div class='result'>");
+    private static final byte[] RESULT_TAIL = utf8(
+            "</div>\n"
+            + "  <div class='back'>\n"
+            + "    <a href='javascript:history.back()'>← Retour</a>\n"
+            + "  </div>\n"
+            + "</body>\n"
+            + "</html>\n");
+    private static final byte[] ERROR_HEAD = utf8(
+            "<!DOCTYPE html>\n"
+            + "<html>\n"
+            + "<head><meta charset='UTF-8'><title>Erreur</title>\n"
+            + "<style>\n"
+            + "body { font-family: Arial; margin: 40px; background: #f5f5f5; }\n"
+            + ".error { padding: 20px; background: #ffebee; border-radius: 8px; border-left: 4px solid #f44336; }\n"
+            + "pre { background: #fff; padding: 15px; border-radius: 4px; overflow-x: auto; }\n"
+            + "</style></head><body>\n"
+            + "<h2 style='color:#f44336'>❌ Erreur</h2>\n"
+            + "<div class='error'>\n"
+            + "<strong>Message:</strong><br>\n"
+            + "<pre>");
+    private static final byte[] ERROR_TAIL = utf8(
+            "</pre>\n"
+            + "</div>\n"
+            + "<a href='javascript:history.back()' style='display:inline-block;margin-top:20px;color:#0066cc;text-decoration:none'>← Retour</a>\n"
+            + "</body></html>\n");
+
     private Map<String, Mapping> urlMappings = new HashMap<>();
+    private Router<Mapping> router = new Router<>();
+    private ConverterRegistry converters = new ConverterRegistry();
+    private MetricsRegistry metrics;
+    private String metricsPath;
 
     @Override
     public void init() throws ServletException {
         try {
-            System.out.println("╔════════════════════════════════════════════════════════╗");
-            System.out.println("║   FRONT CONTROLLER - RÉSOLUTION AUTO PARAMÈTRES       ║");
-            System.out.println("╚════════════════════════════════════════════════════════╝");
-
             String packageName = getServletContext().getInitParameter("controllerPackage");
             if (packageName == null) {
                 packageName = "controller";
             }
 
-            System.out.println("📦 Package: " + packageName);
-            scanControllers(packageName);
+            // Désactivé par défaut : l'URL des métriques n'est pas protégée
+            metricsPath = getServletContext().getInitParameter("metricsPath");
+            if (metricsPath == null) {
+                metricsPath = "";
+            }
+            metrics = new MetricsRegistry(getServletName());
 
-            System.out.println("\n╔════════════════════════════════════════════════════════╗");
-            System.out.println("║   MAPPINGS TROUVÉS                                     ║");
-            System.out.println("╚════════════════════════════════════════════════════════╝");
+            LOG.info("Front controller, package: {}", packageName);
+            scanControllers(packageName);
 
             if (urlMappings.isEmpty()) {
-                System.err.println("❌❌❌ AUCUN MAPPING ! ❌❌❌");
+                LOG.warn("Aucun mapping trouvé dans {}", packageName);
             } else {
                 for (Map.Entry<String, Mapping> entry : urlMappings.entrySet()) {
-                    System.out.println("✓ " + entry.getKey() + " → " +
-                            entry.getValue().getClassName() + "." +
-                            entry.getValue().getMethodName() + "()");
+                    LOG.info("Mapping {} -> {}.{}()", entry.getKey(),
+                            entry.getValue().getClassName(), entry.getValue().getMethodName());
                 }
-                System.out.println("\n✅ " + urlMappings.size() + " mappings chargés");
+                LOG.info("{} mappings chargés", urlMappings.size());
             }
-            System.out.println("╚════════════════════════════════════════════════════════╝\n");
-
+            LoggerFactory.retain();
         } catch (Exception e) {
-            System.err.println("❌ ERREUR:");
-            e.printStackTrace();
+            LOG.error("Erreur lors du scan", e);
             throw new ServletException("Erreur lors du scan", e);
         }
     }
 
     private void scanControllers(String packageName) throws Exception {
-        String path = packageName.replace('.', '/');
-        String realPath = getServletContext().getRealPath("/WEB-INF/classes/" + path);
-
-        System.out.println("📂 /WEB-INF/classes/" + path);
-        System.out.println("📍 " + realPath);
-
-        if (realPath == null) {
-            System.err.println("❌ realPath null");
-            return;
-        }
-
-        File directory = new File(realPath);
-        if (!directory.exists()) {
-            System.err.println("❌ Inexistant: " + realPath);
+        RouteIndex index = RouteIndex.load(getClass().getClassLoader());
+        if (index != null && !index.getUrlMappingClasses(packageName).isEmpty()) {
+            LOG.debug("Index {}", RouteIndex.LOCATION);
+            for (String className : index.getUrlMappingClasses(packageName)) {
+                processClass(className);
+            }
             return;
         }
 
-        System.out.println("✓ OK\n");
-        scanDirectory(directory, packageName);
-    }
-
-    private void scanDirectory(File directory, String packageName) throws Exception {
-        File[] files = directory.listFiles();
-        if (files == null)
-            return;
-
-        System.out.println("📁 " + packageName + " (" + files.length + " fichiers)");
+        // Pré-filtrage sur le bytecode (répertoires et JAR) : seules les
+        // classes référençant @URLMapping sont chargées
+        ClassPathScanner scanner = new ClassPathScanner(getClass().getClassLoader(), URLMapping.class);
+        List<String> candidates = scanner.scan(packageName);
+        LOG.debug("{} : {} classes candidates", packageName, candidates.size());
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDirectory(file, packageName + "." + file.getName());
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().replace(".class", "");
-                System.out.println("   📄 " + className);
-                processClass(className);
-            }
+        for (String className : candidates) {
+            LOG.debug("Classe candidate {}", className);
+            processClass(className);
         }
     }
 
@@ -98,38 +140,49 @@ public class FrontController extends HttpServlet {
         try {
             Class<?> clazz = Class.forName(className);
             Method[] methods = clazz.getDeclaredMethods();
-            System.out.println("      → " + methods.length + " méthodes");
+            InstanceProvider instances = null;
 
             for (Method method : methods) {
                 if (method.isAnnotationPresent(URLMapping.class)) {
                     URLMapping annotation = method.getAnnotation(URLMapping.class);
                     String url = annotation.value();
 
+                    if (instances == null) {
+                        // Une nouvelle instance par requête, sauf portée déclarée via @Controller
+                        instances = InstanceProviders.forClass(clazz);
+                    }
                     Mapping mapping = new Mapping(className, method.getName(), method);
+                    mapping.setConverters(resolveConverters(method));
+                    mapping.setInstanceProvider(instances);
+                    // Même mapping en GET et POST : une seule série par URL
+                    mapping.setMetrics(metrics.register("*", url));
                     urlMappings.put(url, mapping);
+                    router.add("GET", url, mapping);
+                    router.add("POST", url, mapping);
 
-                    System.out.println("      ✓✓✓ " + url + " → " + method.getName() + "()");
+                    LOG.debug("{} -> {}()", url, method.getName());
 
                     // Debug paramètres
-                    Parameter[] params = method.getParameters();
-                    for (int i = 0; i < params.length; i++) {
-                        Parameter p = params[i];
-                        String display;
-
-                        if (p.isAnnotationPresent(RequestParam.class)) {
-                            String paramName = p.getAnnotation(RequestParam.class).value();
-                            display = "@RequestParam(\"" + paramName + "\") " + p.getType().getSimpleName();
-                        } else {
-                            display = p.getName() + " " + p.getType().getSimpleName() + " (auto)";
+                    if (LOG.isDebugEnabled()) {
+                        Parameter[] params = method.getParameters();
+                        for (int i = 0; i < params.length; i++) {
+                            Parameter p = params[i];
+                            String display;
+
+                            if (p.isAnnotationPresent(RequestParam.class)) {
+                                String paramName = p.getAnnotation(RequestParam.class).value();
+                                display = "@RequestParam(\"" + paramName + "\") " + p.getType().getSimpleName();
+                            } else {
+                                display = p.getName() + " " + p.getType().getSimpleName() + " (auto)";
+                            }
+
+                            LOG.debug("    [{}] {}", i, display);
                         }
-
-                        System.out.println("          [" + i + "] " + display);
                     }
                 }
             }
         } catch (ClassNotFoundException e) {
-            System.err.println("      ❌ Classe introuvable");
-            e.printStackTrace();
+            LOG.error("Classe introuvable: {}", className, e);
         }
     }
 
@@ -152,35 +205,32 @@ public class FrontController extends HttpServlet {
         String contextPath = request.getContextPath();
         String url = uri.substring(contextPath.length());
 
-        System.out.println("\n╔════════════════════════════════════════════════════════╗");
-        System.out.println("║   REQUÊTE                                              ║");
-        System.out.println("╚════════════════════════════════════════════════════════╝");
-        System.out.println("📥 URI: " + uri);
-        System.out.println("📂 Context: " + contextPath);
-        System.out.println("🎯 URL: '" + url + "'");
+        LOG.debug("Requête {} (context '{}', url '{}')", uri, contextPath, url);
 
-        Mapping mapping = urlMappings.get(url);
+        if (!metricsPath.isEmpty() && url.equals(metricsPath)) {
+            writeMetrics(response);
+            return;
+        }
 
-        if (mapping == null) {
-            System.err.println("❌ PAS DE MAPPING pour: '" + url + "'");
-            System.err.println("💡 Mappings: " + urlMappings.keySet());
+        RouteMatch<Mapping> match = router.find(request.getMethod(), uri, contextPath.length());
+
+        if (match == null) {
+            LOG.warn("Pas de mapping pour '{}', mappings: {}", url, urlMappings.keySet());
             response.sendError(HttpServletResponse.SC_NOT_FOUND, "URL non mappée: " + url);
             return;
         }
 
-        System.out.println("✅ Mapping OK!");
+        Mapping mapping = match.getHandler();
 
+        RouteMetrics routeMetrics = mapping.getMetrics();
+        long start = routeMetrics.start();
         try {
-            Class<?> clazz = Class.forName(mapping.getClassName());
-            Object controller = clazz.getDeclaredConstructor().newInstance();
             Method method = mapping.getMethod();
 
             Parameter[] parameters = method.getParameters();
             Object[] args = new Object[parameters.length];
 
-            System.out.println("🔧 Méthode: " + method.getName());
-            System.out.println("📊 Paramètres: " + parameters.length);
-            System.out.println("\n🔍 Résolution des paramètres:");
+            LOG.debug("Méthode {}, {} paramètres", method.getName(), parameters.length);
 
             for (int i = 0; i < parameters.length; i++) {
                 Parameter param = parameters[i];
@@ -200,13 +250,14 @@ public class FrontController extends HttpServlet {
                 }
 
                 String paramValue = request.getParameter(paramName);
+                if (paramValue == null) {
+                    // 3. Variable de chemin, ex: /produit/{id}
+                    paramValue = match.getVariable(paramName);
+                }
 
-                System.out.println("   [" + i + "] '" + paramName + "' (" + resolveType + ")");
-                System.out.println("       Type: " + param.getType().getSimpleName());
-                System.out.println("       Valeur URL: " + paramValue);
+                LOG.trace("[{}] '{}' = {}", i, paramName, paramValue);
 
                 if (paramValue == null || paramValue.trim().isEmpty()) {
-                    System.err.println("       ❌ MANQUANT!");
                     String error = "Paramètre manquant: '" + paramName + "' pour " + method.getName() + "()";
 
                     if (resolveType.equals("auto") && paramName.startsWith("arg")) {
@@ -220,79 +271,75 @@ public class FrontController extends HttpServlet {
                     throw new Exception(error);
                 }
 
-                Class<?> paramType = param.getType();
-                args[i] = convertParameter(paramValue, paramType);
-                System.out.println("       ✓ Converti: " + args[i]);
+                args[i] = mapping.getConverters()[i].convert(paramValue);
             }
 
-            Object result = method.invoke(controller, args);
+            InstanceProvider instances = mapping.getInstanceProvider();
+            Object controller = instances.acquire(request);
+            Object result;
+            try {
+                result = method.invoke(controller, args);
+            } finally {
+                instances.release(controller);
+            }
 
-            System.out.println("\n✅ RÉSULTAT: " + result);
-            System.out.println("╚════════════════════════════════════════════════════════╝\n");
+            LOG.debug("Résultat de {}: {}", method.getName(), result);
 
             response.setContentType("text/html;charset=UTF-8");
-            response.getWriter().println("<!DOCTYPE html>");
-            response.getWriter().println("<html>");
-            response.getWriter().println("<head>");
-            response.getWriter().println("  <meta charset='UTF-8'>");
-            response.getWriter().println("  <title>Résultat</title>");
-            response.getWriter().println("  <style>");
-            response.getWriter().println("    body { font-family: Arial; margin: 40px; background: #f5f5f5; }");
-            response.getWriter().println(
-                    "    .result { padding: 20px; background: #e8f5e9; border-radius: 8px; border-left: 4px solid #4CAF50; margin: 20px 0; }");
-            response.getWriter().println("    .back { margin-top: 20px; }");
-            response.getWriter().println(
-                    "    a { color: #0066cc; text-decoration: none; padding: 8px 15px; background: #e3f2fd; border-radius: 4px; }");
-            response.getWriter().println("    a:hover { background: #2196F3; color: white; }");
-            response.getWriter().println("  </style>");
-            response.getWriter().println("</head>");
-            response.getWriter().println("<body>");
-            response.getWriter().println("  <h2>✅ Résultat</h2>");
-            response.getWriter().println("  <div class='result'>" + result + "</div>");
-            response.getWriter().println("  <div class='back'>");
-            response.getWriter().println("    <a href='javascript:history.back()'>← Retour</a>");
-            response.getWriter().println("  </div>");
-            response.getWriter().println("</body>");
-            response.getWriter().println("</html>");
+            writePage(response, RESULT_HEAD, String.valueOf(result), RESULT_TAIL);
 
         } catch (Exception e) {
-            System.err.println("❌ ERREUR:");
-            e.printStackTrace();
+            routeMetrics.failed(e);
+            LOG.error("Erreur sur {}", url, e);
 
             response.setContentType("text/html;charset=UTF-8");
-            response.getWriter().println("<!DOCTYPE html>");
-            response.getWriter().println("<html>");
-            response.getWriter().println("<head><meta charset='UTF-8'><title>Erreur</title>");
-            response.getWriter().println("<style>");
-            response.getWriter().println("body { font-family: Arial; margin: 40px; background: #f5f5f5; }");
-            response.getWriter().println(
-                    ".error { padding: 20px; background: #ffebee; border-radius: 8px; border-left: 4px solid #f44336; }");
-            response.getWriter()
-                    .println("pre { background: #fff; padding: 15px; border-radius: 4px; overflow-x: auto; }");
-            response.getWriter().println("</style></head><body>");
-            response.getWriter().println("<h2 style='color:#f44336'>❌ Erreur</h2>");
-            response.getWriter().println("<div class='error'>");
-            response.getWriter().println("<strong>Message:</strong><br>");
-            response.getWriter().println("<pre>" + e.getMessage() + "</pre>");
-            response.getWriter().println("</div>");
-            response.getWriter().println(
-                    "<a href='javascript:history.back()' style='display:inline-block;margin-top:20px;color:#0066cc;text-decoration:none'>← Retour</a>");
-            response.getWriter().println("</body></html>");
+            writePage(response, ERROR_HEAD, e.getMessage(), ERROR_TAIL);
+        } finally {
+            routeMetrics.stop(start);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (metrics != null) {
+            metrics.close();
+        }
+        LoggerFactory.release();
+        super.destroy();
+    }
+
+    private void writeMetrics(HttpServletResponse response) throws IOException {
+        StringBuilder text = new StringBuilder(4096);
+        metrics.writePrometheus(text);
+        response.setContentType("text/plain;version=0.0.4;charset=UTF-8");
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append(text).writeTo(response);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writePage(HttpServletResponse response, byte[] head, String content, byte[] tail)
+            throws IOException {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.write(head).append(content).write(tail).writeTo(response);
+        } finally {
+            buffer.release();
         }
     }
 
-    private Object convertParameter(String value, Class<?> targetType) {
-        if (targetType == String.class) {
-            return value;
-        } else if (targetType == int.class || targetType == Integer.class) {
-            return Integer.parseInt(value);
-        } else if (targetType == long.class || targetType == Long.class) {
-            return Long.parseLong(value);
-        } else if (targetType == double.class || targetType == Double.class) {
-            return Double.parseDouble(value);
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.parseBoolean(value);
+    private ParameterConverter<?>[] resolveConverters(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        ParameterConverter<?>[] result = new ParameterConverter<?>[types.length];
+        for (int i = 0; i < types.length; i++) {
+            result[i] = converters.get(types[i]);
         }
-        return value;
+        return result;
     }
-}
\ No newline at end of file
+}
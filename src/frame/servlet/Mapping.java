@@ -1,11 +1,18 @@
 package frame.servlet;
 
+import mg.framework.core.InstanceProvider;
+import mg.framework.core.ParameterConverter;
+import mg.framework.metrics.RouteMetrics;
+
 import java.lang.reflect.Method;
 
 public class Mapping {
     private String className;
     private String methodName;
     private Method method;
+    private ParameterConverter<?>[] converters;
+    private InstanceProvider instanceProvider;
+    private RouteMetrics metrics;
     
     public Mapping(String className, String methodName, Method method) {
         this.className = className;
@@ -21,4 +28,13 @@ public class Mapping {
     
     public Method getMethod() { return method; }
     public void setMethod(Method method) { this.method = method; }
+
+    public ParameterConverter<?>[] getConverters() { return converters; }
+    public void setConverters(ParameterConverter<?>[] converters) { this.converters = converters; }
+
+    public InstanceProvider getInstanceProvider() { return instanceProvider; }
+    public void setInstanceProvider(InstanceProvider instanceProvider) { this.instanceProvider = instanceProvider; }
+
+    public RouteMetrics getMetrics() { return metrics; }
+    public void setMetrics(RouteMetrics metrics) { this.metrics = metrics; }
 }
@@ -1,62 +1,145 @@
 package framework;
 
+import mg.framework.annotation.ModelAttribute;
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.ModelBinder;
+import mg.framework.multipart.MultipartConfig;
+import mg.framework.multipart.MultipartException;
+import mg.framework.multipart.MultipartHttpServletRequest;
+import mg.framework.multipart.MultipartParser;
+import mg.framework.multipart.MultipartRequest;
+
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 
 public abstract class FrameworkServlet extends HttpServlet {
+    private static final ModelBinder MODEL_BINDER = new ModelBinder(new ConverterRegistry());
+    private static final MultipartParser DEFAULT_MULTIPART_PARSER = new MultipartParser(new MultipartConfig());
+    private static final ClassValue<SaveMethods> SAVE_METHODS = new ClassValue<>() {
+        @Override
+        protected SaveMethods computeValue(Class<?> type) {
+            return new SaveMethods(type);
+        }
+    };
 
+    /**
+     * Si la sous-classe déclare {@code save(@ModelAttribute T objet)}, les
+     * paramètres sont liés directement sur l'objet. Sinon {@code save(Map)}
+     * reçoit les paramètres et attributs de la requête. La méthode save est
+     * recherchée et compilée en MethodHandle une fois par classe ; une
+     * exception qu'elle lève arrive dans onError enveloppée dans une
+     * InvocationTargetException, comme avec la réflexion.
+     *
+     * La map passée à save, onSuccess et onError est une vue lue à la
+     * demande : seules les clés consultées sont copiées depuis la requête.
+     *
+     * Un formulaire multipart est analysé en flux : ses champs s'ajoutent aux
+     * paramètres et ses fichiers sont passés à save(Map) en MultipartFile
+     * (MultipartFile[] s'il y en a plusieurs pour le même nom).
+     */
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-
-        Map<String, Object> parameters = new HashMap<>();
-        Enumeration<String> parameterNames = request.getParameterNames();
-
-        while (parameterNames.hasMoreElements()) {
-            String paramName = parameterNames.nextElement();
-            String[] values = request.getParameterValues(paramName);
-
-            if (values.length == 1) {
-                parameters.put(paramName, values[0]);
-            } else {
-                parameters.put(paramName, values);
-            }
+        if (!MultipartParser.isMultipart(request)) {
+            process(request, response);
+            return;
         }
 
-        Enumeration<String> attributeNames = request.getAttributeNames();
-        while (attributeNames.hasMoreElements()) {
-            String attrName = attributeNames.nextElement();
-            parameters.put(attrName, request.getAttribute(attrName));
+        MultipartRequest multipart;
+        try {
+            multipart = getMultipartParser().parse(request);
+        } catch (MultipartException e) {
+            response.sendError(e.getStatus(), e.getMessage());
+            return;
+        }
+        try {
+            process(new MultipartHttpServletRequest(request, multipart), response);
+        } finally {
+            multipart.close();
         }
+    }
+
+    /**
+     * Parseur utilisé pour les formulaires multipart, avec les limites par
+     * défaut de {@link MultipartConfig}.
+     */
+    protected MultipartParser getMultipartParser() {
+        return DEFAULT_MULTIPART_PARSER;
+    }
 
+    private void process(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        SaveMethods save = SAVE_METHODS.get(getClass());
+        Map<String, Object> parameters = new RequestParameterMap(request);
         try {
-            invokeSaveMethod(parameters);
+            if (save.model != null) {
+                Object model = MODEL_BINDER.bind(save.modelType, request.getParameterMap(), save.prefix);
+                invoke(save.model, model);
+            } else if (save.map != null) {
+                invoke(save.map, parameters);
+            } else {
+                throw new NoSuchMethodException("Méthode save(Map<String, Object>) non trouvée");
+            }
             onSuccess(request, response, parameters);
         } catch (Exception e) {
             onError(request, response, parameters, e);
         }
     }
 
-    private void invokeSaveMethod(Map<String, Object> parameters) throws Exception {
-        Method saveMethod = null;
+    private void invoke(MethodHandle save, Object argument) throws InvocationTargetException {
+        try {
+            save.invokeExact((Object) this, argument);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Méthodes save d'une sous-classe, recherchées une seule fois par classe.
+     */
+    private static final class SaveMethods {
+        private static final MethodType SAVE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        final MethodHandle model;
+        final Class<?> modelType;
+        final String prefix;
+        final MethodHandle map;
 
-        Method[] methods = this.getClass().getDeclaredMethods();
-        for (Method method : methods) {
-            if ("save".equals(method.getName())) {
-                Class<?>[] paramTypes = method.getParameterTypes();
-                if (paramTypes.length == 1 && paramTypes[0] == Map.class) {
-                    saveMethod = method;
-                    break;
+        SaveMethods(Class<?> type) {
+            Method model = null;
+            Method map = null;
+            for (Method method : type.getDeclaredMethods()) {
+                if (!"save".equals(method.getName()) || method.getParameterCount() != 1) {
+                    continue;
+                }
+                if (model == null && method.getParameters()[0].isAnnotationPresent(ModelAttribute.class)) {
+                    model = method;
+                } else if (map == null && method.getParameterTypes()[0] == Map.class) {
+                    map = method;
                 }
             }
+            this.model = handle(model);
+            this.modelType = model != null ? model.getParameterTypes()[0] : null;
+            this.prefix = model != null ? model.getParameters()[0].getAnnotation(ModelAttribute.class).value() : null;
+            this.map = handle(map);
         }
 
-        if (saveMethod != null) {
-            saveMethod.invoke(this, parameters);
-        } else {
-            throw new NoSuchMethodException("Méthode save(Map<String, Object>) non trouvée");
+        private static MethodHandle handle(Method method) {
+            if (method == null) {
+                return null;
+            }
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(SAVE_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Méthode save inaccessible: " + method, e);
+            }
         }
     }
 
@@ -14,7 +14,14 @@ public class FrameworkUtils {
         return value != null ? value : defaultValue;
     }
 
+    /**
+     * Sur la map passée par FrameworkServlet, la valeur convertie est gardée :
+     * les appels suivants pour la même clé ne la reconvertissent pas.
+     */
     public static Integer getInt(Map<String, Object> parameters, String key) {
+        if (parameters instanceof RequestParameterMap) {
+            return ((RequestParameterMap) parameters).parsed(key, Integer.class, Integer::valueOf);
+        }
         String value = getString(parameters, key);
         if (value != null) {
             try {
@@ -31,7 +38,30 @@ public class FrameworkUtils {
         return value != null ? value : defaultValue;
     }
 
+    public static Long getLong(Map<String, Object> parameters, String key) {
+        if (parameters instanceof RequestParameterMap) {
+            return ((RequestParameterMap) parameters).parsed(key, Long.class, Long::valueOf);
+        }
+        String value = getString(parameters, key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    public static Long getLong(Map<String, Object> parameters, String key, Long defaultValue) {
+        Long value = getLong(parameters, key);
+        return value != null ? value : defaultValue;
+    }
+
     public static Double getDouble(Map<String, Object> parameters, String key) {
+        if (parameters instanceof RequestParameterMap) {
+            return ((RequestParameterMap) parameters).parsed(key, Double.class, Double::valueOf);
+        }
         String value = getString(parameters, key);
         if (value != null) {
             try {
@@ -44,6 +74,9 @@ public class FrameworkUtils {
     }
 
     public static Boolean getBoolean(Map<String, Object> parameters, String key) {
+        if (parameters instanceof RequestParameterMap) {
+            return ((RequestParameterMap) parameters).parsed(key, Boolean.class, Boolean::valueOf);
+        }
         String value = getString(parameters, key);
         if (value != null) {
             return Boolean.parseBoolean(value);
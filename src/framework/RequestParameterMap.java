@@ -0,0 +1,206 @@
+package framework;
+
+import mg.framework.multipart.MultipartFile;
+import mg.framework.multipart.MultipartHttpServletRequest;
+import mg.framework.multipart.MultipartRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Vue Map des paramètres, fichiers et attributs d'une requête, lue à la
+ * demande : seules les clés consultées sont copiées. Un attribut masque un
+ * fichier, qui masque un paramètre ; un paramètre à valeur unique est une
+ * String, sinon un String[]. Les écritures restent locales à la vue.
+ */
+final class RequestParameterMap extends AbstractMap<String, Object> {
+    private static final Object ABSENT = new Object();
+
+    private final HttpServletRequest request;
+    private final Map<String, Object> values = new HashMap<>();
+    private Map<Class<?>, Map<String, Object>> parsed;
+    private boolean complete;
+
+    RequestParameterMap(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Object value = values.get(key);
+        if (value == null && !complete && !values.containsKey(key)) {
+            value = lookup((String) key);
+            values.put((String) key, value);
+        }
+        return value == ABSENT ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        get(key);
+        Object value = values.get(key);
+        return value != ABSENT && values.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        values.put(key, value);
+        invalidate(key);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = get(key);
+        if (key instanceof String) {
+            values.put((String) key, ABSENT);
+            invalidate((String) key);
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Object value : materialize().values()) {
+            if (value != ABSENT) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Object>> entries = materialize().entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    private Entry<String, Object> next = advance();
+                    private Entry<String, Object> current;
+
+                    private Entry<String, Object> advance() {
+                        while (entries.hasNext()) {
+                            Entry<String, Object> entry = entries.next();
+                            if (entry.getValue() != ABSENT) {
+                                return entry;
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        current = next;
+                        next = advance();
+                        return current;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current == null) {
+                            throw new IllegalStateException();
+                        }
+                        // La clé reste connue, sinon elle serait relue depuis la requête
+                        current.setValue(ABSENT);
+                        invalidate(current.getKey());
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return RequestParameterMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Valeur convertie par {@code parser}, calculée une seule fois par clé et
+     * par type. Null si la clé est absente ou si la conversion échoue.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T parsed(String key, Class<T> type, Function<String, T> parser) {
+        if (parsed == null) {
+            parsed = new HashMap<>(4);
+        }
+        Map<String, Object> cache = parsed.computeIfAbsent(type, t -> new HashMap<>());
+        Object value = cache.get(key);
+        if (value == null) {
+            Object raw = get(key);
+            T result = null;
+            if (raw != null) {
+                try {
+                    result = parser.apply(raw.toString());
+                } catch (RuntimeException e) {
+                    result = null;
+                }
+            }
+            value = result != null ? result : ABSENT;
+            cache.put(key, value);
+        }
+        return value == ABSENT ? null : (T) value;
+    }
+
+    private void invalidate(String key) {
+        if (parsed != null) {
+            for (Map<String, Object> cache : parsed.values()) {
+                cache.remove(key);
+            }
+        }
+    }
+
+    /** Copie toutes les clés de la requête ; nécessaire pour itérer. */
+    private Map<String, Object> materialize() {
+        if (!complete) {
+            for (Enumeration<String> names = request.getParameterNames(); names.hasMoreElements(); ) {
+                get(names.nextElement());
+            }
+            MultipartRequest multipart = MultipartHttpServletRequest.of(request);
+            if (multipart != null) {
+                for (String name : multipart.getFileMap().keySet()) {
+                    get(name);
+                }
+            }
+            for (Enumeration<String> names = request.getAttributeNames(); names.hasMoreElements(); ) {
+                get(names.nextElement());
+            }
+            complete = true;
+        }
+        return values;
+    }
+
+    private Object lookup(String key) {
+        Object attribute = request.getAttribute(key);
+        if (attribute != null) {
+            return attribute;
+        }
+        MultipartRequest multipart = MultipartHttpServletRequest.of(request);
+        if (multipart != null) {
+            List<MultipartFile> files = multipart.getFiles(key);
+            if (!files.isEmpty()) {
+                return files.size() == 1 ? files.get(0) : files.toArray(new MultipartFile[0]);
+            }
+        }
+        String[] parameter = request.getParameterValues(key);
+        if (parameter == null || parameter.length == 0) {
+            return ABSENT;
+        }
+        return parameter.length == 1 ? parameter[0] : parameter;
+    }
+}
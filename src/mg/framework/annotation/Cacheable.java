@@ -0,0 +1,23 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Met en cache la réponse rendue d'une route GET idempotente.
+ * La clé est la route (URI) plus les paramètres listés dans {@code varyBy}.
+ * Les en-têtes posés par le handler sont rejoués ; une réponse qui pose un
+ * cookie ou un Cache-Control private/no-store n'est pas mise en cache.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    /** Durée de vie en secondes. */
+    long ttl() default 60;
+
+    /**
+     * Paramètres de requête faisant partie de la clé. Par défaut, ceux que lit
+     * le handler en {@code @RequestParam}, ou tous s'il reçoit un
+     * {@code @ModelAttribute} ou la requête.
+     */
+    String[] varyBy() default {};
+}
@@ -0,0 +1,13 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Service géré par le framework : instance unique, injectable par
+ * constructeur dans les contrôleurs et les autres composants.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Component {
+    String value() default "";
+}
@@ -6,4 +6,12 @@ import java.lang.annotation.*;
 @Target(ElementType.TYPE)
 public @interface Controller {
     String value() default "";
+
+    /** Exécute toutes les méthodes du contrôleur hors du thread du conteneur. */
+    boolean async() default false;
+
+    Scope scope() default Scope.SINGLETON;
+
+    /** Nombre maximal d'instances en portée {@link Scope#POOLED}. */
+    int poolSize() default 8;
 }
@@ -0,0 +1,11 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Désigne le constructeur à utiliser quand une classe en déclare plusieurs.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface Inject {
+}
@@ -0,0 +1,17 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Routes auxquelles s'applique un {@code HandlerInterceptor} déclaré comme
+ * {@code @Component}. Les motifs portent sur le chemin déclaré des routes :
+ * {@code *} remplace un segment, {@code **} la suite du chemin.
+ * Les intercepteurs s'exécutent par {@code order} croissant.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Interceptor {
+    String[] include() default {"/**"};
+    String[] exclude() default {};
+    int order() default 0;
+}
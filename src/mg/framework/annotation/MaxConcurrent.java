@@ -0,0 +1,14 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Nombre maximal de requêtes traitées en même temps sur une route, réponse
+ * asynchrone comprise. Au-delà, la requête reçoit 503 immédiatement. Sur la
+ * classe, chaque route du contrôleur a son propre compteur.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MaxConcurrent {
+    int value();
+}
@@ -0,0 +1,16 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Lie les paramètres de la requête sur les champs d'un objet.
+ * Les noms imbriqués ({@code client.adresse.ville}) et indexés
+ * ({@code lignes[3].quantite}) sont supportés. {@code value} est un préfixe
+ * optionnel : avec {@code @ModelAttribute("commande")}, seuls les paramètres
+ * {@code commande.xxx} sont liés.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ModelAttribute {
+    String value() default "";
+}
@@ -0,0 +1,9 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface PathVariable {
+    String value() default "";
+}
@@ -6,4 +6,7 @@ import java.lang.annotation.*;
 @Target(ElementType.METHOD)
 public @interface PostMapping {
     String value();
+
+    /** Exécute la méthode hors du thread du conteneur. */
+    boolean async() default false;
 }
@@ -0,0 +1,25 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Limite le débit d'une route : au-delà, la requête reçoit 429 sans que le
+ * handler soit appelé. Sur la classe, chaque route du contrôleur a sa
+ * propre limite.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimit {
+    /** Débit soutenu autorisé. */
+    double permitsPerSecond();
+
+    /** Requêtes acceptées d'un coup après une période calme (1 par défaut). */
+    int burst() default 1;
+
+    /**
+     * Répartition des limites : "" pour une limite commune à la route,
+     * "ip" par adresse du client, "param:nom" par valeur d'un paramètre de
+     * la query string.
+     */
+    String key() default "";
+}
@@ -7,4 +7,7 @@ import java.lang.annotation.*;
 public @interface RequestMapping {
     String value();
     RequestMethod method() default RequestMethod.GET;
+
+    /** Exécute la méthode hors du thread du conteneur. */
+    boolean async() default false;
 }
@@ -0,0 +1,12 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * La valeur retournée est sérialisée en JSON dans le corps de la réponse.
+ * Sur une classe, s'applique à toutes ses méthodes mappées.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface ResponseBody {
+}
@@ -0,0 +1,15 @@
+package mg.framework.annotation;
+
+/**
+ * Cycle de vie des instances d'un contrôleur.
+ */
+public enum Scope {
+    /** Une seule instance partagée : le contrôleur doit être thread-safe. */
+    SINGLETON,
+    /** Une instance par requête HTTP. */
+    REQUEST,
+    /** Une nouvelle instance à chaque appel. */
+    PROTOTYPE,
+    /** Instances réutilisées depuis un pool borné ({@link Controller#poolSize()}). */
+    POOLED
+}
@@ -0,0 +1,20 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Les requêtes concurrentes sur la même route, avec les mêmes valeurs pour
+ * les paramètres {@code key}, partagent une seule invocation du handler et
+ * reçoivent toutes sa réponse. Rien n'est conservé après la fin de l'appel.
+ * À réserver aux handlers sans effet de bord.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SingleFlight {
+    /**
+     * Paramètres de requête faisant partie de la clé. Par défaut, ceux que lit
+     * le handler en {@code @RequestParam}, ou tous s'il reçoit un
+     * {@code @ModelAttribute} ou la requête.
+     */
+    String[] key() default {};
+}
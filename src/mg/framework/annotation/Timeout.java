@@ -0,0 +1,18 @@
+package mg.framework.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Délai maximal de traitement d'une route, en millisecondes, à la place du
+ * paramètre d'initialisation requestTimeout. Passé ce délai, le client reçoit
+ * 503 et le handler est interrompu. 0 désactive le délai pour la route.
+ *
+ * Sur une route {@link Cacheable} ou {@link SingleFlight}, le délai borne
+ * l'attente d'un rendu partagé ; la requête qui rend n'est pas interrompue
+ * et peut consulter son échéance via RequestContext.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Timeout {
+    long value();
+}
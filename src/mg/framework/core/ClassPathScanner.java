@@ -0,0 +1,262 @@
+package mg.framework.core;
+
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Parcourt un package du classpath (répertoires et JAR) et retourne les
+ * classes dont le constant pool référence l'une des annotations cherchées.
+ *
+ * Les fichiers .class sont lus comme des octets : aucune classe n'est chargée
+ * ni initialisée pendant le filtrage. Le résultat est un pré-filtre, l'appelant
+ * confirme avec {@code isAnnotationPresent} après chargement. Répertoires et
+ * entrées de JAR sont traités en parallèle dans un ForkJoinPool. Un fichier
+ * .class illisible, tronqué ou invalide est ignoré avec un avertissement.
+ */
+public class ClassPathScanner {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassPathScanner.class);
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int BATCH_SIZE = 64;
+
+    private final ClassLoader classLoader;
+    private final byte[][] descriptors;
+
+    /**
+     * @param annotations annotations recherchées, ex: {@code Controller.class}
+     */
+    @SafeVarargs
+    public ClassPathScanner(ClassLoader classLoader, Class<? extends Annotation>... annotations) {
+        this.classLoader = classLoader;
+        this.descriptors = new byte[annotations.length][];
+        for (int i = 0; i < annotations.length; i++) {
+            String descriptor = "L" + annotations[i].getName().replace('.', '/') + ";";
+            this.descriptors[i] = descriptor.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Noms des classes candidates du package et de ses sous-packages, triés.
+     */
+    public List<String> scan(String basePackage) throws IOException {
+        String path = basePackage.replace('.', '/');
+        Queue<String> found = new ConcurrentLinkedQueue<>();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                String protocol = resource.getProtocol();
+
+                if ("file".equals(protocol)) {
+                    File directory = toFile(resource);
+                    if (directory.isDirectory()) {
+                        pool.invoke(new DirectoryTask(directory, basePackage, found));
+                    }
+                } else if ("jar".equals(protocol)) {
+                    scanJar(resource, path, pool, found);
+                } else {
+                    LOG.warn("Protocole non supporté pour le scan: {}", resource);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<String> result = new ArrayList<>(found);
+        Collections.sort(result);
+        return result;
+    }
+
+    private void scanJar(URL resource, String path, ForkJoinPool pool, Queue<String> found) throws IOException {
+        URLConnection connection = resource.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            LOG.warn("JAR non lisible pour le scan: {}", resource);
+            return;
+        }
+        JarURLConnection jarConnection = (JarURLConnection) connection;
+        jarConnection.setUseCaches(false);
+
+        try (JarFile jar = jarConnection.getJarFile()) {
+            String prefix = path.isEmpty() ? "" : path + "/";
+            List<JarEntry> entries = new ArrayList<>();
+            Enumeration<JarEntry> all = jar.entries();
+            while (all.hasMoreElements()) {
+                JarEntry entry = all.nextElement();
+                String name = entry.getName();
+                if (name.startsWith(prefix) && name.endsWith(".class") && !entry.isDirectory()) {
+                    entries.add(entry);
+                }
+            }
+            pool.invoke(new JarTask(jar, entries, 0, entries.size(), found));
+        }
+    }
+
+    private static File toFile(URL resource) {
+        try {
+            return new File(resource.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(resource.getFile());
+        }
+    }
+
+    /**
+     * Vrai si le constant pool de la classe contient l'un des descripteurs.
+     */
+    boolean references(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            return false;
+        }
+        data.readUnsignedShort(); // minor
+        data.readUnsignedShort(); // major
+        int count = data.readUnsignedShort();
+
+        for (int i = 1; i < count; i++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    int length = data.readUnsignedShort();
+                    byte[] bytes = new byte[length];
+                    data.readFully(bytes);
+                    if (matches(bytes)) {
+                        return true;
+                    }
+                    break;
+                case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                    data.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    data.skipBytes(3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    data.skipBytes(4);
+                    break;
+                case 5: case 6: // Long, Double : deux entrées
+                    data.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Constant pool invalide (tag " + tag + ")");
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(byte[] bytes) {
+        for (byte[] descriptor : descriptors) {
+            if (Arrays.equals(descriptor, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String className(String entryName) {
+        return entryName.substring(0, entryName.length() - 6).replace('/', '.');
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final String packageName;
+        private final Queue<String> found;
+
+        DirectoryTask(File directory, String packageName, Queue<String> found) {
+            this.directory = directory;
+            this.packageName = packageName;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return;
+            }
+
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            String prefix = packageName.isEmpty() ? "" : packageName + ".";
+            for (File file : files) {
+                String name = file.getName();
+                if (file.isDirectory()) {
+                    subtasks.add(new DirectoryTask(file, prefix + name, found));
+                } else if (name.endsWith(".class")) {
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        if (references(in)) {
+                            found.add(prefix + name.substring(0, name.length() - 6));
+                        }
+                    } catch (IOException e) {
+                        LOG.warn("Classe ignorée, lecture impossible: {} ({})", file, e.toString());
+                    }
+                }
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    private final class JarTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final JarFile jar;
+        private final List<JarEntry> entries;
+        private final int from;
+        private final int to;
+        private final Queue<String> found;
+
+        JarTask(JarFile jar, List<JarEntry> entries, int from, int to, Queue<String> found) {
+            this.jar = jar;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new JarTask(jar, entries, from, middle, found),
+                        new JarTask(jar, entries, middle, to, found));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                JarEntry entry = entries.get(i);
+                try (InputStream in = jar.getInputStream(entry)) {
+                    if (references(in)) {
+                        found.add(className(entry.getName()));
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Classe ignorée, lecture impossible: {} ({})", entry.getName(), e.toString());
+                }
+            }
+        }
+    }
+}
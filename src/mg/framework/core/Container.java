@@ -0,0 +1,271 @@
+package mg.framework.core;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.Inject;
+import mg.framework.annotation.Scope;
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Petit conteneur d'injection par constructeur.
+ *
+ * Les composants ({@code @Component}) sont des singletons. Au démarrage,
+ * {@link #initialize()} calcule le graphe de dépendances, détecte les cycles,
+ * puis instancie les composants niveau par niveau : tous les composants d'un
+ * même niveau (dont les dépendances sont déjà construites) sont créés en
+ * parallèle. Si un constructeur échoue, les composants déjà créés sont
+ * fermés avant que l'erreur ne remonte. Les contrôleurs reçoivent ensuite
+ * leurs dépendances via {@link #providerFor(Class)}, selon leur portée.
+ */
+public class Container implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(Container.class);
+
+    private final Set<Class<?>> components = new LinkedHashSet<>();
+    private final Map<Class<?>, Object> singletons = new ConcurrentHashMap<>();
+    private final List<Object> creationOrder = Collections.synchronizedList(new ArrayList<>());
+    private boolean initialized;
+
+    public void register(Class<?> componentType) {
+        if (initialized) {
+            throw new IllegalStateException("Conteneur déjà initialisé");
+        }
+        if (componentType.isInterface() || Modifier.isAbstract(componentType.getModifiers())) {
+            throw new IllegalArgumentException("Composant non instanciable: " + componentType.getName());
+        }
+        components.add(componentType);
+    }
+
+    /**
+     * Enregistre une instance existante (ex: ServletContext), injectable par
+     * son type et ses super-types.
+     */
+    public <T> void registerInstance(Class<T> type, T instance) {
+        singletons.put(type, instance);
+    }
+
+    public void initialize() throws Exception {
+        Map<Class<?>, Constructor<?>> constructors = new HashMap<>();
+        Map<Class<?>, List<Class<?>>> dependencies = new LinkedHashMap<>();
+        for (Class<?> type : components) {
+            Constructor<?> ctor = selectConstructor(type);
+            constructors.put(type, ctor);
+            List<Class<?>> deps = new ArrayList<>();
+            for (Class<?> parameter : ctor.getParameterTypes()) {
+                Class<?> provider = findProvider(parameter, type);
+                if (provider != null) {
+                    deps.add(provider);
+                }
+            }
+            dependencies.put(type, deps);
+        }
+
+        List<List<Class<?>>> levels = computeLevels(dependencies);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        boolean created = false;
+        try {
+            for (List<Class<?>> level : levels) {
+                pool.submit(() -> level.parallelStream().forEach(type -> {
+                    try {
+                        Object instance = constructors.get(type).newInstance(resolveArguments(constructors.get(type), type));
+                        singletons.put(type, instance);
+                        creationOrder.add(instance);
+                    } catch (ReflectiveOperationException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        throw new IllegalStateException("Création impossible de " + type.getName(), cause);
+                    }
+                })).get();
+            }
+            created = true;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            pool.shutdown();
+            if (!created) {
+                // Les créations encore en cours dans le niveau se terminent avant la fermeture
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+                close();
+            }
+        }
+        initialized = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getBean(Class<T> type) {
+        Object bean = singletons.get(type);
+        if (bean != null) {
+            return (T) bean;
+        }
+        Object found = null;
+        for (Map.Entry<Class<?>, Object> entry : singletons.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                if (found != null && found != entry.getValue()) {
+                    throw new IllegalStateException("Plusieurs composants de type " + type.getName());
+                }
+                found = entry.getValue();
+            }
+        }
+        if (found == null) {
+            throw new IllegalStateException("Aucun composant de type " + type.getName());
+        }
+        return (T) found;
+    }
+
+    /**
+     * Composants assignables au type, dans l'ordre d'enregistrement.
+     */
+    public <T> List<T> getBeansOfType(Class<T> type) {
+        List<T> beans = new ArrayList<>();
+        for (Class<?> component : components) {
+            Object bean = singletons.get(component);
+            if (bean != null && type.isInstance(bean)) {
+                beans.add(type.cast(bean));
+            }
+        }
+        return beans;
+    }
+
+    /**
+     * Fournisseur d'instances d'un contrôleur, avec ses dépendances résolues
+     * une fois pour toutes, selon la portée déclarée par {@code @Controller}.
+     */
+    public InstanceProvider providerFor(Class<?> controllerType) throws Exception {
+        if (!initialized) {
+            throw new IllegalStateException("Conteneur non initialisé");
+        }
+        Controller controller = controllerType.getAnnotation(Controller.class);
+        Scope scope = controller != null ? controller.scope() : Scope.PROTOTYPE;
+        int poolSize = controller != null ? controller.poolSize() : 0;
+        Constructor<?> ctor = selectConstructor(controllerType);
+        return InstanceProviders.create(controllerType, scope, poolSize, ctor, resolveArguments(ctor, controllerType));
+    }
+
+    /**
+     * Ferme les composants {@link AutoCloseable} dans l'ordre inverse de leur création.
+     */
+    @Override
+    public void close() {
+        List<Object> instances = new ArrayList<>(creationOrder);
+        Collections.reverse(instances);
+        for (Object instance : instances) {
+            if (instance instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) instance).close();
+                } catch (Exception e) {
+                    LOG.error("Erreur à la fermeture de {}", instance.getClass().getName(), e);
+                }
+            }
+        }
+        creationOrder.clear();
+    }
+
+    private Object[] resolveArguments(Constructor<?> ctor, Class<?> owner) {
+        Class<?>[] types = ctor.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            try {
+                arguments[i] = getBean(types[i]);
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException(e.getMessage() + " (requis par " + owner.getName() + ")", e);
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Composant fournissant le type, ou {@code null} s'il est fourni par une
+     * instance enregistrée.
+     */
+    private Class<?> findProvider(Class<?> parameter, Class<?> owner) {
+        Class<?> found = null;
+        for (Class<?> candidate : components) {
+            if (parameter.isAssignableFrom(candidate)) {
+                if (found != null) {
+                    throw new IllegalStateException("Plusieurs composants de type " + parameter.getName()
+                            + " (requis par " + owner.getName() + ")");
+                }
+                found = candidate;
+            }
+        }
+        if (found == null && singletons.keySet().stream().noneMatch(parameter::isAssignableFrom)) {
+            throw new IllegalStateException("Aucun composant de type " + parameter.getName()
+                    + " (requis par " + owner.getName() + ")");
+        }
+        return found;
+    }
+
+    /**
+     * Niveaux topologiques : niveau 0 sans dépendance, niveau n dépendant
+     * uniquement de niveaux inférieurs. Lève une exception en cas de cycle.
+     */
+    private static List<List<Class<?>>> computeLevels(Map<Class<?>, List<Class<?>>> dependencies) {
+        Map<Class<?>, Integer> levels = new HashMap<>();
+        for (Class<?> type : dependencies.keySet()) {
+            level(type, dependencies, levels, new ArrayList<>());
+        }
+
+        List<List<Class<?>>> result = new ArrayList<>();
+        for (Map.Entry<Class<?>, Integer> entry : levels.entrySet()) {
+            while (result.size() <= entry.getValue()) {
+                result.add(new ArrayList<>());
+            }
+            result.get(entry.getValue()).add(entry.getKey());
+        }
+        return result;
+    }
+
+    private static int level(Class<?> type, Map<Class<?>, List<Class<?>>> dependencies,
+            Map<Class<?>, Integer> levels, List<Class<?>> path) {
+        Integer known = levels.get(type);
+        if (known != null) {
+            return known;
+        }
+        if (path.contains(type)) {
+            StringBuilder cycle = new StringBuilder();
+            for (Class<?> c : path.subList(path.indexOf(type), path.size())) {
+                cycle.append(c.getSimpleName()).append(" -> ");
+            }
+            throw new IllegalStateException("Dépendance circulaire: " + cycle + type.getSimpleName());
+        }
+
+        path.add(type);
+        int level = 0;
+        for (Class<?> dependency : dependencies.get(type)) {
+            level = Math.max(level, level(dependency, dependencies, levels, path) + 1);
+        }
+        path.remove(path.size() - 1);
+        levels.put(type, level);
+        return level;
+    }
+
+    private static Constructor<?> selectConstructor(Class<?> type) throws NoSuchMethodException {
+        Constructor<?>[] constructors = type.getDeclaredConstructors();
+        for (Constructor<?> ctor : constructors) {
+            if (ctor.isAnnotationPresent(Inject.class)) {
+                ctor.setAccessible(true);
+                return ctor;
+            }
+        }
+        if (constructors.length == 1) {
+            constructors[0].setAccessible(true);
+            return constructors[0];
+        }
+        Constructor<?> ctor = type.getDeclaredConstructor();
+        ctor.setAccessible(true);
+        return ctor;
+    }
+}
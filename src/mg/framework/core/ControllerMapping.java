@@ -1,20 +1,87 @@
 package mg.framework.core;
 
+import mg.framework.annotation.Cacheable;
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.GetMapping;
+import mg.framework.annotation.MaxConcurrent;
+import mg.framework.annotation.ModelAttribute;
+import mg.framework.annotation.PathVariable;
+import mg.framework.annotation.PostMapping;
+import mg.framework.annotation.RateLimit;
+import mg.framework.annotation.RequestMapping;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.ResponseBody;
+import mg.framework.annotation.SingleFlight;
+import mg.framework.annotation.Timeout;
+import mg.framework.limit.ConcurrencyLimiter;
+import mg.framework.limit.RateLimiter;
+import mg.framework.metrics.RouteMetrics;
+import mg.framework.multipart.MultipartFile;
+import mg.framework.multipart.MultipartHttpServletRequest;
+import mg.framework.multipart.MultipartRequest;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 public class ControllerMapping {
-    private Object controller;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private InstanceProvider instances;
     private Method method;
     private String httpMethod;
+    private String path;
+    private boolean responseBody;
+    private boolean async;
+    private boolean completionStage;
+    private Cacheable cacheable;
+    private SingleFlight singleFlight;
+    private MethodHandle invoker;
+    private ParameterResolver[] resolvers;
+    private String[] boundParameters;
+    private RouteMetrics metrics;
+    private HandlerInterceptor[] interceptors = new HandlerInterceptor[0];
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private long timeout;
 
-    public ControllerMapping(Object controller, Method method, String httpMethod) {
-        this.controller = controller;
+    public ControllerMapping(InstanceProvider instances, Method method, String httpMethod, String path,
+            ConverterRegistry converters, ModelBinder binder) throws IllegalAccessException {
+        this.instances = instances;
         this.method = method;
         this.httpMethod = httpMethod;
+        this.path = path;
+        this.responseBody = method.isAnnotationPresent(ResponseBody.class)
+                || method.getDeclaringClass().isAnnotationPresent(ResponseBody.class);
+        this.async = isAsync(method);
+        this.completionStage = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        this.cacheable = "GET".equals(httpMethod) ? method.getAnnotation(Cacheable.class) : null;
+        this.singleFlight = method.getAnnotation(SingleFlight.class);
+        this.rateLimiter = RateLimiter.of(annotation(method, RateLimit.class));
+        this.concurrencyLimiter = ConcurrencyLimiter.of(annotation(method, MaxConcurrent.class));
+        Timeout timeout = annotation(method, Timeout.class);
+        this.timeout = timeout != null ? timeout.value() : -1;
+        this.resolvers = compileResolvers(method, Router.variableNames(path), converters, binder);
+        this.boundParameters = boundParameters(method);
+        this.invoker = compileInvoker(method);
+        this.metrics = new RouteMetrics(httpMethod, path);
     }
 
-    public Object getController() {
-        return controller;
+    public InstanceProvider getInstances() {
+        return instances;
     }
 
     public Method getMethod() {
@@ -24,4 +91,307 @@ public class ControllerMapping {
     public String getHttpMethod() {
         return httpMethod;
     }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Vrai si le contrôleur ou l'annotation de mapping demande une exécution
+     * asynchrone (attribut {@code async}).
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Vrai si la méthode déclare retourner un CompletionStage.
+     */
+    public boolean isCompletionStage() {
+        return completionStage;
+    }
+
+    /**
+     * Configuration du cache de réponse, ou null si la route n'est pas mise en
+     * cache (seules les routes GET peuvent l'être).
+     */
+    public Cacheable getCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Regroupement des appels concurrents identiques, ou null.
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Paramètres de requête lus par le handler via {@link RequestParam}, ou
+     * null s'il peut en lire n'importe lequel ({@link ModelAttribute} ou
+     * HttpServletRequest en argument). Clé par défaut du cache et du
+     * regroupement.
+     */
+    public String[] getBoundParameters() {
+        return boundParameters;
+    }
+
+    /**
+     * Compteurs et latences de la route, alimentés par {@link #invoke}.
+     */
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Limite de débit de la route ({@link RateLimit}), ou null.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Limite de requêtes simultanées ({@link MaxConcurrent}), ou null.
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Délai de traitement en millisecondes ({@link Timeout}), 0 pour aucun,
+     * -1 pour le délai par défaut de la servlet.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Intercepteurs de la route, dans l'ordre d'exécution (tableau vide si
+     * aucun).
+     */
+    public HandlerInterceptor[] getInterceptors() {
+        return interceptors;
+    }
+
+    public void setInterceptors(HandlerInterceptor[] interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    /**
+     * Résout les arguments et appelle la méthode du contrôleur, sans aucune
+     * introspection pendant la requête. Pour un CompletionStage, durée et
+     * erreur sont mesurées à sa fin.
+     */
+    public Object invoke(HttpServletRequest req, HttpServletResponse resp, RouteMatch<?> match) throws Exception {
+        RouteMetrics metrics = this.metrics;
+        long start = metrics.start();
+        Object result;
+        try {
+            result = doInvoke(req, resp, match);
+        } catch (Exception | Error e) {
+            metrics.failed(e);
+            metrics.stop(start);
+            throw e;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, error) -> {
+                if (error != null) {
+                    metrics.failed(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+                metrics.stop(start);
+            });
+        } else {
+            metrics.stop(start);
+        }
+        return result;
+    }
+
+    private Object doInvoke(HttpServletRequest req, HttpServletResponse resp, RouteMatch<?> match) throws Exception {
+        ParameterResolver[] resolvers = this.resolvers;
+        Object[] args = resolvers.length == 0 ? NO_ARGS : new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(req, resp, match);
+        }
+
+        Object controller = instances.acquire(req);
+        Object result = null;
+        try {
+            result = (Object) invoker.invokeExact(controller, args);
+            return result;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ServletException("Erreur lors de l'invocation de " + method.getName(), t);
+        } finally {
+            // Un handler asynchrone garde son instance jusqu'à la fin de son CompletionStage
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((value, error) -> instances.release(controller));
+            } else {
+                instances.release(controller);
+            }
+        }
+    }
+
+    /** Annotation de la méthode, sinon celle de son contrôleur. */
+    private static <A extends Annotation> A annotation(Method method, Class<A> type) {
+        A annotation = method.getAnnotation(type);
+        return annotation != null ? annotation : method.getDeclaringClass().getAnnotation(type);
+    }
+
+    private static boolean isAsync(Method method) {
+        Controller controller = method.getDeclaringClass().getAnnotation(Controller.class);
+        GetMapping get = method.getAnnotation(GetMapping.class);
+        PostMapping post = method.getAnnotation(PostMapping.class);
+        RequestMapping request = method.getAnnotation(RequestMapping.class);
+        return (controller != null && controller.async()) || (get != null && get.async())
+                || (post != null && post.async()) || (request != null && request.async());
+    }
+
+    /**
+     * Compile la méthode en un MethodHandle de forme (Object, Object[]) -> Object,
+     * le premier argument étant l'instance fournie par la portée du contrôleur.
+     */
+    private static MethodHandle compileInvoker(Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        int arity = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity);
+    }
+
+    private static ParameterResolver[] compileResolvers(Method method, List<String> pathVariables,
+            ConverterRegistry converters, ModelBinder binder) {
+        Parameter[] parameters = method.getParameters();
+        ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = compileResolver(method, parameters[i], pathVariables, converters, binder);
+        }
+        return resolvers;
+    }
+
+    private static String[] boundParameters(Method method) {
+        List<String> names = new ArrayList<>();
+        for (Parameter param : method.getParameters()) {
+            Class<?> type = param.getType();
+            if (type == HttpServletRequest.class || param.isAnnotationPresent(ModelAttribute.class)) {
+                return null;
+            }
+            if (param.isAnnotationPresent(RequestParam.class) && type != MultipartFile.class
+                    && type != MultipartFile[].class) {
+                names.add(param.getAnnotation(RequestParam.class).value());
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static ParameterResolver compileResolver(Method method, Parameter param, List<String> pathVariables,
+            ConverterRegistry converters, ModelBinder binder) {
+        Class<?> type = param.getType();
+
+        if (type == HttpServletRequest.class) {
+            return (req, resp, match) -> req;
+        }
+        if (type == HttpServletResponse.class) {
+            return (req, resp, match) -> resp;
+        }
+        if (type == RequestContext.class) {
+            return (req, resp, match) -> RequestContext.of(req);
+        }
+        if (param.isAnnotationPresent(PathVariable.class)) {
+            String name = param.getAnnotation(PathVariable.class).value();
+            if (name.isEmpty()) {
+                name = param.getName();
+            }
+            int index = pathVariables.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Variable de chemin '" + name + "' absente de la route de "
+                        + method.getDeclaringClass().getSimpleName() + "." + method.getName());
+            }
+            String variableName = name;
+            ParameterConverter<?> converter = converters.get(type);
+            return (req, resp, match) -> convert(converter, match.getValue(index), variableName);
+        }
+        if (type == MultipartFile.class || type == MultipartFile[].class) {
+            RequestParam annotation = param.getAnnotation(RequestParam.class);
+            String fileName = annotation != null && !annotation.value().isEmpty() ? annotation.value() : param.getName();
+            boolean required = annotation == null || annotation.required();
+            boolean array = type.isArray();
+            return (req, resp, match) -> {
+                MultipartRequest multipart = MultipartHttpServletRequest.of(req);
+                List<MultipartFile> files = multipart != null ? multipart.getFiles(fileName) : List.of();
+                if (files.isEmpty() && required) {
+                    throw new ServletException("Fichier obligatoire manquant: " + fileName);
+                }
+                if (array) {
+                    return files.toArray(new MultipartFile[0]);
+                }
+                return files.isEmpty() ? null : files.get(0);
+            };
+        }
+        if (param.isAnnotationPresent(RequestParam.class)) {
+            RequestParam annotation = param.getAnnotation(RequestParam.class);
+            String paramName = annotation.value();
+            boolean required = annotation.required();
+
+            if (type.isArray()) {
+                Class<?> componentType = type.getComponentType();
+                ParameterConverter<?> converter = converters.get(componentType);
+                return (req, resp, match) -> {
+                    String[] values = req.getParameterValues(paramName);
+                    if (values == null) {
+                        if (required) {
+                            throw new ServletException("Paramètre obligatoire manquant: " + paramName);
+                        }
+                        return null;
+                    }
+                    Object array = Array.newInstance(componentType, values.length);
+                    for (int i = 0; i < values.length; i++) {
+                        Array.set(array, i, convert(converter, values[i], paramName));
+                    }
+                    return array;
+                };
+            }
+
+            ParameterConverter<?> converter = converters.get(type);
+            Object missing = ConverterRegistry.defaultValue(type);
+            return (req, resp, match) -> {
+                String paramValue = req.getParameter(paramName);
+                if (paramValue == null) {
+                    if (required) {
+                        throw new ServletException("Paramètre obligatoire manquant: " + paramName);
+                    }
+                    return missing;
+                }
+                return convert(converter, paramValue, paramName);
+            };
+        }
+        if (param.isAnnotationPresent(ModelAttribute.class)) {
+            String prefix = param.getAnnotation(ModelAttribute.class).value();
+            return (req, resp, match) -> {
+                try {
+                    return binder.bind(type, req.getParameterMap(), prefix);
+                } catch (IllegalArgumentException e) {
+                    throw new ServletException(e.getMessage(), e);
+                }
+            };
+        }
+        return (req, resp, match) -> null;
+    }
+
+    private static Object convert(ParameterConverter<?> converter, CharSequence value, String name)
+            throws ServletException {
+        try {
+            return converter.convert(value);
+        } catch (Exception e) {
+            throw new ServletException("Valeur invalide pour le paramètre " + name + ": '" + value + "'", e);
+        }
+    }
 }
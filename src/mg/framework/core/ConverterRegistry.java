@@ -0,0 +1,206 @@
+package mg.framework.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des {@link ParameterConverter} par type.
+ *
+ * Convertisseurs fournis : String, types primitifs et leurs wrappers, enums,
+ * UUID, BigDecimal, BigInteger et les types java.time usuels. Les tableaux
+ * sont gérés par l'appelant à partir du convertisseur du type des éléments.
+ * Les entiers sont lus directement depuis le CharSequence, sans copie.
+ */
+public class ConverterRegistry {
+    private final Map<Class<?>, ParameterConverter<?>> converters = new ConcurrentHashMap<>();
+
+    public ConverterRegistry() {
+        register(String.class, CharSequence::toString);
+        register(CharSequence.class, value -> value);
+
+        ParameterConverter<Integer> intConverter = ConverterRegistry::parseInt;
+        register(int.class, intConverter);
+        register(Integer.class, intConverter);
+
+        ParameterConverter<Long> longConverter = ConverterRegistry::parseLong;
+        register(long.class, longConverter);
+        register(Long.class, longConverter);
+
+        ParameterConverter<Short> shortConverter = value -> checkedShort(parseInt(value), value);
+        register(short.class, shortConverter);
+        register(Short.class, shortConverter);
+
+        ParameterConverter<Byte> byteConverter = value -> checkedByte(parseInt(value), value);
+        register(byte.class, byteConverter);
+        register(Byte.class, byteConverter);
+
+        ParameterConverter<Double> doubleConverter = value -> Double.parseDouble(value.toString());
+        register(double.class, doubleConverter);
+        register(Double.class, doubleConverter);
+
+        ParameterConverter<Float> floatConverter = value -> Float.parseFloat(value.toString());
+        register(float.class, floatConverter);
+        register(Float.class, floatConverter);
+
+        ParameterConverter<Boolean> booleanConverter = ConverterRegistry::parseBoolean;
+        register(boolean.class, booleanConverter);
+        register(Boolean.class, booleanConverter);
+
+        ParameterConverter<Character> charConverter = value -> {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("Un seul caractère attendu: '" + value + "'");
+            }
+            return value.charAt(0);
+        };
+        register(char.class, charConverter);
+        register(Character.class, charConverter);
+
+        register(BigDecimal.class, value -> new BigDecimal(value.toString()));
+        register(BigInteger.class, value -> new BigInteger(value.toString()));
+        register(UUID.class, value -> UUID.fromString(value.toString()));
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(Instant.class, value -> Instant.parse(value));
+        register(OffsetDateTime.class, OffsetDateTime::parse);
+        register(ZonedDateTime.class, ZonedDateTime::parse);
+        register(Duration.class, Duration::parse);
+    }
+
+    public <T> void register(Class<T> type, ParameterConverter<? extends T> converter) {
+        converters.put(type, converter);
+    }
+
+    /**
+     * Convertisseur pour le type, créé à la demande pour les enums.
+     *
+     * @throws IllegalArgumentException si aucun convertisseur ne gère ce type
+     */
+    public ParameterConverter<?> get(Class<?> type) {
+        ParameterConverter<?> converter = converters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            converter = enumConverter(type);
+            converters.put(type, converter);
+            return converter;
+        }
+        throw new IllegalArgumentException("Aucun convertisseur pour le type " + type.getName());
+    }
+
+    public boolean supports(Class<?> type) {
+        return converters.containsKey(type) || type.isEnum();
+    }
+
+    /**
+     * Valeur utilisée pour un paramètre primitif optionnel absent.
+     */
+    public static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) return null;
+        if (type == boolean.class) return Boolean.FALSE;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+
+    private static ParameterConverter<?> enumConverter(Class<?> type) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            constants.put(((Enum<?>) constant).name(), constant);
+        }
+        return value -> {
+            Object constant = constants.get(value.toString());
+            if (constant == null) {
+                throw new IllegalArgumentException("Valeur inconnue pour " + type.getSimpleName() + ": " + value);
+            }
+            return constant;
+        };
+    }
+
+    private static Boolean parseBoolean(CharSequence value) {
+        return value.length() == 4
+                && Character.toLowerCase(value.charAt(0)) == 't'
+                && Character.toLowerCase(value.charAt(1)) == 'r'
+                && Character.toLowerCase(value.charAt(2)) == 'u'
+                && Character.toLowerCase(value.charAt(3)) == 'e';
+    }
+
+    private static Short checkedShort(int value, CharSequence text) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new NumberFormatException("Valeur hors limites: " + text);
+        }
+        return (short) value;
+    }
+
+    private static Byte checkedByte(int value, CharSequence text) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new NumberFormatException("Valeur hors limites: " + text);
+        }
+        return (byte) value;
+    }
+
+    /**
+     * Équivalent de {@link Integer#parseInt(String)} sur un CharSequence.
+     */
+    public static int parseInt(CharSequence s) {
+        return (int) parse(s, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Équivalent de {@link Long#parseLong(String)} sur un CharSequence.
+     */
+    public static long parseLong(CharSequence s) {
+        return parse(s, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private static long parse(CharSequence s, long min, long max) {
+        int length = s.length();
+        if (length == 0) {
+            throw new NumberFormatException("Nombre vide");
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char first = s.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (length == 1) {
+                throw new NumberFormatException("Nombre invalide: " + s);
+            }
+        }
+
+        // Accumulation en négatif pour couvrir min sans débordement
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multmin) {
+                throw new NumberFormatException("Nombre invalide: " + s);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("Nombre invalide: " + s);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+}
@@ -0,0 +1,12 @@
+package mg.framework.core;
+
+/**
+ * Le délai de traitement de la requête est dépassé ; le client reçoit 503.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
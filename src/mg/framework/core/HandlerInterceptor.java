@@ -0,0 +1,41 @@
+package mg.framework.core;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Traitement transverse autour de l'appel d'un contrôleur (authentification,
+ * traces, limitation de débit...).
+ *
+ * Un {@code @Component} qui implémente cette interface s'applique à toutes
+ * les routes, ou à celles choisies par {@link mg.framework.annotation.Interceptor}.
+ * La chaîne de chaque route est calculée au démarrage.
+ */
+public interface HandlerInterceptor {
+
+    /**
+     * Avant le contrôleur, et avant le cache de réponse. Retourner false
+     * arrête le traitement : la réponse doit alors avoir été écrite.
+     */
+    default boolean preHandle(HttpServletRequest req, HttpServletResponse resp, ControllerMapping handler)
+            throws Exception {
+        return true;
+    }
+
+    /**
+     * Après le contrôleur, avant le rendu du résultat. Non appelé si le
+     * contrôleur a levé une exception, ni quand la réponse vient du cache.
+     */
+    default void postHandle(HttpServletRequest req, HttpServletResponse resp, ControllerMapping handler,
+            Object result) throws Exception {
+    }
+
+    /**
+     * Une fois la réponse terminée, y compris en asynchrone, pour chaque
+     * intercepteur dont preHandle a retourné true. {@code error} est null
+     * en cas de succès.
+     */
+    default void afterCompletion(HttpServletRequest req, HttpServletResponse resp, ControllerMapping handler,
+            Exception error) throws Exception {
+    }
+}
@@ -0,0 +1,15 @@
+package mg.framework.core;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Fournit l'instance de contrôleur sur laquelle appeler un handler, selon sa
+ * portée. Chaque {@link #acquire} est suivi d'un {@link #release}, à la fin
+ * du CompletionStage si le handler en retourne un. {@code acquire} lève
+ * {@link InstanceUnavailableException} plutôt que d'attendre une instance.
+ */
+public interface InstanceProvider {
+    Object acquire(HttpServletRequest req) throws Exception;
+
+    void release(Object instance);
+}
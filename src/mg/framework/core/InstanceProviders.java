@@ -0,0 +1,179 @@
+package mg.framework.core;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.Scope;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Crée les {@link InstanceProvider} selon la portée déclarée par
+ * {@code @Controller(scope = ...)}. Le constructeur sans argument est compilé
+ * une fois en MethodHandle : plus de {@code Class.forName} ni de
+ * {@code newInstance} réflexif par requête.
+ */
+public final class InstanceProviders {
+    private InstanceProviders() {
+    }
+
+    /**
+     * Portée lue sur {@code @Controller} ; une classe sans cette annotation
+     * est traitée en {@link Scope#PROTOTYPE}.
+     */
+    public static InstanceProvider forClass(Class<?> type) throws Exception {
+        Controller controller = type.getAnnotation(Controller.class);
+        Scope scope = controller != null ? controller.scope() : Scope.PROTOTYPE;
+        int poolSize = controller != null ? controller.poolSize() : 0;
+        return create(type, scope, poolSize);
+    }
+
+    public static InstanceProvider create(Class<?> type, Scope scope, int poolSize) throws Exception {
+        return create(type, scope, poolSize, type.getDeclaredConstructor(), new Object[0]);
+    }
+
+    /**
+     * Variante avec injection : {@code arguments} (résolus une fois au
+     * démarrage) sont passés au constructeur à chaque instanciation.
+     */
+    public static InstanceProvider create(Class<?> type, Scope scope, int poolSize,
+            Constructor<?> ctor, Object[] arguments) throws Exception {
+        MethodHandle constructor = constructor(ctor, arguments);
+        switch (scope) {
+            case SINGLETON:
+                return new Singleton(newInstance(constructor));
+            case REQUEST:
+                return new RequestScoped(constructor, "mg.framework.controller." + type.getName());
+            case POOLED:
+                if (poolSize <= 0) {
+                    throw new IllegalArgumentException("poolSize doit être positif pour " + type.getName());
+                }
+                return new Pooled(constructor, poolSize, type.getName());
+            default:
+                return new Prototype(constructor);
+        }
+    }
+
+    private static MethodHandle constructor(Constructor<?> ctor, Object[] arguments)
+            throws ReflectiveOperationException {
+        ctor.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(ctor);
+        if (arguments.length > 0) {
+            handle = MethodHandles.insertArguments(handle, 0, arguments);
+        }
+        return handle.asType(MethodType.methodType(Object.class));
+    }
+
+    static Object newInstance(MethodHandle constructor) throws Exception {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ServletException("Instanciation impossible du contrôleur", t);
+        }
+    }
+
+    private static final class Singleton implements InstanceProvider {
+        private final Object instance;
+
+        Singleton(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public Object acquire(HttpServletRequest req) {
+            return instance;
+        }
+
+        @Override
+        public void release(Object instance) {
+        }
+    }
+
+    private static final class Prototype implements InstanceProvider {
+        private final MethodHandle constructor;
+
+        Prototype(MethodHandle constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object acquire(HttpServletRequest req) throws Exception {
+            return newInstance(constructor);
+        }
+
+        @Override
+        public void release(Object instance) {
+        }
+    }
+
+    private static final class RequestScoped implements InstanceProvider {
+        private final MethodHandle constructor;
+        private final String attribute;
+
+        RequestScoped(MethodHandle constructor, String attribute) {
+            this.constructor = constructor;
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Object acquire(HttpServletRequest req) throws Exception {
+            Object instance = req.getAttribute(attribute);
+            if (instance == null) {
+                instance = newInstance(constructor);
+                req.setAttribute(attribute, instance);
+            }
+            return instance;
+        }
+
+        @Override
+        public void release(Object instance) {
+        }
+    }
+
+    private static final class Pooled implements InstanceProvider {
+        private final MethodHandle constructor;
+        private final BlockingQueue<Object> idle;
+        private final Semaphore permits;
+        private final String name;
+
+        Pooled(MethodHandle constructor, int size, String name) {
+            this.constructor = constructor;
+            this.idle = new ArrayBlockingQueue<>(size);
+            this.permits = new Semaphore(size);
+            this.name = name;
+        }
+
+        @Override
+        public Object acquire(HttpServletRequest req) throws Exception {
+            // Pas d'attente : un pool saturé renvoie 503 sans bloquer le conteneur
+            if (!permits.tryAcquire()) {
+                throw new InstanceUnavailableException("Pool de contrôleurs saturé: " + name);
+            }
+            Object instance = idle.poll();
+            if (instance == null) {
+                try {
+                    instance = newInstance(constructor);
+                } catch (Exception | Error e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            return instance;
+        }
+
+        @Override
+        public void release(Object instance) {
+            idle.offer(instance);
+            permits.release();
+        }
+    }
+}
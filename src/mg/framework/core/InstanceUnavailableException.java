@@ -0,0 +1,13 @@
+package mg.framework.core;
+
+/**
+ * Aucune instance de contrôleur n'est libre dans le pool ; la requête est
+ * refusée en 503 plutôt que de bloquer un thread du conteneur.
+ */
+public class InstanceUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InstanceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,120 @@
+package mg.framework.core;
+
+import mg.framework.annotation.Interceptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Intercepteur avec ses motifs de routes, résolu une seule fois par route
+ * au démarrage.
+ */
+public class InterceptorRegistration {
+    private static final String[] ALL = {"/**"};
+    private static final String[] NONE = {};
+    private static final HandlerInterceptor[] EMPTY = new HandlerInterceptor[0];
+
+    private final HandlerInterceptor interceptor;
+    private final String[] include;
+    private final String[] exclude;
+    private final int order;
+
+    public InterceptorRegistration(HandlerInterceptor interceptor, String[] include, String[] exclude, int order) {
+        this.interceptor = interceptor;
+        this.include = include;
+        this.exclude = exclude;
+        this.order = order;
+    }
+
+    /** Configuration lue sur {@link Interceptor}, ou toutes les routes. */
+    public static InterceptorRegistration of(HandlerInterceptor interceptor) {
+        Interceptor annotation = interceptor.getClass().getAnnotation(Interceptor.class);
+        if (annotation == null) {
+            return new InterceptorRegistration(interceptor, ALL, NONE, 0);
+        }
+        return new InterceptorRegistration(interceptor, annotation.include(), annotation.exclude(), annotation.order());
+    }
+
+    public HandlerInterceptor getInterceptor() {
+        return interceptor;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public boolean appliesTo(String path) {
+        for (String pattern : exclude) {
+            if (matches(pattern, path)) {
+                return false;
+            }
+        }
+        for (String pattern : include) {
+            if (matches(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chaîne d'une route : tableau vide partagé si aucun intercepteur ne
+     * s'applique.
+     */
+    public static HandlerInterceptor[] chainFor(String path, List<InterceptorRegistration> registrations) {
+        List<InterceptorRegistration> applicable = new ArrayList<>();
+        for (InterceptorRegistration registration : registrations) {
+            if (registration.appliesTo(path)) {
+                applicable.add(registration);
+            }
+        }
+        if (applicable.isEmpty()) {
+            return EMPTY;
+        }
+        applicable.sort(Comparator.comparingInt(InterceptorRegistration::getOrder));
+        HandlerInterceptor[] chain = new HandlerInterceptor[applicable.size()];
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = applicable.get(i).getInterceptor();
+        }
+        return chain;
+    }
+
+    /**
+     * Compare segment par segment ; une variable {@code {id}} de la route est
+     * un segment comme un autre.
+     */
+    static boolean matches(String pattern, String path) {
+        String[] patternSegments = split(pattern);
+        String[] pathSegments = split(path);
+        return matches(patternSegments, 0, pathSegments, 0);
+    }
+
+    private static boolean matches(String[] pattern, int i, String[] path, int j) {
+        for (; i < pattern.length; i++, j++) {
+            if (pattern[i].equals("**")) {
+                if (i == pattern.length - 1) {
+                    return true;
+                }
+                for (int k = j; k <= path.length; k++) {
+                    if (matches(pattern, i + 1, path, k)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (j >= path.length || !(pattern[i].equals("*") || pattern[i].equals(path[j]))) {
+                return false;
+            }
+        }
+        return j == path.length;
+    }
+
+    private static String[] split(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        if (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? NONE : trimmed.split("/");
+    }
+}
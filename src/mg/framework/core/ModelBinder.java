@@ -0,0 +1,342 @@
+package mg.framework.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lie les paramètres de requête sur un objet (POJO), sans map intermédiaire.
+ *
+ * Pour chaque classe, les accesseurs (setters ou champs) sont compilés une
+ * seule fois en MethodHandle et conservés dans un {@link ClassValue}, avec le
+ * convertisseur de chaque propriété. Noms supportés :
+ * <ul>
+ *   <li>{@code nom}, {@code client.adresse.ville}</li>
+ *   <li>{@code lignes[3].quantite}, {@code tags[0]} sur List ou tableau</li>
+ * </ul>
+ * Les paramètres ne correspondant à aucune propriété sont ignorés.
+ */
+public class ModelBinder {
+    /** Taille maximale d'une liste créée par un index de paramètre. */
+    public static final int MAX_INDEX = 256;
+
+    private final ConverterRegistry converters;
+    private final ClassValue<BeanInfo> beans = new ClassValue<BeanInfo>() {
+        @Override
+        protected BeanInfo computeValue(Class<?> type) {
+            return new BeanInfo(type);
+        }
+    };
+
+    public ModelBinder(ConverterRegistry converters) {
+        this.converters = converters;
+    }
+
+    public ConverterRegistry getConverters() {
+        return converters;
+    }
+
+    /**
+     * Crée une instance de {@code type} et y lie les paramètres.
+     *
+     * @param prefix préfixe des noms à lier, ou chaîne vide
+     */
+    public <T> T bind(Class<T> type, Map<String, String[]> parameters, String prefix) {
+        BeanInfo bean = beans.get(type);
+        Object target = bean.newInstance();
+        int start = prefix.isEmpty() ? 0 : prefix.length() + 1;
+
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            String name = entry.getKey();
+            if (start > 0 && !(name.length() > start && name.startsWith(prefix)
+                    && name.charAt(prefix.length()) == '.')) {
+                continue;
+            }
+            String[] values = entry.getValue();
+            if (values != null && values.length > 0) {
+                try {
+                    bindPath(bean, target, name, start, values);
+                } catch (IllegalArgumentException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalArgumentException("Liaison impossible du paramètre " + name, t);
+                }
+            }
+        }
+        return type.cast(target);
+    }
+
+    private void bindPath(BeanInfo bean, Object target, String name, int pos, String[] values) throws Throwable {
+        int length = name.length();
+        while (true) {
+            int end = pos;
+            while (end < length && name.charAt(end) != '.' && name.charAt(end) != '[') {
+                end++;
+            }
+            Property property = bean.property(name, pos, end);
+            if (property == null) {
+                return;
+            }
+
+            if (end == length) {
+                property.setValues(target, values, name);
+                return;
+            }
+
+            if (name.charAt(end) == '.') {
+                if (property.converter != null) {
+                    return;
+                }
+                Object child = property.getOrCreate(target);
+                bean = beans.get(property.type);
+                target = child;
+                pos = end + 1;
+                continue;
+            }
+
+            // Segment indexé : nom[index]
+            int close = name.indexOf(']', end);
+            if (close < 0 || property.elementType == null) {
+                return;
+            }
+            int index = ConverterRegistry.parseInt(name.subSequence(end + 1, close));
+            if (index < 0 || index >= MAX_INDEX) {
+                throw new IllegalArgumentException("Index hors limites (" + MAX_INDEX + ") : " + name);
+            }
+
+            if (close + 1 == length) {
+                property.setElement(target, index, convert(property.elementConverter(), values[0], name));
+                return;
+            }
+            if (name.charAt(close + 1) != '.' || property.elementConverter() != null) {
+                return;
+            }
+            Object element = property.getOrCreateElement(target, index);
+            bean = beans.get(property.elementType);
+            target = element;
+            pos = close + 2;
+        }
+    }
+
+    private static Object convert(ParameterConverter<?> converter, String value, String name) {
+        try {
+            return converter.convert(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Valeur invalide pour " + name + ": '" + value + "'", e);
+        }
+    }
+
+    private final class BeanInfo {
+        private final Class<?> type;
+        private final MethodHandle constructor;
+        private final Map<String, Property> properties = new HashMap<>();
+
+        BeanInfo(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                Constructor<?> ctor = type.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Constructeur sans argument requis pour " + type.getName(), e);
+            }
+
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                            || properties.containsKey(field.getName())) {
+                        continue;
+                    }
+                    try {
+                        properties.put(field.getName(), new Property(lookup, field));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalArgumentException("Champ inaccessible: " + field, e);
+                    }
+                }
+            }
+        }
+
+        Object newInstance() {
+            try {
+                return constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalArgumentException("Instanciation impossible de " + type.getName(), t);
+            }
+        }
+
+        Property property(String name, int from, int to) {
+            return properties.get(name.substring(from, to));
+        }
+    }
+
+    private final class Property {
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> elementType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final ParameterConverter<?> converter;
+
+        Property(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.elementType = elementType(field);
+            this.getter = accessor(lookup, field, true);
+            this.setter = accessor(lookup, field, false);
+            this.converter = converters.supports(type) ? converters.get(type) : null;
+        }
+
+        ParameterConverter<?> elementConverter() {
+            return converters.supports(elementType) ? converters.get(elementType) : null;
+        }
+
+        void setValues(Object target, String[] values, String fullName) throws Throwable {
+            if (converter != null) {
+                setter.invokeExact(target, convert(converter, values[0], fullName));
+                return;
+            }
+            ParameterConverter<?> elementConverter = elementType != null ? elementConverter() : null;
+            if (elementConverter == null) {
+                return;
+            }
+            if (type.isArray()) {
+                Object array = Array.newInstance(elementType, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    Array.set(array, i, convert(elementConverter, values[i], fullName));
+                }
+                setter.invokeExact(target, array);
+            } else {
+                List<Object> list = new ArrayList<>(values.length);
+                for (String value : values) {
+                    list.add(convert(elementConverter, value, fullName));
+                }
+                setter.invokeExact(target, (Object) list);
+            }
+        }
+
+        Object getOrCreate(Object target) throws Throwable {
+            Object value = (Object) getter.invokeExact(target);
+            if (value == null) {
+                value = beans.get(type).newInstance();
+                setter.invokeExact(target, value);
+            }
+            return value;
+        }
+
+        void setElement(Object target, int index, Object element) throws Throwable {
+            if (type.isArray()) {
+                Object array = growArray(target, index);
+                Array.set(array, index, element);
+            } else {
+                List<Object> list = list(target, index);
+                list.set(index, element);
+            }
+        }
+
+        Object getOrCreateElement(Object target, int index) throws Throwable {
+            Object element;
+            if (type.isArray()) {
+                Object array = growArray(target, index);
+                element = Array.get(array, index);
+                if (element == null) {
+                    element = beans.get(elementType).newInstance();
+                    Array.set(array, index, element);
+                }
+            } else {
+                List<Object> list = list(target, index);
+                element = list.get(index);
+                if (element == null) {
+                    element = beans.get(elementType).newInstance();
+                    list.set(index, element);
+                }
+            }
+            return element;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> list(Object target, int index) throws Throwable {
+            List<Object> list = (List<Object>) (Object) getter.invokeExact(target);
+            if (list == null) {
+                list = new ArrayList<>();
+                setter.invokeExact(target, (Object) list);
+            }
+            while (list.size() <= index) {
+                list.add(null);
+            }
+            return list;
+        }
+
+        private Object growArray(Object target, int index) throws Throwable {
+            Object array = (Object) getter.invokeExact(target);
+            int length = array == null ? 0 : Array.getLength(array);
+            if (index >= length) {
+                Object grown = Array.newInstance(elementType, index + 1);
+                if (array != null) {
+                    System.arraycopy(array, 0, grown, 0, length);
+                }
+                setter.invokeExact(target, grown);
+                array = grown;
+            }
+            return array;
+        }
+
+        private Class<?> elementType(Field field) {
+            if (type.isArray()) {
+                return type.getComponentType();
+            }
+            if (List.class.isAssignableFrom(type) || Collection.class == type) {
+                Type generic = field.getGenericType();
+                if (generic instanceof ParameterizedType) {
+                    Type argument = ((ParameterizedType) generic).getActualTypeArguments()[0];
+                    if (argument instanceof Class) {
+                        return (Class<?>) argument;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Setter/getter public si présent, sinon accès direct au champ.
+         * Forme normalisée : (Object)Object pour le getter, (Object,Object)void pour le setter.
+         */
+        private MethodHandle accessor(MethodHandles.Lookup lookup, Field field, boolean getter)
+                throws IllegalAccessException {
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            Class<?> owner = field.getDeclaringClass();
+            MethodHandle handle = null;
+            try {
+                if (getter) {
+                    String prefix = type == boolean.class ? "is" : "get";
+                    Method method = owner.getMethod(prefix + suffix);
+                    handle = lookup.unreflect(method);
+                } else {
+                    Method method = owner.getMethod("set" + suffix, type);
+                    handle = lookup.unreflect(method);
+                }
+            } catch (NoSuchMethodException e) {
+                field.setAccessible(true);
+                handle = getter ? lookup.unreflectGetter(field) : lookup.unreflectSetter(field);
+            }
+            return getter
+                    ? handle.asType(MethodType.methodType(Object.class, Object.class))
+                    : handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+    }
+}
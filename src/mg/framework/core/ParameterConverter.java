@@ -0,0 +1,11 @@
+package mg.framework.core;
+
+/**
+ * Convertit la valeur texte d'un paramètre de requête vers le type attendu
+ * par la méthode du contrôleur. Résolu une fois par paramètre, à
+ * l'enregistrement du mapping, via {@link ConverterRegistry}.
+ */
+@FunctionalInterface
+public interface ParameterConverter<T> {
+    T convert(CharSequence value) throws Exception;
+}
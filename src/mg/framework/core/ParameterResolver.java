@@ -0,0 +1,14 @@
+package mg.framework.core;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Résout la valeur d'un paramètre de méthode de contrôleur pour une requête.
+ * Les résolveurs sont construits une seule fois à l'enregistrement du mapping ;
+ * {@code match} porte les variables de chemin de la route trouvée.
+ */
+@FunctionalInterface
+public interface ParameterResolver {
+    Object resolve(HttpServletRequest req, HttpServletResponse resp, RouteMatch<?> match) throws Exception;
+}
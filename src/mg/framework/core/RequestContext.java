@@ -0,0 +1,138 @@
+package mg.framework.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Contexte d'une requête, porteur de son échéance. Un handler le reçoit en
+ * paramètre, ou via {@link #current()} sur le thread qui l'exécute, et peut
+ * le passer à ses appels sortants (délais de requêtes SQL, clients HTTP...).
+ *
+ * Sans échéance, {@link #NONE} est utilisé : aucune allocation par requête.
+ */
+public final class RequestContext {
+    public static final String ATTRIBUTE = "mg.framework.context";
+    public static final RequestContext NONE = new RequestContext();
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+    private static final int RUNNING = 0;
+    private static final int COMPLETED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long deadline;
+    private final boolean bounded;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final Queue<Runnable> cancellations = new ConcurrentLinkedQueue<>();
+    private volatile Future<?> timer;
+
+    private RequestContext() {
+        this.deadline = 0;
+        this.bounded = false;
+    }
+
+    public RequestContext(long timeoutMillis) {
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.bounded = true;
+    }
+
+    /** Contexte du thread courant, ou {@link #NONE}. */
+    public static RequestContext current() {
+        RequestContext context = CURRENT.get();
+        return context != null ? context : NONE;
+    }
+
+    /** Contexte attaché à la requête, ou {@link #NONE}. */
+    public static RequestContext of(ServletRequest request) {
+        Object context = request.getAttribute(ATTRIBUTE);
+        return context instanceof RequestContext ? (RequestContext) context : NONE;
+    }
+
+    public boolean hasDeadline() {
+        return bounded;
+    }
+
+    /** Temps restant en millisecondes (0 si dépassé), Long.MAX_VALUE sans échéance. */
+    public long getRemainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return state.get() == EXPIRED || bounded && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Point d'arrêt coopératif pour les traitements longs qui ne réagissent
+     * pas à l'interruption.
+     */
+    public void checkDeadline() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Délai de traitement dépassé");
+        }
+    }
+
+    /** Rend ce contexte courant pour le thread ; retourne le précédent. */
+    public RequestContext attach() {
+        RequestContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void detach(RequestContext previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    // Utilisé par le dispatcher : une seule des deux issues l'emporte
+
+    /**
+     * Action exécutée si l'échéance est atteinte avant la fin (annulation du
+     * Future du handler). Peut être exécutée deux fois en cas de course.
+     */
+    public void onExpire(Runnable cancellation) {
+        cancellations.add(cancellation);
+        if (state.get() == EXPIRED) {
+            cancellation.run();
+        }
+    }
+
+    public void setTimer(Future<?> timer) {
+        this.timer = timer;
+        if (state.get() != RUNNING) {
+            timer.cancel(false);
+        }
+    }
+
+    /** Vrai si le handler a terminé avant l'échéance. */
+    public boolean complete() {
+        if (!state.compareAndSet(RUNNING, COMPLETED)) {
+            return false;
+        }
+        Future<?> timer = this.timer;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        return true;
+    }
+
+    /** Vrai si l'échéance est atteinte avant la fin du handler. */
+    public boolean expire() {
+        if (!state.compareAndSet(RUNNING, EXPIRED)) {
+            return false;
+        }
+        for (Runnable cancellation : cancellations) {
+            cancellation.run();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package mg.framework.core;
+
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index des contrôleurs généré à la compilation par
+ * {@code mg.framework.processor.RouteIndexProcessor}.
+ *
+ * Format du fichier {@value #LOCATION}, une entrée par ligne :
+ * <pre>
+ * controller &lt;classe&gt;
+ * component &lt;classe&gt;
+ * urlmapping &lt;classe&gt; &lt;url&gt; &lt;méthode java&gt;
+ * </pre>
+ * Les lignes commençant par {@code #} sont ignorées. Tous les index présents
+ * sur le classpath (un par JAR) sont fusionnés : un index fourni par une
+ * bibliothèque ne couvre pas forcément le package de l'application, d'où
+ * {@link #covers(String)}.
+ */
+public class RouteIndex {
+    public static final String LOCATION = "META-INF/mg-framework/routes.idx";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RouteIndex.class);
+
+    private final Set<String> controllers = new LinkedHashSet<>();
+    private final Set<String> components = new LinkedHashSet<>();
+    private final Set<String> urlMappingClasses = new LinkedHashSet<>();
+
+    /**
+     * Charge et fusionne les index visibles depuis le classloader.
+     *
+     * @return l'index, ou {@code null} si aucun index n'est présent
+     */
+    public static RouteIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        RouteIndex index = new RouteIndex();
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    index.parseLine(line.trim());
+                }
+            }
+        }
+        return index;
+    }
+
+    private void parseLine(String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "controller":
+                controllers.add(parts[1]);
+                break;
+            case "component":
+                components.add(parts[1]);
+                break;
+            case "mapping":
+                // Anciens index : les méthodes sont relues par réflexion
+                break;
+            case "urlmapping":
+                urlMappingClasses.add(parts[1]);
+                break;
+            default:
+                LOG.warn("Entrée d'index inconnue: {}", line);
+        }
+    }
+
+    /** Classes {@code @Controller} situées dans le package (ou un sous-package). */
+    public List<String> getControllers(String basePackage) {
+        return filter(controllers, basePackage);
+    }
+
+    /** Classes {@code @Component} situées dans le package (ou un sous-package). */
+    public List<String> getComponents(String basePackage) {
+        return filter(components, basePackage);
+    }
+
+    /** Classes déclarant au moins une méthode {@code @URLMapping}. */
+    public List<String> getUrlMappingClasses(String basePackage) {
+        return filter(urlMappingClasses, basePackage);
+    }
+
+    /**
+     * Vrai si l'index contient au moins une classe du package. Sinon le
+     * package n'a pas été indexé et le classpath doit être parcouru.
+     */
+    public boolean covers(String basePackage) {
+        return !getControllers(basePackage).isEmpty() || !getComponents(basePackage).isEmpty()
+                || !getUrlMappingClasses(basePackage).isEmpty();
+    }
+
+    private static List<String> filter(Set<String> classNames, String basePackage) {
+        String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        List<String> result = new ArrayList<>();
+        for (String className : classNames) {
+            if (className.startsWith(prefix)) {
+                result.add(className);
+            }
+        }
+        return result;
+    }
+}
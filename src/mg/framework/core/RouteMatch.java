@@ -0,0 +1,65 @@
+package mg.framework.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Résultat d'une recherche dans le {@link Router} : le handler trouvé et les
+ * valeurs des variables de chemin, dans l'ordre du motif.
+ */
+public class RouteMatch<T> {
+    private static final String[] NO_VALUES = new String[0];
+
+    private final T handler;
+    private final String pattern;
+    private final String[] names;
+    private final String[] values;
+
+    RouteMatch(T handler, String pattern, String[] names) {
+        this.handler = handler;
+        this.pattern = pattern;
+        this.names = names;
+        this.values = names.length == 0 ? NO_VALUES : new String[names.length];
+    }
+
+    public T getHandler() {
+        return handler;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getVariableCount() {
+        return values.length;
+    }
+
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    public String getVariable(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public Map<String, String> getVariables() {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            variables.put(names[i], values[i]);
+        }
+        return variables;
+    }
+
+    String[] names() {
+        return names;
+    }
+
+    void setValue(int index, String value) {
+        values[index] = value;
+    }
+}
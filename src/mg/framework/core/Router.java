@@ -0,0 +1,275 @@
+package mg.framework.core;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routeur à arbre radix, un arbre par méthode HTTP.
+ *
+ * Motifs supportés :
+ * <ul>
+ *   <li>segments statiques : {@code /orders/list}</li>
+ *   <li>variables de segment : {@code /orders/{id}}</li>
+ *   <li>joker final : {@code /files/*} ou {@code /files/{*path}}</li>
+ * </ul>
+ * Un segment statique est toujours prioritaire sur une variable, elle-même
+ * prioritaire sur un joker. La recherche parcourt le chemin caractère par
+ * caractère, sans expression régulière ni concaténation de clé. Les valeurs
+ * capturées sont décodées (%XX en UTF-8, {@code +} gardé tel quel).
+ */
+public class Router<T> {
+    private static final String WILDCARD = "*";
+
+    private final Map<String, Node<T>> roots = new HashMap<>();
+    private int size;
+
+    /**
+     * Enregistre un handler pour une méthode HTTP et un motif.
+     *
+     * @throws IllegalArgumentException si le motif est invalide
+     * @throws IllegalStateException si la route existe déjà
+     */
+    public void add(String httpMethod, String pattern, T handler) {
+        Node<T> node = roots.computeIfAbsent(httpMethod, k -> new Node<>(""));
+        List<String> names = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+
+            if (c == '{') {
+                int close = pattern.indexOf('}', i);
+                if (close < 0 || (i > 0 && pattern.charAt(i - 1) != '/')
+                        || (close + 1 < length && pattern.charAt(close + 1) != '/')) {
+                    throw new IllegalArgumentException("Variable de chemin invalide dans: " + pattern);
+                }
+                String name = pattern.substring(i + 1, close);
+                node = insertStatic(node, literal.toString());
+                literal.setLength(0);
+
+                if (name.startsWith(WILDCARD)) {
+                    if (close + 1 != length) {
+                        throw new IllegalArgumentException("Le joker doit terminer le motif: " + pattern);
+                    }
+                    names.add(name.length() > 1 ? name.substring(1) : WILDCARD);
+                    node = node.wildcardChild();
+                } else {
+                    if (name.isEmpty()) {
+                        throw new IllegalArgumentException("Variable de chemin sans nom dans: " + pattern);
+                    }
+                    names.add(name);
+                    node = node.paramChild();
+                }
+                i = close;
+            } else if (c == '*' && i == length - 1 && (i == 0 || pattern.charAt(i - 1) == '/')) {
+                node = insertStatic(node, literal.toString());
+                literal.setLength(0);
+                names.add(WILDCARD);
+                node = node.wildcardChild();
+            } else {
+                literal.append(c);
+            }
+        }
+        node = insertStatic(node, literal.toString());
+
+        if (node.match != null) {
+            throw new IllegalStateException("Route déjà enregistrée: " + httpMethod + " " + pattern
+                    + " (conflit avec " + node.match.getPattern() + ")");
+        }
+        node.match = new RouteMatch<>(handler, pattern, names.toArray(new String[0]));
+        size++;
+    }
+
+    public RouteMatch<T> find(String httpMethod, String path) {
+        return find(httpMethod, path, 0);
+    }
+
+    /**
+     * Cherche la route correspondant à {@code path.substring(offset)} sans
+     * créer la sous-chaîne. Retourne {@code null} si aucune route ne correspond.
+     */
+    public RouteMatch<T> find(String httpMethod, String path, int offset) {
+        Node<T> root = roots.get(httpMethod);
+        if (root == null) {
+            return null;
+        }
+        return match(root, path, offset, path.length(), 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Noms des variables d'un motif, dans l'ordre où {@link RouteMatch#getValue(int)}
+     * les expose.
+     */
+    public static List<String> variableNames(String pattern) {
+        List<String> names = new ArrayList<>();
+        int i = 0;
+        while ((i = pattern.indexOf('{', i)) >= 0) {
+            int close = pattern.indexOf('}', i);
+            if (close < 0) {
+                break;
+            }
+            String name = pattern.substring(i + 1, close);
+            names.add(name.startsWith(WILDCARD) && name.length() > 1 ? name.substring(1) : name);
+            i = close + 1;
+        }
+        if (pattern.endsWith("/*") || pattern.equals(WILDCARD)) {
+            names.add(WILDCARD);
+        }
+        return names;
+    }
+
+    private static <T> RouteMatch<T> match(Node<T> node, String path, int pos, int end, int depth) {
+        if (pos == end) {
+            if (node.match != null) {
+                return node.match.getVariableCount() == 0 ? node.match : copy(node.match);
+            }
+            if (node.wildcard != null && node.wildcard.match != null) {
+                RouteMatch<T> result = copy(node.wildcard.match);
+                result.setValue(depth, "");
+                return result;
+            }
+            return null;
+        }
+
+        Node<T> child = node.staticChild(path.charAt(pos));
+        if (child != null && path.regionMatches(pos, child.prefix, 0, child.prefix.length())) {
+            RouteMatch<T> result = match(child, path, pos + child.prefix.length(), end, depth);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        if (node.param != null) {
+            int segmentEnd = pos;
+            while (segmentEnd < end && path.charAt(segmentEnd) != '/') {
+                segmentEnd++;
+            }
+            if (segmentEnd > pos) {
+                RouteMatch<T> result = match(node.param, path, segmentEnd, end, depth + 1);
+                if (result != null) {
+                    result.setValue(depth, decode(path, pos, segmentEnd));
+                    return result;
+                }
+            }
+        }
+
+        if (node.wildcard != null && node.wildcard.match != null) {
+            RouteMatch<T> result = copy(node.wildcard.match);
+            result.setValue(depth, decode(path, pos, end));
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Valeur d'une variable capturée, décodée seulement si elle contient un
+     * {@code %}. Une séquence invalide laisse la valeur brute.
+     */
+    private static String decode(String path, int start, int end) {
+        String value = path.substring(start, end);
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static <T> RouteMatch<T> copy(RouteMatch<T> template) {
+        return new RouteMatch<>(template.getHandler(), template.getPattern(), template.names());
+    }
+
+    private static <T> Node<T> insertStatic(Node<T> node, String s) {
+        while (!s.isEmpty()) {
+            Node<T> child = node.staticChild(s.charAt(0));
+            if (child == null) {
+                child = new Node<>(s);
+                node.addChild(child);
+                return child;
+            }
+
+            int common = 0;
+            int max = Math.min(s.length(), child.prefix.length());
+            while (common < max && s.charAt(common) == child.prefix.charAt(common)) {
+                common++;
+            }
+
+            if (common < child.prefix.length()) {
+                Node<T> split = new Node<>(child.prefix.substring(0, common));
+                child.prefix = child.prefix.substring(common);
+                split.addChild(child);
+                node.replaceChild(split);
+                child = split;
+            }
+            s = s.substring(common);
+            node = child;
+        }
+        return node;
+    }
+
+    private static final class Node<T> {
+        private String prefix;
+        private char[] indices = new char[0];
+        private List<Node<T>> children = new ArrayList<>(0);
+        private Node<T> param;
+        private Node<T> wildcard;
+        private RouteMatch<T> match;
+
+        Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        Node<T> staticChild(char c) {
+            char[] indices = this.indices;
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == c) {
+                    return children.get(i);
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node<T> child) {
+            char[] grown = new char[indices.length + 1];
+            System.arraycopy(indices, 0, grown, 0, indices.length);
+            grown[indices.length] = child.prefix.charAt(0);
+            indices = grown;
+            children.add(child);
+        }
+
+        void replaceChild(Node<T> child) {
+            char c = child.prefix.charAt(0);
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == c) {
+                    children.set(i, child);
+                    return;
+                }
+            }
+        }
+
+        Node<T> paramChild() {
+            if (param == null) {
+                param = new Node<>("");
+            }
+            return param;
+        }
+
+        Node<T> wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node<>("");
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mg.framework.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Regroupe les appels concurrents ayant la même clé : le premier exécute
+ * l'appel, les suivants attendent et reçoivent le même résultat (ou la même
+ * exception). Rien n'est conservé une fois l'appel terminé.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public V execute(K key, Callable<V> call) throws Exception {
+        return execute(key, call, Long.MAX_VALUE);
+    }
+
+    /**
+     * Comme {@link #execute(Object, Callable)}, mais un appel qui attend celui
+     * d'un autre abandonne après timeoutMillis avec une
+     * {@link DeadlineExceededException}. L'appel en cours n'est pas affecté.
+     */
+    public V execute(K key, Callable<V> call, long timeoutMillis) throws Exception {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, created);
+        if (existing != null) {
+            try {
+                return timeoutMillis == Long.MAX_VALUE ? existing.get()
+                        : existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new DeadlineExceededException("Délai de " + timeoutMillis + " ms dépassé en attendant " + key);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw (Error) cause;
+            }
+        }
+
+        try {
+            V value = call.call();
+            created.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, created);
+        }
+    }
+
+    /** Nombre d'appels en cours. */
+    public int inFlight() {
+        return calls.size();
+    }
+}
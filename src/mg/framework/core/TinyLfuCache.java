@@ -0,0 +1,251 @@
+package mg.framework.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache borné en poids, avec politique d'admission de type W-TinyLFU.
+ *
+ * Les nouvelles entrées passent par une petite fenêtre LRU (1 % du poids),
+ * puis entrent dans la zone principale, segmentée en probation et protégée
+ * (80 %). Quand la zone principale déborde, le candidat sortant de la fenêtre
+ * n'est admis que si sa fréquence estimée (count-min sketch, vieillie par
+ * division par deux) dépasse celle de la victime. Les entrées expirent selon
+ * leur date limite. Toutes les opérations sont synchronisées.
+ */
+public class TinyLfuCache<K, V> {
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToIntFunction<V> weigher;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    /**
+     * @param maximumWeight poids total maximal (ex: octets)
+     * @param expectedEntries estimation du nombre d'entrées, pour dimensionner le sketch
+     */
+    public TinyLfuCache(long maximumWeight, int expectedEntries, ToIntFunction<V> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(Math.max(64, expectedEntries));
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        long now = System.nanoTime();
+
+        Node<V> node = window.get(key);
+        if (node != null) {
+            return alive(key, node, now, window) ? node.value : null;
+        }
+        node = protectedSegment.get(key);
+        if (node != null) {
+            return alive(key, node, now, protectedSegment) ? node.value : null;
+        }
+        node = probation.get(key);
+        if (node != null) {
+            if (!alive(key, node, now, probation)) {
+                return null;
+            }
+            // Deuxième accès : promotion en zone protégée
+            probation.remove(key);
+            probationWeight -= node.weight;
+            protectedSegment.put(key, node);
+            protectedWeight += node.weight;
+            demoteProtected();
+            return node.value;
+        }
+        return null;
+    }
+
+    /**
+     * @param ttlNanos durée de vie de l'entrée
+     */
+    public synchronized void put(K key, V value, long ttlNanos) {
+        int weight = weigher.applyAsInt(value);
+        remove(key);
+        if (weight > maximumWeight) {
+            return;
+        }
+        sketch.increment(key.hashCode());
+        window.put(key, new Node<>(value, weight, System.nanoTime() + ttlNanos));
+        windowWeight += weight;
+        evict();
+    }
+
+    public synchronized void remove(K key) {
+        Node<V> node;
+        if ((node = window.remove(key)) != null) {
+            windowWeight -= node.weight;
+        } else if ((node = probation.remove(key)) != null) {
+            probationWeight -= node.weight;
+        } else if ((node = protectedSegment.remove(key)) != null) {
+            protectedWeight -= node.weight;
+        }
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized long weight() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    private boolean alive(K key, Node<V> node, long now, Map<K, Node<V>> segment) {
+        if (now - node.expiresAt < 0) {
+            return true;
+        }
+        segment.remove(key);
+        if (segment == window) {
+            windowWeight -= node.weight;
+        } else if (segment == probation) {
+            probationWeight -= node.weight;
+        } else {
+            protectedWeight -= node.weight;
+        }
+        return false;
+    }
+
+    private void demoteProtected() {
+        Iterator<Map.Entry<K, Node<V>>> it = protectedSegment.entrySet().iterator();
+        while (protectedWeight > protectedMaximum && it.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = it.next();
+            it.remove();
+            protectedWeight -= eldest.getValue().weight;
+            probation.put(eldest.getKey(), eldest.getValue());
+            probationWeight += eldest.getValue().weight;
+        }
+    }
+
+    private void evict() {
+        // La fenêtre déborde : ses entrées les plus anciennes deviennent candidates
+        Iterator<Map.Entry<K, Node<V>>> it = window.entrySet().iterator();
+        while (windowWeight > windowMaximum && it.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = it.next();
+            it.remove();
+            windowWeight -= eldest.getValue().weight;
+
+            K candidate = eldest.getKey();
+            Node<V> node = eldest.getValue();
+            if (admit(candidate, node.weight)) {
+                probation.put(candidate, node);
+                probationWeight += node.weight;
+            }
+        }
+    }
+
+    /**
+     * Libère la place nécessaire dans la zone principale pour le candidat, en
+     * évinçant les victimes moins fréquentes que lui.
+     */
+    private boolean admit(K candidate, int weight) {
+        long mainMaximum = maximumWeight - windowMaximum;
+        int candidateFrequency = sketch.frequency(candidate.hashCode());
+
+        while (probationWeight + protectedWeight + weight > mainMaximum) {
+            Map<K, Node<V>> segment = probation.isEmpty() ? protectedSegment : probation;
+            if (segment.isEmpty()) {
+                return false;
+            }
+            Map.Entry<K, Node<V>> victim = segment.entrySet().iterator().next();
+            if (sketch.frequency(victim.getKey().hashCode()) >= candidateFrequency
+                    && now() - victim.getValue().expiresAt < 0) {
+                return false;
+            }
+            segment.remove(victim.getKey());
+            if (segment == probation) {
+                probationWeight -= victim.getValue().weight;
+            } else {
+                protectedWeight -= victim.getValue().weight;
+            }
+        }
+        return true;
+    }
+
+    private static long now() {
+        return System.nanoTime();
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final int weight;
+        private final long expiresAt;
+
+        Node(V value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Count-min sketch à 4 lignes, compteurs saturés à 15 et divisés par deux
+     * tous les {@code 10 * largeur} incréments pour oublier l'ancien trafic.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = { 0x97cb3127, 0xb71c3c4d, 0x7f4a7c15, 0x2545f491 };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(expectedEntries - 1) << 1;
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                if (table[i][index] < MAX_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash + SEEDS[row]) * 0x9e3779b9;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            return (h ^ (h >>> 13)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package mg.framework.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Period;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sérialisation JSON des valeurs retournées par les contrôleurs.
+ *
+ * Le sérialiseur de chaque type est construit une seule fois et conservé dans
+ * un {@link ClassValue} : pour les beans et records, les accesseurs sont
+ * compilés en MethodHandle et les noms de propriétés pré-encodés en UTF-8.
+ * L'écriture passe par un tampon recyclé, directement dans le flux de sortie.
+ */
+public final class Json {
+    static final byte[] NULL = ascii("null");
+    static final byte[] TRUE = ascii("true");
+    static final byte[] FALSE = ascii("false");
+    private static final byte[] EMPTY_OBJECT = ascii("{}");
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final BlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(64);
+
+    private static final ClassValue<JsonSerializer> SERIALIZERS = new ClassValue<JsonSerializer>() {
+        @Override
+        protected JsonSerializer computeValue(Class<?> type) {
+            return createSerializer(type);
+        }
+    };
+
+    private Json() {
+    }
+
+    /**
+     * Écrit la valeur en JSON dans le flux, puis le vide (sans le fermer).
+     */
+    public static void write(Object value, OutputStream out) throws IOException {
+        byte[] buffer = BUFFERS.poll();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try {
+            JsonWriter writer = new JsonWriter(out, buffer);
+            writer.writeValue(value);
+            writer.flush();
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    public static JsonSerializer serializerFor(Class<?> type) {
+        return SERIALIZERS.get(type);
+    }
+
+    private static JsonSerializer createSerializer(Class<?> type) {
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return (value, writer) -> writer.writeString((CharSequence) value);
+        }
+        if (type == Boolean.class || type == AtomicBoolean.class) {
+            return (value, writer) -> writer.writeBoolean(
+                    value instanceof AtomicBoolean ? ((AtomicBoolean) value).get() : (Boolean) value);
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == AtomicInteger.class || type == AtomicLong.class) {
+            return (value, writer) -> writer.writeLong(((Number) value).longValue());
+        }
+        if (type == Double.class || type == Float.class) {
+            return (value, writer) -> writer.writeDouble(((Number) value).doubleValue());
+        }
+        if (type == BigDecimal.class || type == BigInteger.class) {
+            return (value, writer) -> writer.writeAscii(value.toString());
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (value, writer) -> writer.writeDouble(((Number) value).doubleValue());
+        }
+        if (type == Character.class || type == UUID.class || TemporalAccessor.class.isAssignableFrom(type)
+                || Duration.class == type || Period.class == type) {
+            return (value, writer) -> writer.writeString(value.toString());
+        }
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return (value, writer) -> writer.writeString(((Enum<?>) value).name());
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return (value, writer) -> writer.writeString(((Date) value).toInstant().toString());
+        }
+        if (Optional.class == type) {
+            return (value, writer) -> writer.writeValue(((Optional<?>) value).orElse(null));
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return Json::writeMap;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return Json::writeIterable;
+        }
+        if (type.isArray()) {
+            return arraySerializer(type.getComponentType());
+        }
+        if (type.isRecord()) {
+            return beanSerializer(type, recordProperties(type));
+        }
+        return beanSerializer(type, beanProperties(type));
+    }
+
+    private static void writeMap(Object value, JsonWriter writer) throws IOException {
+        writer.writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!first) {
+                writer.writeByte(',');
+            }
+            first = false;
+            writer.writeString(String.valueOf(entry.getKey()));
+            writer.writeByte(':');
+            writer.writeValue(entry.getValue());
+        }
+        writer.writeByte('}');
+    }
+
+    private static void writeIterable(Object value, JsonWriter writer) throws IOException {
+        writer.writeByte('[');
+        boolean first = true;
+        for (Object item : (Iterable<?>) value) {
+            if (!first) {
+                writer.writeByte(',');
+            }
+            first = false;
+            writer.writeValue(item);
+        }
+        writer.writeByte(']');
+    }
+
+    private static JsonSerializer arraySerializer(Class<?> component) {
+        if (component == int.class) {
+            return (value, writer) -> {
+                int[] array = (int[]) value;
+                writer.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) writer.writeByte(',');
+                    writer.writeLong(array[i]);
+                }
+                writer.writeByte(']');
+            };
+        }
+        if (component == long.class) {
+            return (value, writer) -> {
+                long[] array = (long[]) value;
+                writer.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) writer.writeByte(',');
+                    writer.writeLong(array[i]);
+                }
+                writer.writeByte(']');
+            };
+        }
+        if (component == double.class) {
+            return (value, writer) -> {
+                double[] array = (double[]) value;
+                writer.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) writer.writeByte(',');
+                    writer.writeDouble(array[i]);
+                }
+                writer.writeByte(']');
+            };
+        }
+        if (component == char.class) {
+            return (value, writer) -> writer.writeString(new String((char[]) value));
+        }
+        if (component.isPrimitive()) {
+            // boolean[], byte[], short[], float[] : passage par les wrappers
+            return (value, writer) -> {
+                int length = Array.getLength(value);
+                writer.writeByte('[');
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) writer.writeByte(',');
+                    writer.writeValue(Array.get(value, i));
+                }
+                writer.writeByte(']');
+            };
+        }
+        return (value, writer) -> {
+            Object[] array = (Object[]) value;
+            writer.writeByte('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) writer.writeByte(',');
+                writer.writeValue(array[i]);
+            }
+            writer.writeByte(']');
+        };
+    }
+
+    private static JsonSerializer beanSerializer(Class<?> type, Map<String, MethodHandle> accessors) {
+        int size = accessors.size();
+        byte[][] names = new byte[size][];
+        MethodHandle[] getters = new MethodHandle[size];
+        int i = 0;
+        for (Map.Entry<String, MethodHandle> entry : accessors.entrySet()) {
+            // "nom": pré-encodé, préfixé par la virgule sauf pour la première propriété
+            StringBuilder name = new StringBuilder();
+            name.append(i == 0 ? "{\"" : ",\"").append(entry.getKey()).append("\":");
+            names[i] = name.toString().getBytes(StandardCharsets.UTF_8);
+            getters[i] = entry.getValue();
+            i++;
+        }
+        if (size == 0) {
+            return (value, writer) -> writer.writeRaw(EMPTY_OBJECT);
+        }
+
+        return (value, writer) -> {
+            for (int p = 0; p < getters.length; p++) {
+                writer.writeRaw(names[p]);
+                Object property;
+                try {
+                    property = (Object) getters[p].invokeExact(value);
+                } catch (IOException | RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IOException("Lecture impossible d'une propriété de " + type.getName(), t);
+                }
+                writer.writeValue(property);
+            }
+            writer.writeByte('}');
+        };
+    }
+
+    private static Map<String, MethodHandle> recordProperties(Class<?> type) {
+        Map<String, MethodHandle> accessors = new LinkedHashMap<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            MethodHandle handle = unreflect(component.getAccessor());
+            if (handle != null) {
+                accessors.put(component.getName(), handle);
+            }
+        }
+        return accessors;
+    }
+
+    private static Map<String, MethodHandle> beanProperties(Class<?> type) {
+        Map<String, MethodHandle> accessors = new LinkedHashMap<>();
+        List<Method> getters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())
+                    && method.getDeclaringClass() != Object.class && method.getReturnType() != void.class) {
+                getters.add(method);
+            }
+        }
+        getters.sort((a, b) -> a.getName().compareTo(b.getName()));
+
+        for (Method method : getters) {
+            String name = method.getName();
+            String property;
+            if (name.startsWith("get") && name.length() > 3) {
+                property = decapitalize(name.substring(3));
+            } else if (name.startsWith("is") && name.length() > 2
+                    && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                property = decapitalize(name.substring(2));
+            } else {
+                continue;
+            }
+            MethodHandle handle = unreflect(method);
+            if (handle != null) {
+                accessors.putIfAbsent(property, handle);
+            }
+        }
+
+        for (Field field : type.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !accessors.containsKey(field.getName())) {
+                try {
+                    accessors.put(field.getName(), MethodHandles.publicLookup().unreflectGetter(field)
+                            .asType(MethodType.methodType(Object.class, Object.class)));
+                } catch (IllegalAccessException e) {
+                    // champ public d'une classe non accessible : ignoré
+                }
+            }
+        }
+        return accessors;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
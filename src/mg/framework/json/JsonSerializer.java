@@ -0,0 +1,12 @@
+package mg.framework.json;
+
+import java.io.IOException;
+
+/**
+ * Écrit une valeur d'un type donné. Une instance est construite une fois par
+ * type et mise en cache par {@link Json}.
+ */
+@FunctionalInterface
+public interface JsonSerializer {
+    void write(Object value, JsonWriter writer) throws IOException;
+}
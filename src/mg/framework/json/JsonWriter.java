@@ -0,0 +1,183 @@
+package mg.framework.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Écriture JSON en flux : les octets UTF-8 sont accumulés dans un tampon
+ * fourni par l'appelant et vidés dans le flux à chaque remplissage, sans
+ * jamais construire la chaîne complète.
+ */
+public final class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int MAX_DEPTH = 64;
+
+    private final OutputStream out;
+    private final byte[] buf;
+    private int count;
+    private int depth;
+
+    public JsonWriter(OutputStream out, byte[] buffer) {
+        this.out = out;
+        this.buf = buffer;
+    }
+
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        if (++depth > MAX_DEPTH) {
+            throw new IOException("Profondeur JSON maximale atteinte (" + MAX_DEPTH + "), référence circulaire ?");
+        }
+        Json.serializerFor(value.getClass()).write(value, this);
+        depth--;
+    }
+
+    public void writeNull() throws IOException {
+        writeRaw(Json.NULL);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeRaw(value ? Json.TRUE : Json.FALSE);
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (count + 20 > buf.length) {
+            flushBuffer();
+        }
+        if (value < 0) {
+            buf[count++] = '-';
+            value = -value;
+        }
+        int start = count;
+        do {
+            buf[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = count - 1; i < j; i++, j--) {
+            byte tmp = buf[i];
+            buf[i] = buf[j];
+            buf[j] = tmp;
+        }
+    }
+
+    public void writeDouble(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+        } else if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    /**
+     * Écrit un texte déjà valide en JSON et limité à l'ASCII (nombres...).
+     */
+    public void writeAscii(String text) throws IOException {
+        int length = text.length();
+        if (count + length > buf.length) {
+            flushBuffer();
+        }
+        if (length > buf.length) {
+            for (int i = 0; i < length; i++) {
+                writeByte(text.charAt(i));
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) text.charAt(i);
+        }
+    }
+
+    public void writeString(CharSequence text) throws IOException {
+        writeByte('"');
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (count + 6 > buf.length) {
+                flushBuffer();
+            }
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buf[count++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                buf[count++] = '\\';
+                buf[count++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                buf[count++] = (byte) (0xC0 | (c >> 6));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[count++] = '?';
+            } else {
+                buf[count++] = (byte) (0xE0 | (c >> 12));
+                buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        buf[count++] = '\\';
+        switch (c) {
+            case '\n': buf[count++] = 'n'; break;
+            case '\r': buf[count++] = 'r'; break;
+            case '\t': buf[count++] = 't'; break;
+            case '\b': buf[count++] = 'b'; break;
+            case '\f': buf[count++] = 'f'; break;
+            default:
+                buf[count++] = 'u';
+                buf[count++] = '0';
+                buf[count++] = '0';
+                buf[count++] = HEX[c >> 4];
+                buf[count++] = HEX[c & 0xF];
+        }
+    }
+
+    public void writeByte(int b) throws IOException {
+        if (count == buf.length) {
+            flushBuffer();
+        }
+        buf[count++] = (byte) b;
+    }
+
+    /**
+     * Écrit des octets pré-encodés (noms de propriétés, littéraux).
+     */
+    public void writeRaw(byte[] bytes) throws IOException {
+        if (count + bytes.length > buf.length) {
+            flushBuffer();
+            if (bytes.length > buf.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package mg.framework.limit;
+
+import mg.framework.annotation.MaxConcurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sémaphore non bloquant : une requête est admise tant que moins de
+ * {@code limit} sont en cours, sinon refusée immédiatement.
+ */
+public class ConcurrencyLimiter {
+    private final int limit;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public ConcurrencyLimiter(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limite de concurrence invalide: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    public static ConcurrencyLimiter of(MaxConcurrent annotation) {
+        return annotation == null ? null : new ConcurrencyLimiter(annotation.value());
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = active.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        active.decrementAndGet();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
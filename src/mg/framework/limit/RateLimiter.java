@@ -0,0 +1,126 @@
+package mg.framework.limit;
+
+import mg.framework.annotation.RateLimit;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Limite de débit d'une route, commune ou répartie par client ou par
+ * paramètre. Les seaux par clé sont créés à la demande, dans la limite de
+ * {@code MAX_KEYS} : au-delà, les nouvelles clés partagent un seau de
+ * débordement. Les seaux pleins (donc sans historique utile) sont retirés au
+ * plus une fois par seconde, jamais à chaque requête.
+ */
+public class RateLimiter {
+    private static final int MAX_KEYS = 10_000;
+    private static final int MAX_KEY_LENGTH = 256;
+    private static final long SWEEP_INTERVAL = 1_000_000_000L;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final String parameter;
+    private final boolean byAddress;
+    private final TokenBucket shared;
+    private final Map<String, TokenBucket> buckets;
+    private final TokenBucket overflow;
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(double permitsPerSecond, int burst, String key) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.byAddress = "ip".equals(key);
+        this.parameter = key.startsWith("param:") ? key.substring(6) : null;
+        if (!byAddress && parameter == null && !key.isEmpty()) {
+            throw new IllegalArgumentException("Clé de limite inconnue: " + key);
+        }
+        this.shared = byAddress || parameter != null ? null : new TokenBucket(permitsPerSecond, burst);
+        this.buckets = shared == null ? new ConcurrentHashMap<>() : null;
+        this.overflow = shared == null ? new TokenBucket(permitsPerSecond, burst) : null;
+    }
+
+    public static RateLimiter of(RateLimit annotation) {
+        return annotation == null ? null
+                : new RateLimiter(annotation.permitsPerSecond(), annotation.burst(), annotation.key());
+    }
+
+    /**
+     * Retourne 0 si la requête est admise, sinon le délai d'attente
+     * conseillé en nanosecondes. Le paramètre "param:nom" est lu dans la
+     * query string seulement : le corps de la requête n'est jamais consommé.
+     */
+    public long tryAcquire(HttpServletRequest req) {
+        long now = System.nanoTime();
+        if (shared != null) {
+            return shared.tryAcquire(now);
+        }
+        String key = byAddress ? req.getRemoteAddr() : queryParameter(req.getQueryString(), parameter);
+        if (key == null) {
+            key = "";
+        } else if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            sweep(now);
+            if (buckets.size() >= MAX_KEYS) {
+                return overflow.tryAcquire(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /** Nombre de clés suivies. */
+    public int size() {
+        return shared != null ? 1 : buckets.size();
+    }
+
+    /** Retire les seaux pleins, au plus une fois par {@code SWEEP_INTERVAL}. */
+    private void sweep(long now) {
+        long next = nextSweep.get();
+        if (now - next < 0 || !nextSweep.compareAndSet(next, now + SWEEP_INTERVAL)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    /**
+     * Première valeur de {@code name} dans la query string, décodée, ou null.
+     */
+    static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            int equals = query.indexOf('=', start);
+            int nameEnd = equals >= 0 && equals < end ? equals : end;
+            if (decode(query.substring(start, nameEnd)).equals(name)) {
+                return nameEnd == end ? "" : decode(query.substring(nameEnd + 1, end));
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('%') < 0 && value.indexOf('+') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package mg.framework.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou, sous la forme GCRA : l'état tient dans un seul
+ * long, l'instant théorique d'arrivée de la prochaine requête, mis à jour
+ * par CAS. Aucun thread de remplissage n'est nécessaire.
+ */
+public final class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Débit et rafale doivent être positifs");
+        }
+        this.interval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.tolerance = interval * burst;
+    }
+
+    /**
+     * Prend un jeton. Retourne 0 en cas de succès, sinon le délai en
+     * nanosecondes avant qu'un jeton soit disponible.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Vrai si le seau est plein, donc équivalent à un seau neuf. */
+    boolean isIdle(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+}
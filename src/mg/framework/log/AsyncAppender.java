@@ -0,0 +1,246 @@
+package mg.framework.log;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écriture asynchrone des journaux : les threads appelants déposent les
+ * événements dans un tampon circulaire pré-alloué (plusieurs producteurs,
+ * un consommateur) et un thread démon les écrit sur la sortie standard.
+ *
+ * Un producteur ne bloque jamais : il réserve une case par CAS et, si le
+ * tampon est plein, l'événement est abandonné et compté dans
+ * {@link #getDropped()}. Taille du tampon : propriété système
+ * {@code mg.framework.log.bufferSize} (8192 par défaut, arrondie à une
+ * puissance de deux).
+ */
+public final class AsyncAppender implements AutoCloseable {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    /** Filet de sécurité : un producteur réveille le consommateur endormi. */
+    private static final long IDLE_NANOS = 100_000_000;
+
+    private static volatile AsyncAppender instance;
+    /** Servlets qui utilisent l'instance partagée, voir {@link #retain()}. */
+    private static int users;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final Writer out;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private Thread shutdownHook;
+
+    AsyncAppender(int capacity, Writer out) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i - size);
+        }
+        this.mask = size - 1;
+        this.out = out;
+        this.worker = new Thread(this::drainLoop, "mg-log-appender");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Instance partagée, recréée au premier événement qui suit un
+     * {@link #shutdown()} (application redéployée dans le même conteneur).
+     */
+    static AsyncAppender get() {
+        AsyncAppender appender = instance;
+        if (appender == null) {
+            synchronized (AsyncAppender.class) {
+                appender = instance;
+                if (appender == null) {
+                    int capacity = Integer.getInteger("mg.framework.log.bufferSize", 8192);
+                    Writer out = new BufferedWriter(new OutputStreamWriter(
+                            new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 16384);
+                    appender = new AsyncAppender(capacity, out);
+                    appender.shutdownHook = new Thread(appender::close, "mg-log-shutdown");
+                    Runtime.getRuntime().addShutdownHook(appender.shutdownHook);
+                    instance = appender;
+                }
+            }
+        }
+        return appender;
+    }
+
+    /**
+     * Arrête l'instance partagée et retire son hook d'arrêt, qui sinon
+     * retiendrait le thread et le classloader de l'application.
+     */
+    static void shutdown() {
+        AsyncAppender appender;
+        synchronized (AsyncAppender.class) {
+            appender = instance;
+            instance = null;
+        }
+        if (appender == null) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(appender.shutdownHook);
+        } catch (IllegalStateException e) {
+            // arrêt de la JVM déjà en cours : le hook s'exécute de toute façon
+        }
+        appender.close();
+    }
+
+    /** Une application de plus utilise l'instance partagée. */
+    static void retain() {
+        synchronized (AsyncAppender.class) {
+            users++;
+        }
+    }
+
+    /** La dernière application qui rend sa référence arrête l'instance partagée. */
+    static void release() {
+        synchronized (AsyncAppender.class) {
+            if (users == 0 || --users > 0) {
+                return;
+            }
+        }
+        shutdown();
+    }
+
+    /**
+     * Dépose un événement sans bloquer ; renvoie false s'il a été abandonné.
+     */
+    boolean append(Level level, String logger, String message, Throwable error) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length || !running) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) sequence & mask];
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.logger = logger;
+        slot.thread = Thread.currentThread().getName();
+        slot.message = message;
+        slot.error = error;
+        slot.sequence = sequence;
+
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    /** Nombre d'événements abandonnés faute de place. */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        while (running || head != tail.get()) {
+            if (!drain()) {
+                sleeping = true;
+                if (slots[(int) head & mask].sequence != head && running) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+        flush();
+    }
+
+    /** Écrit les événements publiés ; renvoie false s'il n'y en avait aucun. */
+    private boolean drain() {
+        long next = head;
+        boolean written = false;
+        Slot slot;
+        while ((slot = slots[(int) next & mask]).sequence == next) {
+            write(slot);
+            slot.clear();
+            head = ++next;
+            written = true;
+        }
+        if (written) {
+            flush();
+        }
+        return written;
+    }
+
+    private void write(Slot slot) {
+        try {
+            TIME.formatTo(Instant.ofEpochMilli(slot.time), out);
+            out.append(' ').append(pad(slot.level)).append(" [").append(slot.thread).append("] ")
+                    .append(slot.logger).append(" - ").append(slot.message).append('\n');
+            if (slot.error != null) {
+                PrintWriter printer = new PrintWriter(out);
+                slot.error.printStackTrace(printer);
+                printer.flush();
+            }
+        } catch (IOException e) {
+            // sortie indisponible : l'événement est perdu
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            // idem
+        }
+    }
+
+    private static String pad(Level level) {
+        String name = level.name();
+        return name.length() == 5 ? name : name + ' ';
+    }
+
+    /** Arrête le consommateur après avoir écrit les événements en attente. */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Slot {
+        private volatile long sequence;
+        private long time;
+        private Level level;
+        private String logger;
+        private String thread;
+        private String message;
+        private Throwable error;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void clear() {
+            message = null;
+            error = null;
+            thread = null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package mg.framework.log;
+
+/**
+ * Niveaux de journalisation, du plus bavard au plus grave.
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,213 @@
+package mg.framework.log;
+
+import java.util.function.Supplier;
+
+/**
+ * Journal nommé. Le message n'est formaté que si le niveau est actif : les
+ * variantes à un, deux ou trois arguments n'allouent rien quand le niveau est
+ * désactivé. Les « {} » du motif sont remplacés par les arguments dans
+ * l'ordre ; un dernier argument Throwable en trop est journalisé avec sa pile.
+ *
+ * Le formatage se fait dans le thread appelant, l'écriture dans le thread
+ * de {@link AsyncAppender}.
+ */
+public final class Logger {
+    private final String name;
+    private volatile Level level;
+
+    Logger(String name, Level level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0 && level != Level.OFF;
+    }
+
+    public boolean isTraceEnabled() {
+        return isEnabled(Level.TRACE);
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void trace(String pattern) {
+        if (isEnabled(Level.TRACE)) {
+            emit(Level.TRACE, pattern, null);
+        }
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (isEnabled(Level.TRACE)) {
+            emit(Level.TRACE, pattern, new Object[] { arg });
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.TRACE)) {
+            emit(Level.TRACE, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.TRACE)) {
+            emit(Level.TRACE, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    public void debug(String pattern) {
+        if (isEnabled(Level.DEBUG)) {
+            emit(Level.DEBUG, pattern, null);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            emit(Level.DEBUG, pattern, new Object[] { arg });
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            emit(Level.DEBUG, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.DEBUG)) {
+            emit(Level.DEBUG, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            AsyncAppender.get().append(Level.DEBUG, name, message.get(), null);
+        }
+    }
+
+    public void info(String pattern) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, pattern, null);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, pattern, new Object[] { arg });
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    public void warn(String pattern) {
+        if (isEnabled(Level.WARN)) {
+            emit(Level.WARN, pattern, null);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            emit(Level.WARN, pattern, new Object[] { arg });
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) {
+            emit(Level.WARN, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.WARN)) {
+            emit(Level.WARN, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    public void error(String pattern) {
+        if (isEnabled(Level.ERROR)) {
+            emit(Level.ERROR, pattern, null);
+        }
+    }
+
+    public void error(String pattern, Object arg) {
+        if (isEnabled(Level.ERROR)) {
+            emit(Level.ERROR, pattern, new Object[] { arg });
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) {
+            emit(Level.ERROR, pattern, new Object[] { arg1, arg2 });
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.ERROR)) {
+            emit(Level.ERROR, pattern, new Object[] { arg1, arg2, arg3 });
+        }
+    }
+
+    public void log(Level level, String pattern, Object... args) {
+        if (isEnabled(level)) {
+            emit(level, pattern, args);
+        }
+    }
+
+    private void emit(Level level, String pattern, Object[] args) {
+        Throwable error = null;
+        String message = pattern;
+        if (args != null) {
+            int placeholders = count(pattern);
+            if (args.length > placeholders && args[args.length - 1] instanceof Throwable) {
+                error = (Throwable) args[args.length - 1];
+            }
+            message = format(pattern, args, placeholders);
+        }
+        AsyncAppender.get().append(level, name, message, error);
+    }
+
+    private static int count(String pattern) {
+        int count = 0;
+        for (int i = pattern.indexOf("{}"); i >= 0; i = pattern.indexOf("{}", i + 2)) {
+            count++;
+        }
+        return count;
+    }
+
+    static String format(String pattern, Object[] args, int placeholders) {
+        if (placeholders == 0) {
+            return pattern;
+        }
+        StringBuilder out = new StringBuilder(pattern.length() + 16 * placeholders);
+        int from = 0;
+        for (int i = 0; i < args.length && i < placeholders; i++) {
+            int at = pattern.indexOf("{}", from);
+            out.append(pattern, from, at).append(args[i]);
+            from = at + 2;
+        }
+        return out.append(pattern, from, pattern.length()).toString();
+    }
+}
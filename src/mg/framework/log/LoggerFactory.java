@@ -0,0 +1,93 @@
+package mg.framework.log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fabrique et configuration des journaux.
+ *
+ * Le niveau par défaut vient de la propriété système
+ * {@code mg.framework.log.level} (INFO sinon). {@link #setLevel} fixe le
+ * niveau d'un préfixe de noms ; le préfixe le plus long l'emporte.
+ */
+public final class LoggerFactory {
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final Map<String, Level> LEVELS = new ConcurrentHashMap<>();
+    private static volatile Level rootLevel = parse(System.getProperty("mg.framework.log.level"), Level.INFO);
+
+    private LoggerFactory() {
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    public static Logger getLogger(String name) {
+        return LOGGERS.computeIfAbsent(name, key -> new Logger(key, levelFor(key)));
+    }
+
+    public static void setRootLevel(Level level) {
+        rootLevel = level;
+        refresh();
+    }
+
+    public static void setLevel(String prefix, Level level) {
+        LEVELS.put(prefix, level);
+        refresh();
+    }
+
+    /**
+     * Vide la file d'attente et arrête le thread d'écriture (fin de
+     * l'application). Un journal écrit ensuite le relance.
+     */
+    public static void shutdown() {
+        AsyncAppender.shutdown();
+    }
+
+    /**
+     * Déclare un utilisateur du thread d'écriture (init d'une servlet), à
+     * rendre par {@link #release()}.
+     */
+    public static void retain() {
+        AsyncAppender.retain();
+    }
+
+    /**
+     * Rend une référence prise par {@link #retain()} ; la dernière arrête le
+     * thread d'écriture comme {@link #shutdown()}. Plusieurs servlets de la
+     * même application partagent ainsi les journaux jusqu'à la dernière.
+     */
+    public static void release() {
+        AsyncAppender.release();
+    }
+
+    private static void refresh() {
+        for (Logger logger : LOGGERS.values()) {
+            logger.setLevel(levelFor(logger.getName()));
+        }
+    }
+
+    private static Level levelFor(String name) {
+        Level best = rootLevel;
+        int bestLength = -1;
+        for (Map.Entry<String, Level> entry : LEVELS.entrySet()) {
+            String prefix = entry.getKey();
+            if (prefix.length() > bestLength && name.startsWith(prefix)) {
+                best = entry.getValue();
+                bestLength = prefix.length();
+            }
+        }
+        return best;
+    }
+
+    static Level parse(String value, Level defaultLevel) {
+        if (value == null || value.isEmpty()) {
+            return defaultLevel;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
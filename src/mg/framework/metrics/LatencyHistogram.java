@@ -0,0 +1,116 @@
+package mg.framework.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à buckets log-linéaires, à la manière de
+ * HdrHistogram : chaque puissance de deux est découpée en 8 sous-buckets
+ * (précision relative de 12,5 %), de 0 ns à environ 73 minutes.
+ *
+ * L'enregistrement ne prend aucun verrou et n'alloue rien : un calcul
+ * d'index puis l'incrément d'un {@link LongAdder}.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Valeurs enregistrées telles quelles : 0 .. 2 * SUB_COUNT - 1. */
+    private static final int LINEAR = SUB_COUNT * 2;
+    private static final int MIN_EXPONENT = SUB_BITS + 1;
+    private static final int MAX_EXPONENT = 42;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    public static final int BUCKETS = LINEAR + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_COUNT;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[indexOf(Math.min(nanos, MAX_VALUE))].increment();
+        sum.add(nanos);
+    }
+
+    public long count() {
+        long total = 0;
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /** Somme des durées enregistrées, en nanosecondes. */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /** Copie instantanée des compteurs par bucket. */
+    public long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Borne supérieure du bucket contenant le quantile demandé (0..1), en
+     * nanosecondes, ou 0 si l'histogramme est vide.
+     */
+    public long quantile(double q) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    public double quantileMillis(double q) {
+        return quantile(q) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return LINEAR + (exponent - MIN_EXPONENT) * SUB_COUNT + sub;
+    }
+
+    /** Plus grande valeur (incluse) du bucket. */
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = MIN_EXPONENT + (index - LINEAR) / SUB_COUNT;
+        int sub = (index - LINEAR) % SUB_COUNT;
+        long width = 1L << (exponent - SUB_BITS);
+        return (SUB_COUNT + sub) * width + width - 1;
+    }
+
+    /** Index du premier bucket dont les valeurs sont supérieures ou égales à 2^exponent. */
+    static int indexOfPowerOfTwo(int exponent) {
+        return indexOf(1L << exponent);
+    }
+}
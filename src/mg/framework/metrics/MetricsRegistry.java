@@ -0,0 +1,171 @@
+package mg.framework.metrics;
+
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métriques de toutes les routes d'une servlet, publiées en JMX
+ * ({@code mg.framework:type=RouteMetrics,servlet=...,name="GET /x"}) et au
+ * format texte Prometheus.
+ */
+public class MetricsRegistry implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    /** Bornes exportées pour Prometheus : puissances de deux de 2^10 ns (~1 µs) à 2^36 ns (~69 s). */
+    private static final int MIN_EXPORTED_EXPONENT = 10;
+    private static final int MAX_EXPORTED_EXPONENT = 36;
+
+    private final String servletName;
+    private final List<RouteMetrics> routes = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public MetricsRegistry(String servletName) {
+        this.servletName = servletName;
+    }
+
+    /** Crée et enregistre les métriques d'une route. */
+    public RouteMetrics register(String method, String route) {
+        return register(new RouteMetrics(method, route));
+    }
+
+    public RouteMetrics register(RouteMetrics metrics) {
+        routes.add(metrics);
+        registerMBean(metrics);
+        return metrics;
+    }
+
+    public List<RouteMetrics> getRoutes() {
+        return routes;
+    }
+
+    private void registerMBean(RouteMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("mg.framework:type=RouteMetrics,servlet="
+                    + ObjectName.quote(servletName) + ",name="
+                    + ObjectName.quote(metrics.getMethod() + " " + metrics.getRoute()));
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+            synchronized (registered) {
+                registered.add(name);
+            }
+        } catch (Exception e) {
+            LOG.warn("Enregistrement JMX impossible pour {}: {}", metrics.getRoute(), e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit toutes les métriques au format d'exposition texte Prometheus 0.0.4.
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP mg_requests_total Invocations terminées par route.\n");
+        out.append("# TYPE mg_requests_total counter\n");
+        for (RouteMetrics metrics : routes) {
+            sample(out, "mg_requests_total", metrics, null, null).append(Long.toString(metrics.getRequestCount())).append('\n');
+        }
+
+        out.append("# HELP mg_requests_in_flight Invocations en cours par route.\n");
+        out.append("# TYPE mg_requests_in_flight gauge\n");
+        for (RouteMetrics metrics : routes) {
+            sample(out, "mg_requests_in_flight", metrics, null, null).append(Long.toString(metrics.getInFlight())).append('\n');
+        }
+
+        out.append("# HELP mg_request_exceptions_total Exceptions levées par route et par type.\n");
+        out.append("# TYPE mg_request_exceptions_total counter\n");
+        for (RouteMetrics metrics : routes) {
+            for (Map.Entry<Class<?>, LongAdder> entry : metrics.getExceptions().entrySet()) {
+                sample(out, "mg_request_exceptions_total", metrics, "exception", entry.getKey().getName())
+                        .append(Long.toString(entry.getValue().sum())).append('\n');
+            }
+        }
+
+        out.append("# HELP mg_request_duration_seconds Durée des invocations par route.\n");
+        out.append("# TYPE mg_request_duration_seconds histogram\n");
+        for (RouteMetrics metrics : routes) {
+            writeHistogram(out, metrics);
+        }
+    }
+
+    private void writeHistogram(Appendable out, RouteMetrics metrics) throws IOException {
+        long[] counts = metrics.getLatencies().snapshot();
+        long cumulative = 0;
+        int index = 0;
+        for (int exponent = MIN_EXPORTED_EXPONENT; exponent <= MAX_EXPORTED_EXPONENT; exponent++) {
+            int limit = LatencyHistogram.indexOfPowerOfTwo(exponent);
+            for (; index < limit; index++) {
+                cumulative += counts[index];
+            }
+            double le = ((1L << exponent) - 1) / 1e9;
+            sample(out, "mg_request_duration_seconds_bucket", metrics, "le", Double.toString(le))
+                    .append(Long.toString(cumulative)).append('\n');
+        }
+        for (; index < counts.length; index++) {
+            cumulative += counts[index];
+        }
+        sample(out, "mg_request_duration_seconds_bucket", metrics, "le", "+Inf")
+                .append(Long.toString(cumulative)).append('\n');
+        sample(out, "mg_request_duration_seconds_sum", metrics, null, null)
+                .append(Double.toString(metrics.getLatencies().sum() / (double) TimeUnit.SECONDS.toNanos(1)))
+                .append('\n');
+        sample(out, "mg_request_duration_seconds_count", metrics, null, null)
+                .append(Long.toString(cumulative)).append('\n');
+    }
+
+    private Appendable sample(Appendable out, String name, RouteMetrics metrics, String label, String value)
+            throws IOException {
+        out.append(name).append("{servlet=\"");
+        escape(out, servletName);
+        out.append("\",method=\"");
+        escape(out, metrics.getMethod());
+        out.append("\",route=\"");
+        escape(out, metrics.getRoute());
+        if (label != null) {
+            out.append("\",").append(label).append("=\"");
+            escape(out, value);
+        }
+        return out.append("\"} ");
+    }
+
+    private static void escape(Appendable out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    /** Retire les MBeans enregistrés (redéploiement de l'application). */
+    @Override
+    public void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized (registered) {
+            for (ObjectName name : registered) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (Exception e) {
+                    // déjà retiré
+                }
+            }
+            registered.clear();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package mg.framework.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une route : requêtes, requêtes en cours, exceptions par type et
+ * histogramme des latences. Usage :
+ *
+ * <pre>
+ * long start = metrics.start();
+ * try { ... } catch (Throwable t) { metrics.failed(t); throw t; }
+ * finally { metrics.stop(start); }
+ * </pre>
+ *
+ * {@link #start()} et {@link #stop(long)} sont sans verrou ni allocation.
+ */
+public class RouteMetrics implements RouteMetricsMXBean {
+    private final String method;
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<Class<?>, LongAdder> exceptions = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    public RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    /** Début d'une invocation : renvoie l'instant de départ à passer à {@link #stop(long)}. */
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        latencies.record(System.nanoTime() - start);
+        inFlight.decrement();
+        requests.increment();
+    }
+
+    public void failed(Throwable error) {
+        errors.increment();
+        exceptions.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /** Nombre d'exceptions par classe. */
+    public Map<Class<?>, LongAdder> getExceptions() {
+        return exceptions;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = latencies.count();
+        return count == 0 ? 0 : latencies.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.quantileMillis(0.50);
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latencies.quantileMillis(0.90);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.quantileMillis(0.99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.quantileMillis(1.0);
+    }
+}
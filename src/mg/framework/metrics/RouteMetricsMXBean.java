@@ -0,0 +1,26 @@
+package mg.framework.metrics;
+
+/**
+ * Vue JMX des métriques d'une route.
+ */
+public interface RouteMetricsMXBean {
+    String getMethod();
+
+    String getRoute();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    long getInFlight();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
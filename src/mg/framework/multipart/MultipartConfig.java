@@ -0,0 +1,38 @@
+package mg.framework.multipart;
+
+import java.nio.file.Path;
+
+/**
+ * Limites du parseur multipart. Les tailles négatives signifient « sans
+ * limite ». Par défaut, 10 Mo par fichier et 50 Mo par requête : le corps est
+ * lu avant les intercepteurs, une requête non authentifiée ne doit pas
+ * pouvoir remplir le disque.
+ */
+public class MultipartConfig {
+    public static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+    public static final long DEFAULT_MAX_REQUEST_SIZE = 50L * 1024 * 1024;
+
+    private int memoryThreshold = 64 * 1024;
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private long maxRequestSize = DEFAULT_MAX_REQUEST_SIZE;
+    private int maxFieldSize = 1024 * 1024;
+    private Path location = Path.of(System.getProperty("java.io.tmpdir"));
+
+    /** Au-delà de cette taille, le contenu d'un fichier est écrit sur disque. */
+    public int getMemoryThreshold() { return memoryThreshold; }
+    public void setMemoryThreshold(int memoryThreshold) { this.memoryThreshold = memoryThreshold; }
+
+    public long getMaxFileSize() { return maxFileSize; }
+    public void setMaxFileSize(long maxFileSize) { this.maxFileSize = maxFileSize; }
+
+    public long getMaxRequestSize() { return maxRequestSize; }
+    public void setMaxRequestSize(long maxRequestSize) { this.maxRequestSize = maxRequestSize; }
+
+    /** Taille maximale d'un champ texte (toujours gardé en mémoire). */
+    public int getMaxFieldSize() { return maxFieldSize; }
+    public void setMaxFieldSize(int maxFieldSize) { this.maxFieldSize = maxFieldSize; }
+
+    /** Répertoire des fichiers temporaires. */
+    public Path getLocation() { return location; }
+    public void setLocation(Path location) { this.location = location; }
+}
@@ -0,0 +1,27 @@
+package mg.framework.multipart;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requête multipart invalide ou trop volumineuse, avec le statut HTTP à
+ * renvoyer (400 ou 413).
+ */
+public class MultipartException extends ServletException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public MultipartException(String message) {
+        this(message, HttpServletResponse.SC_BAD_REQUEST);
+    }
+
+    public MultipartException(String message, int status) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
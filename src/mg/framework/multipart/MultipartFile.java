@@ -0,0 +1,112 @@
+package mg.framework.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier reçu dans une requête multipart/form-data. Le contenu est en
+ * mémoire s'il est petit, sinon dans un fichier temporaire supprimé à la
+ * fin de la requête.
+ */
+public class MultipartFile {
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final byte[] content;
+    private final Path file;
+    private final long size;
+
+    MultipartFile(String name, String originalFilename, String contentType, byte[] content, Path file, long size) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content;
+        this.file = file;
+        this.size = size;
+    }
+
+    /** Nom du champ du formulaire. */
+    public String getName() {
+        return name;
+    }
+
+    /** Nom du fichier côté client, tel qu'envoyé (à ne pas utiliser tel quel comme chemin). */
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Vrai si le contenu a été écrit dans un fichier temporaire. */
+    public boolean isOnDisk() {
+        return file != null;
+    }
+
+    /**
+     * Contenu complet en mémoire : à réserver aux petits fichiers.
+     */
+    public byte[] getBytes() throws IOException {
+        if (file == null) {
+            return content.clone();
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Fichier trop volumineux pour la mémoire: " + size + " octets");
+        }
+        return Files.readAllBytes(file);
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return file == null ? new ByteArrayInputStream(content) : Files.newInputStream(file);
+    }
+
+    /**
+     * Copie le contenu vers {@code destination} (remplacé s'il existe). Depuis
+     * le disque, la copie passe par {@link FileChannel#transferTo} et ne
+     * transite pas par le tas.
+     */
+    public void transferTo(Path destination) throws IOException {
+        try (FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (file == null) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                return;
+            }
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+        }
+    }
+
+    /** Supprime le fichier temporaire éventuel. */
+    void delete() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package mg.framework.multipart;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Requête dont les paramètres incluent les champs texte d'un corps
+ * multipart (après ceux de la query string). Les fichiers sont accessibles
+ * via {@link #of(ServletRequest)}, y compris sur la requête d'origine.
+ */
+public class MultipartHttpServletRequest extends HttpServletRequestWrapper {
+    public static final String ATTRIBUTE = "mg.framework.multipart";
+
+    private final MultipartRequest multipart;
+    private final Map<String, String[]> parameters;
+
+    public MultipartHttpServletRequest(HttpServletRequest request, MultipartRequest multipart) {
+        super(request);
+        this.multipart = multipart;
+        request.setAttribute(ATTRIBUTE, multipart);
+
+        Map<String, String[]> merged = new LinkedHashMap<>(request.getParameterMap());
+        for (Map.Entry<String, String[]> entry : multipart.getParameterMap().entrySet()) {
+            String[] existing = merged.get(entry.getKey());
+            if (existing == null) {
+                merged.put(entry.getKey(), entry.getValue());
+            } else {
+                String[] values = new String[existing.length + entry.getValue().length];
+                System.arraycopy(existing, 0, values, 0, existing.length);
+                System.arraycopy(entry.getValue(), 0, values, existing.length, entry.getValue().length);
+                merged.put(entry.getKey(), values);
+            }
+        }
+        this.parameters = Collections.unmodifiableMap(merged);
+    }
+
+    /** Contenu multipart de la requête, ou null si elle n'en a pas. */
+    public static MultipartRequest of(ServletRequest request) {
+        return (MultipartRequest) request.getAttribute(ATTRIBUTE);
+    }
+
+    public MultipartRequest getMultipart() {
+        return multipart;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        String[] values = parameters.get(name);
+        return values != null ? values.clone() : null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+}
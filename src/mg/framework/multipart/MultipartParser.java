@@ -0,0 +1,399 @@
+package mg.framework.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Parseur multipart/form-data en flux : le corps est lu par blocs de 64 Ko
+ * et chaque partie est écrite au fur et à mesure, en mémoire jusqu'au seuil
+ * puis dans un fichier temporaire via {@link FileChannel}. Un fichier n'est
+ * donc jamais entièrement chargé dans le tas.
+ *
+ * Le corps doit être lisible par getInputStream() : la servlet ne doit pas
+ * déclarer de multipart-config, sinon le conteneur le consomme lui-même.
+ */
+public class MultipartParser {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    private final MultipartConfig config;
+
+    public MultipartParser(MultipartConfig config) {
+        this.config = config;
+    }
+
+    public MultipartConfig getConfig() {
+        return config;
+    }
+
+    public static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.regionMatches(true, 0, "multipart/", 0, 10);
+    }
+
+    public MultipartRequest parse(HttpServletRequest request) throws IOException, MultipartException {
+        long length = request.getContentLengthLong();
+        if (config.getMaxRequestSize() >= 0 && length > config.getMaxRequestSize()) {
+            throw new MultipartException("Requête trop volumineuse: " + length + " octets",
+                    HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        }
+        String encoding = request.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return parse(request.getInputStream(), request.getContentType(), charset);
+    }
+
+    public MultipartRequest parse(InputStream in, String contentType, Charset charset)
+            throws IOException, MultipartException {
+        String boundary = parameter(contentType, "boundary");
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new MultipartException("Boundary multipart absente ou invalide");
+        }
+
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        Map<String, List<MultipartFile>> files = new LinkedHashMap<>();
+        Input input = new Input(in, config.getMaxRequestSize());
+        byte[] delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+
+        try {
+            // Préambule : ignoré jusqu'au premier délimiteur
+            input.readBody(delimiter, null);
+            while (true) {
+                if (!input.ensure(2)) {
+                    throw new MultipartException("Requête multipart incomplète");
+                }
+                if (input.peek(0) == '-' && input.peek(1) == '-') {
+                    break;
+                }
+                input.skipLine();
+
+                Map<String, String> headers = input.readHeaders();
+                String disposition = headers.get("content-disposition");
+                String name = parameter(disposition, "name");
+                if (name == null) {
+                    input.readBody(delimiter, null);
+                    continue;
+                }
+                String filename = parameter(disposition, "filename");
+                if (filename == null) {
+                    Sink sink = new Sink(config.getMaxFieldSize(), Integer.MAX_VALUE, "Champ trop volumineux: " + name);
+                    input.readBody(delimiter, sink);
+                    fields.computeIfAbsent(name, key -> new ArrayList<>(1)).add(new String(sink.bytes(), charset));
+                } else {
+                    Sink sink = new Sink(config.getMaxFileSize(), config.getMemoryThreshold(),
+                            "Fichier trop volumineux: " + filename);
+                    try {
+                        input.readBody(delimiter, sink);
+                    } catch (IOException | RuntimeException e) {
+                        sink.discard();
+                        throw e;
+                    }
+                    files.computeIfAbsent(name, key -> new ArrayList<>(1)).add(sink.toFile(name, filename,
+                            headers.getOrDefault("content-type", "application/octet-stream")));
+                }
+            }
+        } catch (IOException | RuntimeException | MultipartException e) {
+            // Fichiers déjà écrits sur disque supprimés, quelle que soit l'erreur
+            new MultipartRequest(new LinkedHashMap<>(), files).close();
+            // Les limites sont détectées pendant la lecture, remontées dans une IOException
+            if (e.getCause() instanceof MultipartException) {
+                throw (MultipartException) e.getCause();
+            }
+            throw e;
+        }
+
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : fields.entrySet()) {
+            parameters.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+        return new MultipartRequest(parameters, files);
+    }
+
+    /**
+     * Valeur d'un paramètre d'en-tête ({@code ; name="valeur"}), guillemets
+     * et échappements retirés.
+     */
+    static String parameter(String header, String name) {
+        if (header == null) {
+            return null;
+        }
+        int i = header.indexOf(';');
+        while (i >= 0 && i < header.length()) {
+            int start = i + 1;
+            while (start < header.length() && header.charAt(start) == ' ') {
+                start++;
+            }
+            int equals = header.indexOf('=', start);
+            if (equals < 0) {
+                return null;
+            }
+            String key = header.substring(start, equals).trim();
+            StringBuilder value = new StringBuilder();
+            int j = equals + 1;
+            if (j < header.length() && header.charAt(j) == '"') {
+                for (j++; j < header.length() && header.charAt(j) != '"'; j++) {
+                    char c = header.charAt(j);
+                    if (c == '\\' && j + 1 < header.length()) {
+                        c = header.charAt(++j);
+                    }
+                    value.append(c);
+                }
+                j = header.indexOf(';', j);
+            } else {
+                int end = header.indexOf(';', j);
+                value.append(header, j, end < 0 ? header.length() : end);
+                j = end;
+            }
+            if (key.equalsIgnoreCase(name)) {
+                return value.toString().trim();
+            }
+            i = j;
+        }
+        return null;
+    }
+
+    /**
+     * Tampon de lecture avec recherche du délimiteur. Un CRLF virtuel est
+     * placé en tête pour que le premier délimiteur (sans CRLF) soit reconnu.
+     */
+    private static final class Input {
+        private final InputStream in;
+        private final long maxTotal;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        private long total;
+        private boolean eof;
+
+        Input(InputStream in, long maxTotal) {
+            this.in = in;
+            this.maxTotal = maxTotal;
+            buffer[0] = '\r';
+            buffer[1] = '\n';
+            limit = 2;
+        }
+
+        byte peek(int offset) {
+            return buffer[pos + offset];
+        }
+
+        /** Garantit {@code count} octets disponibles ; faux en fin de flux. */
+        boolean ensure(int count) throws IOException {
+            while (limit - pos < count) {
+                if (!fill()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            if (pos > 0) {
+                System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+            }
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+            limit += n;
+            total += n;
+            if (maxTotal >= 0 && total > maxTotal) {
+                throw new IOException(new MultipartException("Requête trop volumineuse",
+                        HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE));
+            }
+            return true;
+        }
+
+        void skipLine() throws IOException {
+            while (true) {
+                for (int i = pos; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        pos = i + 1;
+                        return;
+                    }
+                }
+                pos = limit;
+                if (!fill()) {
+                    throw new IOException(new MultipartException("Requête multipart incomplète"));
+                }
+            }
+        }
+
+        Map<String, String> readHeaders() throws IOException {
+            Map<String, String> headers = new LinkedHashMap<>();
+            int read = 0;
+            while (true) {
+                int end = -1;
+                while (true) {
+                    for (int i = pos; i < limit; i++) {
+                        if (buffer[i] == '\n') {
+                            end = i;
+                            break;
+                        }
+                    }
+                    if (end >= 0) {
+                        break;
+                    }
+                    if (limit - pos > MAX_HEADER_SIZE || !fill()) {
+                        throw new IOException(new MultipartException("En-têtes de partie invalides"));
+                    }
+                }
+                int lineEnd = end > pos && buffer[end - 1] == '\r' ? end - 1 : end;
+                String line = new String(buffer, pos, lineEnd - pos, StandardCharsets.UTF_8);
+                read += end + 1 - pos;
+                pos = end + 1;
+                if (line.isEmpty()) {
+                    return headers;
+                }
+                if (read > MAX_HEADER_SIZE) {
+                    throw new IOException(new MultipartException("En-têtes de partie trop longs"));
+                }
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                            line.substring(colon + 1).trim());
+                }
+            }
+        }
+
+        /**
+         * Copie les octets jusqu'au délimiteur (exclu) dans {@code sink}, ou
+         * les ignore si sink est null, et se place juste après.
+         */
+        void readBody(byte[] delimiter, Sink sink) throws IOException {
+            while (true) {
+                int index = indexOf(delimiter);
+                if (index >= 0) {
+                    if (sink != null) {
+                        sink.write(buffer, pos, index - pos);
+                    }
+                    pos = index + delimiter.length;
+                    return;
+                }
+                // Les derniers octets peuvent être le début du délimiteur
+                int safe = limit - (delimiter.length - 1);
+                if (safe > pos) {
+                    if (sink != null) {
+                        sink.write(buffer, pos, safe - pos);
+                    }
+                    pos = safe;
+                }
+                if (!fill()) {
+                    throw new IOException(new MultipartException("Requête multipart incomplète"));
+                }
+            }
+        }
+
+        private int indexOf(byte[] delimiter) {
+            byte first = delimiter[0];
+            int last = limit - delimiter.length;
+            outer:
+            for (int i = pos; i <= last; i++) {
+                if (buffer[i] != first) {
+                    continue;
+                }
+                for (int j = 1; j < delimiter.length; j++) {
+                    if (buffer[i + j] != delimiter[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Destination d'une partie : mémoire jusqu'à {@code threshold}, puis
+     * fichier temporaire.
+     */
+    private final class Sink {
+        private final long maxSize;
+        private final int threshold;
+        private final String tooLarge;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream(256);
+        private Path file;
+        private FileChannel channel;
+        private long size;
+
+        Sink(long maxSize, int threshold, String tooLarge) {
+            this.maxSize = maxSize;
+            this.threshold = threshold;
+            this.tooLarge = tooLarge;
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            size += length;
+            if (maxSize >= 0 && size > maxSize) {
+                throw new IOException(new MultipartException(tooLarge,
+                        HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE));
+            }
+            if (channel == null && memory.size() + length > threshold) {
+                file = Files.createTempFile(config.getLocation(), "mg-upload-", ".tmp");
+                channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                writeFully(ByteBuffer.wrap(memory.toByteArray()));
+                memory = null;
+            }
+            if (channel != null) {
+                writeFully(ByteBuffer.wrap(bytes, offset, length));
+            } else {
+                memory.write(bytes, offset, length);
+            }
+        }
+
+        private void writeFully(ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+
+        byte[] bytes() {
+            return memory.toByteArray();
+        }
+
+        MultipartFile toFile(String name, String filename, String contentType) throws IOException {
+            if (channel != null) {
+                channel.close();
+                return new MultipartFile(name, filename, contentType, null, file, size);
+            }
+            return new MultipartFile(name, filename, contentType, memory.toByteArray(), null, size);
+        }
+
+        void discard() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                // fichier temporaire laissé au système
+            }
+        }
+    }
+}
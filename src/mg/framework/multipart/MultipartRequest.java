@@ -0,0 +1,47 @@
+package mg.framework.multipart;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat de l'analyse d'une requête multipart : champs texte et fichiers.
+ * {@link #close()} supprime les fichiers temporaires.
+ */
+public class MultipartRequest implements AutoCloseable {
+    private final Map<String, String[]> parameters;
+    private final Map<String, List<MultipartFile>> files;
+
+    MultipartRequest(Map<String, String[]> parameters, Map<String, List<MultipartFile>> files) {
+        this.parameters = parameters;
+        this.files = files;
+    }
+
+    /** Champs texte du formulaire. */
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    public MultipartFile getFile(String name) {
+        List<MultipartFile> list = files.get(name);
+        return list != null ? list.get(0) : null;
+    }
+
+    public List<MultipartFile> getFiles(String name) {
+        List<MultipartFile> list = files.get(name);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    public Map<String, List<MultipartFile>> getFileMap() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    @Override
+    public void close() {
+        for (List<MultipartFile> list : files.values()) {
+            for (MultipartFile file : list) {
+                file.delete();
+            }
+        }
+    }
+}
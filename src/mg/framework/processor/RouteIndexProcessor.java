@@ -0,0 +1,176 @@
+package mg.framework.processor;
+
+import mg.framework.core.RouteIndex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Génère {@link RouteIndex#LOCATION} à la compilation (contrôleurs, composants
+ * et classes {@code @URLMapping}), pour que DispatcherServlet et
+ * FrontController n'aient plus à parcourir le classpath au démarrage.
+ *
+ * Enregistré via META-INF/services : il suffit d'avoir le JAR du framework sur
+ * le classpath de javac. En compilation incrémentale, l'index déjà présent
+ * dans le répertoire de sortie est fusionné : les entrées des classes non
+ * recompilées qui existent encore sont gardées.
+ */
+@SupportedAnnotationTypes({ "mg.framework.annotation.Controller", "mg.framework.annotation.Component",
+        "frame.annotation.URLMapping" })
+public class RouteIndexProcessor extends AbstractProcessor {
+    private static final String CONTROLLER = "mg.framework.annotation.Controller";
+    private static final String COMPONENT = "mg.framework.annotation.Component";
+    private static final String URL_MAPPING = "frame.annotation.URLMapping";
+
+    private final Map<String, List<String>> entries = new LinkedHashMap<>();
+    private final Set<String> compiled = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            collectCompiled(type);
+        }
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getQualifiedName().toString();
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (CONTROLLER.equals(name) && element.getKind() == ElementKind.CLASS) {
+                    indexController((TypeElement) element);
+                } else if (COMPONENT.equals(name) && element.getKind() == ElementKind.CLASS) {
+                    String className = binaryName((TypeElement) element);
+                    lines(className).add(0, "component " + className);
+                } else if (URL_MAPPING.equals(name) && element.getKind() == ElementKind.METHOD) {
+                    indexUrlMapping(element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexController(TypeElement type) {
+        String className = binaryName(type);
+        lines(className).add("controller " + className);
+    }
+
+    private void collectCompiled(TypeElement type) {
+        compiled.add(binaryName(type));
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collectCompiled(nested);
+        }
+    }
+
+    private void indexUrlMapping(Element method) {
+        TypeElement type = (TypeElement) method.getEnclosingElement();
+        String className = binaryName(type);
+        List<String> lines = lines(className);
+        String url = method.getAnnotationMirrors().stream()
+                .filter(m -> URL_MAPPING.equals(m.getAnnotationType().toString()))
+                .flatMap(m -> m.getElementValues().values().stream())
+                .map(v -> String.valueOf(v.getValue()))
+                .findFirst().orElse("");
+        String methodName = method.getSimpleName().toString();
+
+        checkUrl(className, url, methodName);
+        lines.add("urlmapping " + className + " " + url + " " + methodName);
+    }
+
+    private void checkUrl(String className, String url, String methodName) {
+        if (url.indexOf(' ') >= 0) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "URL non indexable: '" + url + "' (" + className + "." + methodName + ")");
+        }
+    }
+
+    private List<String> lines(String className) {
+        return entries.computeIfAbsent(className, k -> new ArrayList<>());
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+        Map<String, List<String>> merged = readPreviousIndex();
+        boolean changed = !entries.isEmpty();
+        for (String className : new ArrayList<>(merged.keySet())) {
+            // Classe recompilée (réindexée ou sans annotation) ou supprimée
+            if (compiled.contains(className) || entries.containsKey(className) || !exists(className)) {
+                merged.remove(className);
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return;
+        }
+        merged.putAll(entries);
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# mg-framework routes index, " + getClass().getName() + "\n");
+                for (List<String> lines : merged.values()) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Impossible d'écrire " + RouteIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /** Entrées de l'index déjà présent dans CLASS_OUTPUT, par classe. */
+    private Map<String, List<String>> readPreviousIndex() {
+        Map<String, List<String>> previous = new LinkedHashMap<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.LOCATION);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    String[] parts = line.split(" ");
+                    if (!line.startsWith("#") && parts.length >= 2 && !parts[0].equals("mapping")) {
+                        previous.computeIfAbsent(parts[1], k -> new ArrayList<>()).add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Pas d'index précédent : compilation complète
+        }
+        return previous;
+    }
+
+    private boolean exists(String className) {
+        return processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null;
+    }
+}
@@ -0,0 +1,100 @@
+package mg.framework.resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * LRU des petits fichiers statiques, gardés dans des ByteBuffer directs
+ * (hors du tas). Une entrée est invalidée dès que la taille ou la date de
+ * modification du fichier change. Le total est borné par maxBytes.
+ */
+final class BufferCache {
+    private final long maxBytes;
+    private final int maxFileSize;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    BufferCache(long maxBytes, int maxFileSize) {
+        this.maxBytes = maxBytes;
+        this.maxFileSize = maxFileSize;
+    }
+
+    boolean accepts(long size) {
+        return size <= maxFileSize && size <= maxBytes;
+    }
+
+    /**
+     * Contenu du fichier, chargé au premier appel. Le tampon rendu est une vue
+     * en lecture seule propre à l'appelant.
+     */
+    ByteBuffer get(Path file, long size, long lastModified) throws IOException {
+        synchronized (this) {
+            Entry entry = entries.get(file);
+            if (entry != null) {
+                if (entry.size == size && entry.lastModified == lastModified) {
+                    return entry.buffer.duplicate();
+                }
+                entries.remove(file);
+                bytes -= entry.size;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // lecture complète
+            }
+        }
+        if (buffer.hasRemaining()) {
+            // Fichier tronqué pendant la lecture : non mis en cache
+            buffer.flip();
+            return buffer;
+        }
+        buffer.flip();
+        ByteBuffer readOnly = buffer.asReadOnlyBuffer();
+
+        synchronized (this) {
+            Entry previous = entries.put(file, new Entry(readOnly, size, lastModified));
+            if (previous != null) {
+                bytes -= previous.size;
+            }
+            bytes += size;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size;
+                eldest.remove();
+            }
+        }
+        return readOnly.duplicate();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private static final class Entry {
+        final ByteBuffer buffer;
+        final long size;
+        final long lastModified;
+
+        Entry(ByteBuffer buffer, long size, long lastModified) {
+            this.buffer = buffer;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
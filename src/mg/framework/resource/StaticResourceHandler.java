@@ -0,0 +1,400 @@
+package mg.framework.resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Service des fichiers statiques d'un répertoire.
+ *
+ * Les petits fichiers sont gardés dans un LRU de tampons directs. Les autres
+ * sont confiés au sendfile de Tomcat quand le connecteur le propose, sinon
+ * copiés par blocs dans le flux de la réponse : l'API servlet n'accepte que
+ * des byte[], un fichier mappé ne gagnerait donc rien. Gère Range (une seule
+ * plage), If-Range, If-None-Match et If-Modified-Since, et sert les variantes
+ * précompressées {@code fichier.br} / {@code fichier.gz} quand le client les
+ * accepte. WEB-INF, META-INF, les fichiers cachés et les sources de pages
+ * JSP ne sont jamais servis.
+ */
+public class StaticResourceHandler {
+    private static final Map<String, String> MIME_TYPES = Map.ofEntries(
+            Map.entry("css", "text/css"),
+            Map.entry("js", "text/javascript"),
+            Map.entry("mjs", "text/javascript"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("wasm", "application/wasm"),
+            Map.entry("txt", "text/plain"));
+    private static final long[] UNSATISFIABLE = new long[0];
+    /** Sources compilées par le conteneur : les servir exposerait leur code. */
+    private static final String[] SOURCE_EXTENSIONS = { ".jsp", ".jspx", ".jspf", ".tag", ".tagx" };
+    /** Attributs de requête du sendfile de Tomcat (connecteurs NIO, NIO2 et APR). */
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path root;
+    private final ServletContext context;
+    private final BufferCache cache;
+    private String cacheControl;
+
+    /**
+     * @param cacheSize        octets gardés en mémoire au total
+     * @param maxCachedFile    taille maximale d'un fichier mis en cache
+     */
+    public StaticResourceHandler(Path root, ServletContext context, long cacheSize, int maxCachedFile) {
+        this.root = root.toAbsolutePath().normalize();
+        this.context = context;
+        this.cache = new BufferCache(cacheSize, maxCachedFile);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** Valeur de Cache-Control ajoutée aux réponses, ou null. */
+    public void setCacheControl(String cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * Sert le fichier correspondant à la requête GET ou HEAD. Retourne false,
+     * sans rien écrire, si aucun fichier ne correspond.
+     */
+    public boolean serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String uri = req.getRequestURI();
+        Path file = resolve(uri.substring(req.getContextPath().length()));
+        if (file == null) {
+            return false;
+        }
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            return false;
+        }
+
+        String contentType = contentType(file.getFileName().toString());
+        String encoding = null;
+        boolean hasVariant = false;
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        for (String candidate : new String[] {"br", "gzip"}) {
+            Path sibling = file.resolveSibling(file.getFileName() + (candidate.equals("br") ? ".br" : ".gz"));
+            BasicFileAttributes siblingAttributes = attributes(sibling);
+            if (siblingAttributes == null || !siblingAttributes.isRegularFile()
+                    || siblingAttributes.lastModifiedTime().compareTo(attributes.lastModifiedTime()) < 0) {
+                continue;
+            }
+            hasVariant = true;
+            if (encoding == null && accepts(acceptEncoding, candidate)) {
+                encoding = candidate;
+                file = sibling;
+                attributes = siblingAttributes;
+            }
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+
+        resp.setHeader("ETag", etag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        resp.setHeader("Accept-Ranges", "bytes");
+        if (hasVariant) {
+            resp.addHeader("Vary", "Accept-Encoding");
+        }
+        if (cacheControl != null) {
+            resp.setHeader("Cache-Control", cacheControl);
+        }
+
+        if (notModified(req, etag, lastModified)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        resp.setContentType(contentType);
+        if (encoding != null) {
+            resp.setHeader("Content-Encoding", encoding);
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = req.getHeader("Range");
+        if (range != null && "GET".equals(req.getMethod()) && ifRange(req, etag, lastModified)) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == UNSATISFIABLE) {
+                resp.setHeader("Content-Range", "bytes */" + size);
+                resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                resp.setContentLength(0);
+                return true;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                resp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        resp.setContentLengthLong(length);
+        if ("HEAD".equals(req.getMethod()) || length == 0) {
+            return true;
+        }
+
+        // Le conteneur envoie lui-même le fichier, sans copie en espace utilisateur ;
+        // pas à travers un wrapper, qui ne verrait pas passer le corps
+        if (!cache.accepts(size) && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))
+                && !(resp instanceof HttpServletResponseWrapper)) {
+            req.setAttribute(SENDFILE_FILENAME, file.toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, end + 1);
+            return true;
+        }
+
+        OutputStream out = resp.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        if (cache.accepts(size)) {
+            ByteBuffer buffer = cache.get(file, size, lastModified);
+            if (end < buffer.limit()) {
+                buffer.position((int) start).limit((int) end + 1);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                out.flush();
+                return true;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0 && position >= channel.size()) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+        return true;
+    }
+
+    /** Vide le cache des fichiers. */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Chemin du fichier pour une URL relative au contexte, ou null si elle
+     * sort du répertoire ou vise une ressource protégée.
+     */
+    Path resolve(String path) {
+        if (path.isEmpty() || path.indexOf('%') >= 0 && (path = decode(path)) == null) {
+            return null;
+        }
+        if (path.indexOf('\\') >= 0 || path.indexOf('\0') >= 0) {
+            return null;
+        }
+        int start = 0;
+        boolean first = true;
+        while (start < path.length()) {
+            int slash = path.indexOf('/', start);
+            int end = slash < 0 ? path.length() : slash;
+            if (end > start) {
+                String segment = path.substring(start, end);
+                if (segment.charAt(0) == '.'
+                        || first && (segment.equalsIgnoreCase("WEB-INF") || segment.equalsIgnoreCase("META-INF"))) {
+                    return null;
+                }
+                first = false;
+            }
+            start = end + 1;
+        }
+        if (isSource(path)) {
+            return null;
+        }
+        Path file = root.resolve(path.substring(1)).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    private static boolean isSource(String path) {
+        // "page.jsp." ou "page.jsp " désignent le même fichier sous Windows
+        int end = path.length();
+        while (end > 0 && (path.charAt(end - 1) == '.' || path.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        for (String extension : SOURCE_EXTENSIONS) {
+            if (path.regionMatches(true, end - extension.length(), extension, 0, extension.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String decode(String path) {
+        try {
+            return URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private String contentType(String fileName) {
+        String type = context != null ? context.getMimeType(fileName) : null;
+        if (type == null) {
+            int dot = fileName.lastIndexOf('.');
+            type = dot >= 0 ? MIME_TYPES.get(fileName.substring(dot + 1).toLowerCase()) : null;
+        }
+        return type != null ? type : "application/octet-stream";
+    }
+
+    /**
+     * Vrai si Accept-Encoding autorise le codage (q absent ou non nul,
+     * directement ou par {@code *}).
+     */
+    public static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String token = (semicolon < 0 ? part : part.substring(0, semicolon)).trim();
+            boolean allowed = semicolon < 0 || !isZero(part.substring(semicolon + 1));
+            if (token.equalsIgnoreCase(coding)) {
+                return allowed;
+            }
+            if (token.equals("*")) {
+                wildcard = allowed;
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZero(String parameters) {
+        String q = parameters.trim();
+        if (!q.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(q.substring(2).trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            if (ifNoneMatch.trim().equals("*")) {
+                return true;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long since = dateHeader(req, "If-Modified-Since");
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /**
+     * Range n'est appliqué que si If-Range, quand il est présent, désigne
+     * encore la même version du fichier.
+     */
+    private static boolean ifRange(HttpServletRequest req, String etag, long lastModified) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(req, "If-Range");
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Bornes incluses de la plage demandée, null pour ignorer l'en-tête
+     * (syntaxe invalide ou plusieurs plages) ou {@link #UNSATISFIABLE}.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? size - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), size - 1);
+                if (start >= size) {
+                    return UNSATISFIABLE;
+                }
+                if (end < start) {
+                    return null;
+                }
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package mg.framework.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+import mg.framework.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serveur HTTP/1.1 autonome, sans conteneur de servlets : le même scan des
+ * {@code @Controller} et le même dispatch que dans un conteneur, au-dessus
+ * du serveur NIO du JDK ({@code com.sun.net.httpserver}).
+ *
+ * Chaque échange est traité sur un thread virtuel quand la JVM le permet
+ * (Java 21+), sinon sur un pool de threads. Le keep-alive est géré par le
+ * serveur du JDK ; les requêtes enchaînées (pipelining) sur une même
+ * connexion sont traitées dans l'ordre.
+ *
+ * Les vues sont des templates : sans conteneur, pas de JSP, et une vue
+ * sans template échoue (erreur 500, cause dans le journal).
+ *
+ * <pre>
+ * EmbeddedServer server = new EmbeddedServer(8080, "com.exemple.controllers");
+ * server.start();
+ * </pre>
+ */
+public class EmbeddedServer {
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedServer.class);
+
+    private final int port;
+    private final HttpServlet servlet;
+    private final Map<String, String> initParameters = new LinkedHashMap<>();
+    private String servletName = "dispatcher";
+    private String contextPath = "";
+    private Path documentRoot;
+    private int backlog = 1024;
+    private String host;
+    private HttpServer server;
+    private ExecutorService executor;
+    private ServerContext context;
+
+    /** Serveur d'un DispatcherServlet scannant {@code basePackage}. */
+    public EmbeddedServer(int port, String basePackage) {
+        this(port, new DispatcherServlet());
+        initParameters.put("basePackage", basePackage);
+    }
+
+    public EmbeddedServer(int port, HttpServlet servlet) {
+        this.port = port;
+        this.servlet = servlet;
+    }
+
+    public void setInitParameter(String name, String value) {
+        initParameters.put(name, value);
+    }
+
+    public void setServletName(String servletName) {
+        this.servletName = servletName;
+    }
+
+    /** Préfixe des URL, ex: "/app" ("" par défaut). */
+    public void setContextPath(String contextPath) {
+        this.contextPath = contextPath.equals("/") ? "" : contextPath;
+    }
+
+    /** Répertoire des ressources (templates, vues), sinon le classpath. */
+    public void setDocumentRoot(Path documentRoot) {
+        this.documentRoot = documentRoot.toAbsolutePath().normalize();
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    /** Adresse d'écoute (toutes les interfaces par défaut). */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public void start() throws IOException, ServletException {
+        long started = System.nanoTime();
+        context = new ServerContext(contextPath, documentRoot, initParameters);
+        servlet.init(new Config());
+
+        executor = createExecutor();
+        InetSocketAddress address = host != null ? new InetSocketAddress(host, port) : new InetSocketAddress(port);
+        server = HttpServer.create(address, backlog);
+        server.createContext(contextPath.isEmpty() ? "/" : contextPath, this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        LOG.info("Serveur démarré sur le port {} en {} ms", getPort(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /** Port effectif (utile avec le port 0). */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    /**
+     * Arrête d'accepter des connexions, laisse {@code delaySeconds} aux
+     * échanges en cours, puis détruit la servlet.
+     */
+    public void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(delaySeconds);
+        servlet.destroy();
+        executor.shutdown();
+        server = null;
+        LOG.info("Serveur arrêté");
+    }
+
+    private void handle(HttpExchange exchange) {
+        ExchangeRequest request = new ExchangeRequest(exchange, context);
+        ExchangeResponse response = new ExchangeResponse(exchange, context.getResponseCharacterEncoding());
+        request.setResponse(response);
+        try {
+            servlet.service(request, response);
+
+            ServerAsyncContext async = request.getServerAsyncContext();
+            if (async != null) {
+                async.setExecutor(executor);
+                async.await();
+            }
+            response.finish();
+        } catch (Throwable t) {
+            LOG.error("Erreur sur {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), t);
+            if (!response.isCommitted()) {
+                try {
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } catch (IOException e) {
+                    // connexion perdue
+                }
+            }
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Un thread virtuel par échange (Java 21+), sinon un pool de threads.
+     */
+    protected ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(16, Runtime.getRuntime().availableProcessors() * 8), task -> {
+                Thread thread = new Thread(task, "mg-http-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private final class Config implements ServletConfig {
+        @Override
+        public String getServletName() {
+            return servletName;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return context;
+        }
+
+        @Override
+        public String getInitParameter(String name) {
+            return initParameters.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getInitParameterNames() {
+            return Collections.enumeration(initParameters.keySet());
+        }
+    }
+
+    /**
+     * Usage : {@code java mg.framework.server.EmbeddedServer <port> <basePackage> [documentRoot]}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: EmbeddedServer <port> <basePackage> [documentRoot]");
+            System.exit(1);
+        }
+        EmbeddedServer server = new EmbeddedServer(Integer.parseInt(args[0]), args[1]);
+        if (args.length > 2) {
+            server.setDocumentRoot(Path.of(args[2]));
+        }
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            LoggerFactory.shutdown();
+        }, "mg-http-shutdown"));
+    }
+}
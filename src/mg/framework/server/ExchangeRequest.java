@@ -0,0 +1,663 @@
+package mg.framework.server;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+
+/**
+ * HttpServletRequest au-dessus d'un {@link HttpExchange}. Les paramètres
+ * (query string, puis corps application/x-www-form-urlencoded) ne sont
+ * analysés qu'au premier accès. Pas de sessions ni d'authentification.
+ */
+public class ExchangeRequest implements HttpServletRequest {
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    private final HttpExchange exchange;
+    private final ServerContext context;
+    private final String requestId = Long.toString(REQUEST_IDS.incrementAndGet());
+    private final Map<String, Object> attributes = new HashMap<>(8);
+    private Map<String, String[]> parameters;
+    private String characterEncoding;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+    private Cookie[] cookies;
+    private ServerAsyncContext asyncContext;
+    private ServletResponse response;
+
+    public ExchangeRequest(HttpExchange exchange, ServerContext context) {
+        this.exchange = exchange;
+        this.context = context;
+        this.characterEncoding = context.getRequestCharacterEncoding();
+    }
+
+    HttpExchange getExchange() {
+        return exchange;
+    }
+
+    void setResponse(ServletResponse response) {
+        this.response = response;
+    }
+
+    ServerAsyncContext getServerAsyncContext() {
+        return asyncContext;
+    }
+
+    // Paramètres
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters().get(name);
+        return values != null ? values[0] : null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters().keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        String[] values = parameters().get(name);
+        return values != null ? values.clone() : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters());
+    }
+
+    private Map<String, String[]> parameters() {
+        if (parameters == null) {
+            Map<String, List<String>> collected = new LinkedHashMap<>();
+            Charset charset = charset();
+            decode(exchange.getRequestURI().getRawQuery(), charset, collected);
+            String contentType = getContentType();
+            if (inputStream == null && reader == null && contentType != null
+                    && contentType.regionMatches(true, 0, FORM, 0, FORM.length())) {
+                try {
+                    decode(new String(exchange.getRequestBody().readAllBytes(), charset), charset, collected);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Lecture du formulaire impossible", e);
+                }
+            }
+            Map<String, String[]> result = new LinkedHashMap<>(collected.size() * 2);
+            for (Map.Entry<String, List<String>> entry : collected.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+            }
+            parameters = result;
+        }
+        return parameters;
+    }
+
+    private static void decode(String encoded, Charset charset, Map<String, List<String>> into) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        while (start <= encoded.length()) {
+            int end = encoded.indexOf('&', start);
+            if (end < 0) {
+                end = encoded.length();
+            }
+            if (end > start) {
+                int equals = encoded.indexOf('=', start);
+                String name;
+                String value;
+                if (equals < 0 || equals > end) {
+                    name = URLDecoder.decode(encoded.substring(start, end), charset);
+                    value = "";
+                } else {
+                    name = URLDecoder.decode(encoded.substring(start, equals), charset);
+                    value = URLDecoder.decode(encoded.substring(equals + 1, end), charset);
+                }
+                into.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+            }
+            start = end + 1;
+        }
+    }
+
+    // Corps
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (reader != null) {
+            throw new IllegalStateException("getReader() a déjà été appelé");
+        }
+        if (inputStream == null) {
+            InputStream body = exchange.getRequestBody();
+            inputStream = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = body.read(b, off, len);
+                    finished = n < 0;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Lecture non bloquante non gérée");
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (inputStream != null) {
+            throw new IllegalStateException("getInputStream() a déjà été appelé");
+        }
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), charset()));
+        }
+        return reader;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        if (characterEncoding == null) {
+            characterEncoding = charsetParameter(getContentType());
+        }
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(env)) {
+            throw new UnsupportedEncodingException(env);
+        }
+        this.characterEncoding = env;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    static String charsetParameter(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null;
+        }
+        String value = contentType.substring(index + 8);
+        int end = value.indexOf(';');
+        value = (end >= 0 ? value.substring(0, end) : value).trim();
+        return value.replace("\"", "");
+    }
+
+    @Override
+    public int getContentLength() {
+        long length = getContentLengthLong();
+        return length > Integer.MAX_VALUE ? -1 : (int) length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        String value = getHeader("Content-Length");
+        try {
+            return value != null ? Long.parseLong(value.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    // En-têtes
+
+    @Override
+    public String getHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = exchange.getRequestHeaders().get(name);
+        return Collections.enumeration(values != null ? values : Collections.emptyList());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(exchange.getRequestHeaders().keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value != null ? Integer.parseInt(value.trim()) : -1;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide dans " + name + ": " + value);
+        }
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        if (cookies == null) {
+            List<Cookie> parsed = new ArrayList<>();
+            for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.emptyList())) {
+                for (String pair : header.split(";")) {
+                    int equals = pair.indexOf('=');
+                    if (equals > 0) {
+                        String name = pair.substring(0, equals).trim();
+                        String value = pair.substring(equals + 1).trim();
+                        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                            value = value.substring(1, value.length() - 1);
+                        }
+                        try {
+                            parsed.add(new Cookie(name, value));
+                        } catch (IllegalArgumentException e) {
+                            // nom de cookie invalide : ignoré
+                        }
+                    }
+                }
+            }
+            cookies = parsed.toArray(new Cookie[0]);
+        }
+        return cookies.length == 0 ? null : cookies;
+    }
+
+    // Chemin et connexion
+
+    @Override
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestURI() {
+        return exchange.getRequestURI().getRawPath();
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(64).append(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port != 80) {
+            url.append(':').append(port);
+        }
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getQueryString() {
+        return exchange.getRequestURI().getRawQuery();
+    }
+
+    @Override
+    public String getContextPath() {
+        return context.getContextPath();
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getPathInfo() {
+        String path = exchange.getRequestURI().getPath();
+        return path.length() > getContextPath().length() ? path.substring(getContextPath().length()) : null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        String pathInfo = getPathInfo();
+        return pathInfo != null ? context.getRealPath(pathInfo) : null;
+    }
+
+    @Override
+    public String getProtocol() {
+        return exchange.getProtocol();
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getServerName() {
+        String host = getHeader("Host");
+        if (host == null) {
+            return getLocalName();
+        }
+        int colon = host.lastIndexOf(':');
+        return colon > 0 && host.indexOf(']') < colon ? host.substring(0, colon) : host;
+    }
+
+    @Override
+    public int getServerPort() {
+        return getLocalPort();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        InetSocketAddress address = exchange.getRemoteAddress();
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return getRemoteAddr();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return exchange.getRemoteAddress().getPort();
+    }
+
+    @Override
+    public String getLocalName() {
+        return exchange.getLocalAddress().getHostString();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        InetSocketAddress address = exchange.getLocalAddress();
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return exchange.getLocalAddress().getPort();
+    }
+
+    @Override
+    public Locale getLocale() {
+        String language = getHeader("Accept-Language");
+        if (language == null || language.isEmpty()) {
+            return Locale.getDefault();
+        }
+        int end = language.indexOf(',');
+        String first = end >= 0 ? language.substring(0, end) : language;
+        int quality = first.indexOf(';');
+        return Locale.forLanguageTag((quality >= 0 ? first.substring(0, quality) : first).trim());
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(getLocale()));
+    }
+
+    // Attributs
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    // Asynchrone
+
+    @Override
+    public AsyncContext startAsync() {
+        return startAsync(this, response);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        if (asyncContext != null && !asyncContext.isCompleted()) {
+            throw new IllegalStateException("Traitement asynchrone déjà démarré");
+        }
+        asyncContext = new ServerAsyncContext(servletRequest, servletResponse,
+                servletRequest == this && servletResponse == response);
+        return asyncContext;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null && !asyncContext.isCompleted();
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Traitement asynchrone non démarré");
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return asyncContext != null ? DispatcherType.ASYNC : DispatcherType.REQUEST;
+    }
+
+    // Divers
+
+    @Override
+    public ServletContext getServletContext() {
+        return context;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return context.getRequestDispatcher(path);
+    }
+
+    @Override
+    public String getRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        String id = Integer.toHexString(System.identityHashCode(exchange.getHttpContext()))
+                + ":" + exchange.getRemoteAddress();
+        return new ServletConnection() {
+            @Override
+            public String getConnectionId() {
+                return id;
+            }
+
+            @Override
+            public String getProtocol() {
+                return exchange.getProtocol();
+            }
+
+            @Override
+            public String getProtocolConnectionId() {
+                return "";
+            }
+
+            @Override
+            public boolean isSecure() {
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new UnsupportedOperationException("Sessions non gérées par le serveur embarqué");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("Aucune session");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        return false;
+    }
+
+    @Override
+    public void login(String username, String password) throws ServletException {
+        throw new ServletException("Authentification non gérée par le serveur embarqué");
+    }
+
+    @Override
+    public void logout() {
+    }
+
+    @Override
+    public Collection<Part> getParts() throws ServletException {
+        throw new ServletException("Multipart non géré par le serveur embarqué");
+    }
+
+    @Override
+    public Part getPart(String name) throws ServletException {
+        throw new ServletException("Multipart non géré par le serveur embarqué");
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws ServletException {
+        throw new ServletException("Upgrade non géré par le serveur embarqué");
+    }
+}
@@ -0,0 +1,441 @@
+package mg.framework.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HttpServletResponse au-dessus d'un {@link HttpExchange}. Le corps est
+ * tamponné (8 Ko par défaut) : une réponse qui tient dans le tampon part avec
+ * un Content-Length exact, sinon en chunked dès que le tampon déborde.
+ */
+public class ExchangeResponse implements HttpServletResponse {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final HttpExchange exchange;
+    private final boolean head;
+    private final Headers headers;
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding;
+    private long contentLength = -1;
+    private Locale locale = Locale.getDefault();
+    private byte[] buffer = new byte[8192];
+    private int count;
+    private boolean committed;
+    private boolean closed;
+    private boolean bodyless;
+    private OutputStream body;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public ExchangeResponse(HttpExchange exchange, String defaultEncoding) {
+        this.exchange = exchange;
+        this.head = "HEAD".equals(exchange.getRequestMethod());
+        this.headers = exchange.getResponseHeaders();
+        this.characterEncoding = defaultEncoding;
+    }
+
+    // Corps
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé");
+        }
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    ExchangeResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    ExchangeResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    flushBuffer();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Écriture non bloquante non gérée");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() a déjà été appelé");
+        }
+        if (writer == null) {
+            if (characterEncoding == null) {
+                characterEncoding = StandardCharsets.ISO_8859_1.name();
+            }
+            OutputStream raw = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    ExchangeResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    ExchangeResponse.this.write(b, off, len);
+                }
+            };
+            writer = new PrintWriter(new OutputStreamWriter(raw, Charset.forName(characterEncoding)), false);
+        }
+        return writer;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            return;
+        }
+        if (!committed && count + length <= buffer.length) {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+            return;
+        }
+        commit(false);
+        if (!bodyless) {
+            body.write(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Envoie la ligne de statut et les en-têtes, puis le tampon.
+     *
+     * @param last vrai si la réponse est complète : la longueur est alors connue
+     */
+    private void commit(boolean last) throws IOException {
+        if (committed) {
+            return;
+        }
+        committed = true;
+        if (contentType != null) {
+            String type = contentType;
+            if (characterEncoding != null && type.startsWith("text/") && !type.contains("charset=")) {
+                type += ";charset=" + characterEncoding;
+            }
+            headers.set("Content-Type", type);
+        }
+        long length;
+        // HEAD, 1xx, 204 et 304 : le JDK ne fournit pas de flux de corps
+        bodyless = head || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status < 200;
+        if (bodyless && !head) {
+            length = -1;
+        } else if (head) {
+            // HEAD : pas de corps, mais un Content-Length annoncé si connu
+            long known = contentLength >= 0 ? contentLength : last ? count : -1;
+            if (known >= 0) {
+                headers.set("Content-Length", Long.toString(known));
+            }
+            length = -1;
+        } else if (last) {
+            length = count == 0 ? -1 : count;
+        } else {
+            length = contentLength >= 0 ? contentLength : 0;
+        }
+        exchange.sendResponseHeaders(status, length);
+        body = exchange.getResponseBody();
+        if (count > 0 && !bodyless && length != -1) {
+            body.write(buffer, 0, count);
+        }
+        count = 0;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        commit(false);
+        if (!bodyless) {
+            body.flush();
+        }
+    }
+
+    /** Termine la réponse : envoi du tampon restant et fermeture du corps. */
+    void finish() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        commit(true);
+        closed = true;
+        // Sans corps, l'échange est fermé par le serveur
+        if (!bodyless) {
+            body.close();
+        }
+    }
+
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (committed || count > 0) {
+            throw new IllegalStateException("Contenu déjà écrit");
+        }
+        buffer = new byte[Math.max(size, 512)];
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Réponse déjà envoyée");
+        }
+        count = 0;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        contentLength = -1;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    // Statut et erreurs
+
+    @Override
+    public void setStatus(int sc) {
+        if (!committed) {
+            this.status = sc;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Réponse déjà envoyée");
+        }
+        resetBuffer();
+        status = sc;
+        contentLength = -1;
+        contentType = "text/plain";
+        characterEncoding = StandardCharsets.UTF_8.name();
+        byte[] text = (sc + (msg != null ? " " + msg : "") + "\n").getBytes(StandardCharsets.UTF_8);
+        // Contourne writer/outputStream : sendError est autorisé après getWriter()
+        System.arraycopy(text, 0, buffer, 0, Math.min(text.length, buffer.length));
+        count = Math.min(text.length, buffer.length);
+        finish();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Réponse déjà envoyée");
+        }
+        resetBuffer();
+        status = SC_FOUND;
+        headers.set("Location", location);
+        finish();
+    }
+
+    // En-têtes
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) {
+            return;
+        }
+        this.contentType = type;
+        String charset = ExchangeRequest.charsetParameter(type);
+        if (charset != null) {
+            this.characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (!committed && writer == null) {
+            this.characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!committed) {
+            this.contentLength = len;
+        }
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        this.locale = loc;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        StringBuilder header = new StringBuilder(cookie.getName()).append('=').append(cookie.getValue());
+        if (cookie.getPath() != null) {
+            header.append("; Path=").append(cookie.getPath());
+        }
+        if (cookie.getDomain() != null) {
+            header.append("; Domain=").append(cookie.getDomain());
+        }
+        if (cookie.getMaxAge() >= 0) {
+            header.append("; Max-Age=").append(cookie.getMaxAge());
+        }
+        if (cookie.getSecure()) {
+            header.append("; Secure");
+        }
+        if (cookie.isHttpOnly()) {
+            header.append("; HttpOnly");
+        }
+        addHeader("Set-Cookie", header.toString());
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) || ("Content-Type".equalsIgnoreCase(name) && contentType != null);
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed) {
+            return;
+        }
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!committed) {
+            headers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return contentType;
+        }
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values != null ? new ArrayList<>(values) : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(headers.keySet());
+        if (contentType != null && !names.contains("Content-Type")) {
+            names.add("Content-Type");
+        }
+        return names;
+    }
+}
@@ -0,0 +1,164 @@
+package mg.framework.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+/**
+ * AsyncContext du serveur embarqué. Le thread de l'échange (virtuel si
+ * possible) attend simplement {@link #complete()} dans {@link #await()}
+ * avant de terminer la réponse ; pas de dispatch.
+ */
+class ServerAsyncContext implements AsyncContext {
+    private final ServletRequest request;
+    private final ServletResponse response;
+    private final boolean original;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final List<AsyncListener> listeners = new ArrayList<>();
+    private volatile long timeout = 30_000;
+    private ExecutorService executor;
+
+    ServerAsyncContext(ServletRequest request, ServletResponse response, boolean original) {
+        this.request = request;
+        this.response = response;
+        this.original = original;
+    }
+
+    void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    boolean isCompleted() {
+        return completion.isDone();
+    }
+
+    /**
+     * Attend la fin du traitement ; à l'expiration du délai, les listeners
+     * sont prévenus puis la requête est terminée.
+     */
+    void await() throws InterruptedException {
+        try {
+            if (timeout > 0) {
+                completion.get(timeout, TimeUnit.MILLISECONDS);
+            } else {
+                completion.get();
+            }
+        } catch (TimeoutException e) {
+            fire(Event.TIMEOUT);
+            complete();
+        } catch (ExecutionException e) {
+            // complete() ne termine jamais exceptionnellement
+        }
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return original;
+    }
+
+    @Override
+    public void dispatch() {
+        throw new UnsupportedOperationException("dispatch() non géré par le serveur embarqué");
+    }
+
+    @Override
+    public void dispatch(String path) {
+        dispatch();
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        dispatch();
+    }
+
+    @Override
+    public void complete() {
+        if (completion.complete(null)) {
+            fire(Event.COMPLETE);
+        }
+    }
+
+    @Override
+    public void start(Runnable run) {
+        if (executor != null) {
+            executor.execute(run);
+        } else {
+            new Thread(run, "mg-async").start();
+        }
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        synchronized (listeners) {
+            listeners.add(listener);
+        }
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        addListener(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException("Impossible de créer " + clazz.getName(), e);
+        }
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    private enum Event { COMPLETE, TIMEOUT }
+
+    private void fire(Event type) {
+        List<AsyncListener> snapshot;
+        synchronized (listeners) {
+            snapshot = new ArrayList<>(listeners);
+        }
+        AsyncEvent event = new AsyncEvent(this, request, response);
+        for (AsyncListener listener : snapshot) {
+            try {
+                if (type == Event.COMPLETE) {
+                    listener.onComplete(event);
+                } else {
+                    listener.onTimeout(event);
+                }
+            } catch (IOException e) {
+                // un listener défaillant n'empêche pas la fin de la requête
+            }
+        }
+    }
+}
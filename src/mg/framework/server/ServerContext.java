@@ -0,0 +1,378 @@
+package mg.framework.server;
+
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.EventListener;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import jakarta.servlet.SessionCookieConfig;
+import jakarta.servlet.SessionTrackingMode;
+import jakarta.servlet.descriptor.JspConfigDescriptor;
+
+/**
+ * ServletContext minimal du serveur embarqué : paramètres, attributs et
+ * ressources. Les ressources sont cherchées sous {@code documentRoot} s'il
+ * est défini, sinon dans le classpath. Pas de JSP, de sessions ni
+ * d'enregistrement dynamique de servlets ou de filtres.
+ */
+public class ServerContext implements ServletContext {
+    private static final Logger LOG = LoggerFactory.getLogger(ServerContext.class);
+
+    private final String contextPath;
+    private final Path documentRoot;
+    private final Map<String, String> initParameters;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final ClassLoader classLoader;
+    private volatile String requestCharacterEncoding;
+    private volatile String responseCharacterEncoding;
+
+    public ServerContext(String contextPath, Path documentRoot, Map<String, String> initParameters) {
+        this.contextPath = contextPath;
+        this.documentRoot = documentRoot;
+        this.initParameters = new ConcurrentHashMap<>(initParameters);
+        this.classLoader = Thread.currentThread().getContextClassLoader() != null
+                ? Thread.currentThread().getContextClassLoader()
+                : ServerContext.class.getClassLoader();
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public ServletContext getContext(String uripath) {
+        return uripath.startsWith(contextPath) ? this : null;
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 6;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public int getEffectiveMajorVersion() {
+        return 6;
+    }
+
+    @Override
+    public int getEffectiveMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public String getMimeType(String file) {
+        return URLConnection.guessContentTypeFromName(file);
+    }
+
+    @Override
+    public Set<String> getResourcePaths(String path) {
+        Path directory = resolve(path);
+        if (directory == null || !Files.isDirectory(directory)) {
+            return null;
+        }
+        String prefix = path.endsWith("/") ? path : path + "/";
+        Set<String> paths = new HashSet<>();
+        try (Stream<Path> children = Files.list(directory)) {
+            children.forEach(child -> paths.add(prefix + child.getFileName()
+                    + (Files.isDirectory(child) ? "/" : "")));
+        } catch (IOException e) {
+            return null;
+        }
+        return paths;
+    }
+
+    @Override
+    public URL getResource(String path) throws MalformedURLException {
+        if (path == null || !path.startsWith("/")) {
+            throw new MalformedURLException("Le chemin doit commencer par '/': " + path);
+        }
+        if (documentRoot != null) {
+            Path file = resolve(path);
+            return file != null && Files.exists(file) ? file.toUri().toURL() : null;
+        }
+        return classLoader.getResource(path.substring(1));
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        try {
+            URL url = getResource(path);
+            return url != null ? url.openStream() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Fichier sous documentRoot, ou null si le chemin en sort. */
+    Path resolve(String path) {
+        if (documentRoot == null) {
+            return null;
+        }
+        Path file = documentRoot.resolve(path.substring(1)).normalize();
+        return file.startsWith(documentRoot) ? file : null;
+    }
+
+    /**
+     * Pas de transfert ni d'inclusion, donc pas de JSP : une vue du serveur
+     * embarqué est un template (voir TemplateViewResolver).
+     */
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        throw new UnsupportedOperationException("Transfert vers " + path
+                + " impossible dans le serveur embarqué (pas de JSP) : utiliser un template");
+    }
+
+    @Override
+    public RequestDispatcher getNamedDispatcher(String name) {
+        throw new UnsupportedOperationException("Transfert vers la servlet " + name
+                + " impossible dans le serveur embarqué");
+    }
+
+    @Override
+    public void log(String msg) {
+        LOG.info(msg);
+    }
+
+    @Override
+    public void log(String message, Throwable throwable) {
+        LOG.error(message, throwable);
+    }
+
+    @Override
+    public String getRealPath(String path) {
+        Path file = resolve(path);
+        return file != null ? file.toString() : null;
+    }
+
+    @Override
+    public String getServerInfo() {
+        return "mg-framework-embedded/1.0";
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameters.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameters.keySet());
+    }
+
+    @Override
+    public boolean setInitParameter(String name, String value) {
+        return initParameters.putIfAbsent(name, value) == null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object object) {
+        if (object == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, object);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public String getServletContextName() {
+        return contextPath.isEmpty() ? "ROOT" : contextPath.substring(1);
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, String className) {
+        throw unsupported();
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) {
+        throw unsupported();
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) {
+        throw unsupported();
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addJspFile(String servletName, String jspFile) {
+        throw unsupported();
+    }
+
+    @Override
+    public <T extends Servlet> T createServlet(Class<T> clazz) {
+        throw unsupported();
+    }
+
+    @Override
+    public ServletRegistration getServletRegistration(String servletName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends ServletRegistration> getServletRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, String className) {
+        throw unsupported();
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) {
+        throw unsupported();
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) {
+        throw unsupported();
+    }
+
+    @Override
+    public <T extends Filter> T createFilter(Class<T> clazz) {
+        throw unsupported();
+    }
+
+    @Override
+    public FilterRegistration getFilterRegistration(String filterName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends FilterRegistration> getFilterRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public SessionCookieConfig getSessionCookieConfig() {
+        return null;
+    }
+
+    @Override
+    public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {
+        throw unsupported();
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getDefaultSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void addListener(String className) {
+        throw unsupported();
+    }
+
+    @Override
+    public <T extends EventListener> void addListener(T t) {
+        throw unsupported();
+    }
+
+    @Override
+    public void addListener(Class<? extends EventListener> listenerClass) {
+        throw unsupported();
+    }
+
+    @Override
+    public <T extends EventListener> T createListener(Class<T> clazz) {
+        throw unsupported();
+    }
+
+    @Override
+    public JspConfigDescriptor getJspConfigDescriptor() {
+        return null;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public void declareRoles(String... roleNames) {
+    }
+
+    @Override
+    public String getVirtualServerName() {
+        return "localhost";
+    }
+
+    @Override
+    public int getSessionTimeout() {
+        return 0;
+    }
+
+    @Override
+    public void setSessionTimeout(int sessionTimeout) {
+    }
+
+    @Override
+    public String getRequestCharacterEncoding() {
+        return requestCharacterEncoding;
+    }
+
+    @Override
+    public void setRequestCharacterEncoding(String encoding) {
+        this.requestCharacterEncoding = encoding;
+    }
+
+    @Override
+    public String getResponseCharacterEncoding() {
+        return responseCharacterEncoding;
+    }
+
+    @Override
+    public void setResponseCharacterEncoding(String encoding) {
+        this.responseCharacterEncoding = encoding;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Non géré par le serveur embarqué");
+    }
+}
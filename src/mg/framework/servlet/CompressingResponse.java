@@ -0,0 +1,367 @@
+package mg.framework.servlet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée en gzip à la volée.
+ *
+ * Les premiers octets sont gardés jusqu'à {@code threshold} : un corps plus
+ * petit, un type déjà compressé (images, archives, polices woff...), un
+ * Content-Encoding déjà fixé ou un statut sans corps partent tels quels.
+ * Les Deflater sont réutilisés via un pool partagé, vidé par
+ * {@link #clearPool()} à l'arrêt de l'application. {@link #finish()} doit
+ * être appelé une fois la réponse écrite, {@link #abort()} si elle échoue.
+ */
+public class CompressingResponse extends HttpServletResponseWrapper {
+    private static final BlockingQueue<Gzip> POOL = new ArrayBlockingQueue<>(64);
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int UNDECIDED = 0;
+    private static final int PLAIN = 1;
+    private static final int GZIP = 2;
+    private static final int DONE = 3;
+
+    private final boolean acceptsGzip;
+    private final int threshold;
+    private final int level;
+    private byte[] pending;
+    private int count;
+    private int state = UNDECIDED;
+    private long contentLength = -1;
+    private OutputStream target;
+    private Gzip gzip;
+    private ServletOutputStream body;
+    private boolean streamUsed;
+    private PrintWriter writer;
+
+    public CompressingResponse(HttpServletResponse response, boolean acceptsGzip, int threshold, int level) {
+        super(response);
+        this.acceptsGzip = acceptsGzip;
+        this.threshold = Math.max(threshold, 1);
+        this.level = level;
+    }
+
+    /** Vrai si le type de contenu vaut la peine d'être compressé. */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("image/")) {
+            return type.startsWith("image/svg");
+        }
+        return !(type.startsWith("video/") || type.startsWith("audio/") || type.startsWith("font/woff")
+                || type.contains("zip") || type.contains("compressed") || type.contains("octet-stream")
+                || type.startsWith("application/pdf") || type.startsWith("text/event-stream"));
+    }
+
+    /**
+     * Termine le flux : corps gardé en tampon envoyé tel quel, ou fin du flux
+     * gzip. Sans effet si rien n'a été écrit.
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == UNDECIDED) {
+            if (count == 0) {
+                return;
+            }
+            decide(true);
+        }
+        if (state == GZIP) {
+            try {
+                Deflater deflater = gzip.deflater;
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+                long crc = gzip.crc.getValue();
+                long size = deflater.getBytesRead();
+                byte[] trailer = {
+                        (byte) crc, (byte) (crc >> 8), (byte) (crc >> 16), (byte) (crc >> 24),
+                        (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)};
+                target.write(trailer);
+            } finally {
+                release();
+            }
+        }
+        state = DONE;
+    }
+
+    /**
+     * Abandonne la réponse après une erreur : le Deflater éventuellement pris
+     * retourne au pool sans que le flux gzip soit terminé.
+     */
+    public void abort() {
+        if (gzip != null) {
+            release();
+        }
+        state = DONE;
+    }
+
+    /** Libère la mémoire native des Deflater gardés en réserve. */
+    public static void clearPool() {
+        Gzip gzip;
+        while ((gzip = POOL.poll()) != null) {
+            gzip.deflater.end();
+        }
+    }
+
+    /** Nombre de Deflater en réserve. */
+    static int pooled() {
+        return POOL.size();
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        switch (state) {
+            case UNDECIDED:
+                if (count + length <= threshold) {
+                    if (pending == null) {
+                        pending = new byte[threshold];
+                    }
+                    System.arraycopy(bytes, offset, pending, count, length);
+                    count += length;
+                    return;
+                }
+                decide(false);
+                write(bytes, offset, length);
+                return;
+            case PLAIN:
+                target.write(bytes, offset, length);
+                return;
+            case GZIP:
+                gzip.crc.update(bytes, offset, length);
+                gzip.deflater.setInput(bytes, offset, length);
+                while (!gzip.deflater.needsInput()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+                return;
+            default:
+                throw new IOException("Réponse déjà terminée");
+        }
+    }
+
+    private void flush() throws IOException {
+        // Tant que le seuil n'est pas atteint, le tampon est gardé
+        if (state == GZIP) {
+            drain(Deflater.SYNC_FLUSH);
+            target.flush();
+        } else if (state == PLAIN) {
+            target.flush();
+        }
+    }
+
+    /**
+     * Choisit entre gzip et envoi direct, puis vide le tampon.
+     *
+     * @param last vrai si le tampon contient tout le corps
+     */
+    private void decide(boolean last) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        int status = response.getStatus();
+        boolean eligible = status >= 200 && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED
+                && status != SC_PARTIAL_CONTENT && !response.containsHeader("Content-Encoding")
+                && isCompressible(response.getContentType());
+        if (eligible) {
+            response.addHeader("Vary", "Accept-Encoding");
+        }
+        long length = contentLength >= 0 ? contentLength : last ? count : -1;
+        target = response.getOutputStream();
+
+        if (eligible && acceptsGzip && (length < 0 || length >= threshold)) {
+            state = GZIP;
+            response.setHeader("Content-Encoding", "gzip");
+            String etag = response.getHeader("ETag");
+            if (etag != null && !etag.startsWith("W/")) {
+                response.setHeader("ETag", "W/" + etag);
+            }
+            gzip = acquire(level);
+            target.write(GZIP_HEADER);
+        } else {
+            state = PLAIN;
+            if (length >= 0) {
+                response.setContentLengthLong(length);
+            }
+        }
+        if (count > 0) {
+            int buffered = count;
+            count = 0;
+            write(pending, 0, buffered);
+        }
+    }
+
+    private void drain(int flush) throws IOException {
+        byte[] buffer = gzip.buffer;
+        int n;
+        while ((n = gzip.deflater.deflate(buffer, 0, buffer.length, flush)) > 0) {
+            target.write(buffer, 0, n);
+            if (n < buffer.length) {
+                break;
+            }
+        }
+    }
+
+    private static Gzip acquire(int level) {
+        Gzip gzip = POOL.poll();
+        if (gzip == null) {
+            gzip = new Gzip();
+        }
+        gzip.deflater.setLevel(level);
+        return gzip;
+    }
+
+    /**
+     * Remet le Deflater dans le pool, ou libère sa mémoire native si le pool
+     * est plein. Le pool n'est lié à aucun thread : un thread du conteneur ne
+     * retient pas le classloader de l'application après son arrêt.
+     */
+    private void release() {
+        Gzip gzip = this.gzip;
+        this.gzip = null;
+        gzip.deflater.reset();
+        gzip.crc.reset();
+        if (!POOL.offer(gzip)) {
+            gzip.deflater.end();
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == UNDECIDED) {
+            contentLength = len;
+        } else if (state == PLAIN) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        state = DONE;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        state = DONE;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        state = DONE;
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flush();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (state == UNDECIDED) {
+            count = 0;
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (state == UNDECIDED) {
+            count = 0;
+            contentLength = -1;
+        }
+        super.reset();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé");
+        }
+        streamUsed = true;
+        return body();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (streamUsed) {
+            throw new IllegalStateException("getOutputStream() a déjà été appelé");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    private ServletOutputStream body() {
+        if (body == null) {
+            body = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    CompressingResponse.this.write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CompressingResponse.this.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        return body;
+    }
+
+    /** Deflater brut, CRC et tampon de sortie réutilisés ensemble. */
+    private static final class Gzip {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[8192];
+    }
+}
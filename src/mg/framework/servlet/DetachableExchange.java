@@ -0,0 +1,281 @@
+package mg.framework.servlet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requête et réponse confiées à un handler qui peut survivre à la réponse
+ * (délai dépassé, timeout ou erreur du conteneur). Après {@link #disconnect()},
+ * tout accès lève IllegalStateException : le conteneur peut recycler ses
+ * objets sans qu'un handler en retard lise la requête ou écrive dans la
+ * réponse d'un autre client. Les flux obtenus avant la déconnexion sont
+ * coupés de la même façon.
+ *
+ * Chaque appel est fait sous un verrou non disputé ; {@link #disconnect()}
+ * attend la fin de l'appel en cours.
+ */
+final class DetachableExchange {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private volatile boolean connected = true;
+
+    DetachableExchange(HttpServletRequest request, HttpServletResponse response) {
+        this.request = proxy(HttpServletRequest.class, request);
+        this.response = proxy(HttpServletResponse.class, response);
+    }
+
+    HttpServletRequest getRequest() {
+        return request;
+    }
+
+    HttpServletResponse getResponse() {
+        return response;
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    /** Coupe l'accès du handler, après l'appel éventuellement en cours. */
+    void disconnect() {
+        lock.lock();
+        try {
+            connected = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T proxy(Class<T> type, Object target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return object(proxy, method, args);
+                    }
+                    return guard(call(target, method, args));
+                }));
+    }
+
+    private Object call(Object target, Method method, Object[] args) throws Throwable {
+        lock.lock();
+        try {
+            checkConnected();
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkConnected() {
+        if (!connected) {
+            throw new IllegalStateException("Requête terminée : accès refusé au handler");
+        }
+    }
+
+    private static Object object(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "DetachableExchange@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
+
+    /** Flux et lecteurs retournés par la requête ou la réponse, coupés eux aussi. */
+    private Object guard(Object value) {
+        if (value instanceof ServletOutputStream) {
+            return new Output((ServletOutputStream) value);
+        }
+        if (value instanceof PrintWriter) {
+            return new PrintWriter(new WriterTarget((PrintWriter) value));
+        }
+        if (value instanceof ServletInputStream) {
+            return new Input((ServletInputStream) value);
+        }
+        if (value instanceof BufferedReader) {
+            return new BufferedReader(new ReaderTarget((BufferedReader) value));
+        }
+        return value;
+    }
+
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    private interface IORead {
+        int read() throws IOException;
+    }
+
+    private void locked(IOAction action) throws IOException {
+        lock.lock();
+        try {
+            checkConnected();
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int lockedRead(IORead read) throws IOException {
+        lock.lock();
+        try {
+            checkConnected();
+            return read.read();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Output extends ServletOutputStream {
+        private final ServletOutputStream target;
+
+        Output(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            locked(() -> target.write(b));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            locked(() -> target.write(b, off, len));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            locked(target::flush);
+        }
+
+        @Override
+        public void close() throws IOException {
+            locked(target::close);
+        }
+
+        @Override
+        public boolean isReady() {
+            return connected && target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            lock.lock();
+            try {
+                checkConnected();
+                target.setWriteListener(listener);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final class Input extends ServletInputStream {
+        private final ServletInputStream target;
+
+        Input(ServletInputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return lockedRead(target::read);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return lockedRead(() -> target.read(b, off, len));
+        }
+
+        @Override
+        public void close() throws IOException {
+            locked(target::close);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return !connected || target.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return connected && target.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            lock.lock();
+            try {
+                checkConnected();
+                target.setReadListener(listener);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final class WriterTarget extends Writer {
+        private final PrintWriter target;
+
+        WriterTarget(PrintWriter target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            locked(() -> target.write(cbuf, off, len));
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            locked(() -> target.write(str, off, len));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            locked(target::flush);
+        }
+
+        @Override
+        public void close() throws IOException {
+            locked(target::close);
+        }
+    }
+
+    private final class ReaderTarget extends Reader {
+        private final BufferedReader target;
+
+        ReaderTarget(BufferedReader target) {
+            this.target = target;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return lockedRead(() -> target.read(cbuf, off, len));
+        }
+
+        @Override
+        public void close() throws IOException {
+            locked(target::close);
+        }
+    }
+}
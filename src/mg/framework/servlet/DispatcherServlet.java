@@ -1,24 +1,92 @@
 package mg.framework.servlet;
 
 import mg.framework.annotation.*;
+import mg.framework.core.ClassPathScanner;
+import mg.framework.core.Container;
 import mg.framework.core.ControllerMapping;
+import mg.framework.core.DeadlineExceededException;
+import mg.framework.core.InstanceUnavailableException;
+import mg.framework.core.HandlerInterceptor;
+import mg.framework.core.InterceptorRegistration;
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.InstanceProvider;
+import mg.framework.core.ModelBinder;
+import mg.framework.core.RequestContext;
+import mg.framework.core.RouteIndex;
+import mg.framework.core.RouteMatch;
+import mg.framework.core.Router;
+import mg.framework.json.Json;
+import mg.framework.limit.ConcurrencyLimiter;
+import mg.framework.limit.RateLimiter;
+import mg.framework.metrics.MetricsRegistry;
+import mg.framework.multipart.MultipartConfig;
+import mg.framework.multipart.MultipartException;
+import mg.framework.multipart.MultipartHttpServletRequest;
+import mg.framework.multipart.MultipartParser;
+import mg.framework.multipart.MultipartRequest;
+import mg.framework.resource.StaticResourceHandler;
+import mg.framework.view.CompositeViewResolver;
+import mg.framework.view.InternalResourceViewResolver;
+import mg.framework.view.ResponseBuffer;
+import mg.framework.view.TemplateViewResolver;
+import mg.framework.view.View;
+import mg.framework.view.ViewResolver;
+import mg.framework.log.Logger;
+import mg.framework.log.LoggerFactory;
+import servlet.ModelView;
 
 
-import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public class DispatcherServlet extends HttpServlet {
-    private Map<String, ControllerMapping> urlMappings = new HashMap<>();
+    private static final Logger LOG = LoggerFactory.getLogger(DispatcherServlet.class);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    private Router<ControllerMapping> urlMappings = new Router<>();
+    private ConverterRegistry converters = new ConverterRegistry();
+    private ModelBinder modelBinder = new ModelBinder(converters);
+    private ViewResolver viewResolver;
+    private ExecutorService asyncExecutor;
+    private ResponseCache responseCache;
+    private RequestCoalescer coalescer = new RequestCoalescer();
+    private MultipartParser multipartParser;
+    private StaticResourceHandler staticResources;
+    private int compressionThreshold;
+    private int compressionLevel;
+    private long requestTimeout;
+    private long asyncTimeout;
+    private ScheduledThreadPoolExecutor deadlineTimer;
+    private Container container = new Container();
+    private List<InterceptorRegistration> interceptors = new ArrayList<>();
+    private MetricsRegistry metrics;
+    private String metricsPath;
 
     @Override
     public void init() throws ServletException {
@@ -28,153 +96,915 @@ public class DispatcherServlet extends HttpServlet {
         }
 
         try {
+            viewResolver = createViewResolver();
+            asyncExecutor = createAsyncExecutor();
+            responseCache = createResponseCache();
+            multipartParser = createMultipartParser();
+            staticResources = createStaticResourceHandler();
+            // Compression gzip des réponses : compression (true), compressionThreshold
+            // (octets, 1024) et compressionLevel (1 à 9, 6 par défaut)
+            compressionThreshold = Boolean.parseBoolean(getInitParameter("compression", "true"))
+                    ? Integer.parseInt(getInitParameter("compressionThreshold", "1024")) : -1;
+            compressionLevel = Integer.parseInt(getInitParameter("compressionLevel", "6"));
+            // Délai par défaut des routes sans @Timeout (ms, 0 = aucun) ; la
+            // servlet doit alors être asyncSupported
+            requestTimeout = Long.parseLong(getInitParameter("requestTimeout", "0"));
+            // Délai du conteneur pour les réponses asynchrones sans échéance (ms, 0 = aucun)
+            asyncTimeout = Long.parseLong(getInitParameter("asyncTimeout", "30000"));
+            deadlineTimer = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "mg-deadline");
+                thread.setDaemon(true);
+                return thread;
+            });
+            deadlineTimer.setRemoveOnCancelPolicy(true);
+            metrics = new MetricsRegistry(getServletName());
+            // Désactivé par défaut : l'URL des métriques ne passe pas par les intercepteurs
+            metricsPath = getInitParameter("metricsPath", "");
+            registerConverters(converters);
+            container.registerInstance(ServletContext.class, getServletContext());
             scanControllers(packageToScan);
+            LoggerFactory.retain();
         } catch (Exception e) {
             throw new ServletException("Erreur lors du scan des contrôleurs" + e.getMessage(), e);
         }
     }
 
-    private void scanControllers(String basePackage) throws Exception {
-        // Utiliser le classloader de la servlet au lieu du thread
-        ClassLoader classLoader = this.getClass().getClassLoader();
-        String path = basePackage.replace('.', '/');
-        URL resource = classLoader.getResource(path);
+    /**
+     * Résolveur des vues retournées sous forme de ModelView. Par défaut, un
+     * template compilé {@code viewPrefix + vue + templateSuffix} s'il existe,
+     * sinon transfert vers la JSP {@code viewPrefix + vue + viewSuffix}.
+     * Paramètres d'initialisation : viewPrefix ("/WEB-INF/views/"),
+     * viewSuffix (".jsp"), templateSuffix (".html"), devMode (false) et
+     * templateCheckInterval (2000 ms, en mode développement uniquement).
+     */
+    protected ViewResolver createViewResolver() throws Exception {
+        String prefix = getInitParameter("viewPrefix", "/WEB-INF/views/");
+        String suffix = getInitParameter("viewSuffix", ".jsp");
+        String templateSuffix = getInitParameter("templateSuffix", ".html");
+        boolean devMode = Boolean.parseBoolean(getInitParameter("devMode", "false"));
+        long checkInterval = Long.parseLong(getInitParameter("templateCheckInterval", "2000"));
 
-        if (resource == null) {
-            System.out.println("Package non trouvé: " + basePackage);
-            return;
+        return new CompositeViewResolver(
+                new TemplateViewResolver(getServletContext(), prefix, templateSuffix, devMode, checkInterval),
+                new InternalResourceViewResolver(prefix, suffix));
+    }
+
+    /**
+     * Exécuteur des handlers asynchrones : un thread virtuel par tâche quand
+     * la JVM le permet (Java 21+), sinon un pool de threads démons.
+     */
+    protected ExecutorService createAsyncExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "mg-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+    }
+
+    /**
+     * Cache des routes {@link Cacheable}, borné par le paramètre
+     * d'initialisation responseCacheSize (octets, 16 Mo par défaut).
+     */
+    protected ResponseCache createResponseCache() {
+        return new ResponseCache(Long.parseLong(getInitParameter("responseCacheSize", String.valueOf(16L << 20))));
+    }
 
-        File directory = new File(resource.getFile());
-        if (directory.exists()) {
-            scanDirectory(directory, basePackage, classLoader);
+    /**
+     * Parseur des formulaires multipart/form-data. Paramètres d'initialisation :
+     * multipartThreshold (octets gardés en mémoire par fichier, 64 Ko),
+     * multipartMaxFileSize et multipartMaxRequestSize (10 et 50 Mo, -1 = sans
+     * limite) et multipartLocation (répertoire temporaire de la JVM par défaut).
+     * La servlet ne doit pas déclarer de multipart-config.
+     */
+    protected MultipartParser createMultipartParser() {
+        MultipartConfig config = new MultipartConfig();
+        config.setMemoryThreshold(Integer.parseInt(getInitParameter("multipartThreshold", String.valueOf(64 * 1024))));
+        config.setMaxFileSize(Long.parseLong(getInitParameter("multipartMaxFileSize",
+                String.valueOf(MultipartConfig.DEFAULT_MAX_FILE_SIZE))));
+        config.setMaxRequestSize(Long.parseLong(getInitParameter("multipartMaxRequestSize",
+                String.valueOf(MultipartConfig.DEFAULT_MAX_REQUEST_SIZE))));
+        String location = getInitParameter("multipartLocation");
+        if (location != null && !location.isEmpty()) {
+            config.setLocation(Path.of(location));
         }
+        return new MultipartParser(config);
     }
 
-    private void scanDirectory(File directory, String packageName, ClassLoader classLoader) throws Exception {
-        File[] files = directory.listFiles();
-        if (files == null)
-            return;
+    /**
+     * Fichiers statiques servis pour les GET/HEAD sans route, ou null pour
+     * répondre 404. Désactivé par défaut : ces fichiers ne passent pas par les
+     * intercepteurs, staticLocation doit donc désigner un répertoire public
+     * (jamais la racine de l'application). Autres paramètres d'initialisation :
+     * staticCacheSize (8 Mo), staticCacheFileSize (64 Ko) et staticCacheControl.
+     */
+    protected StaticResourceHandler createStaticResourceHandler() {
+        String location = getInitParameter("staticLocation");
+        if (location == null || location.isEmpty()) {
+            return null;
+        }
+        if (!Files.isDirectory(Path.of(location))) {
+            LOG.warn("staticLocation ignoré, répertoire introuvable: {}", location);
+            return null;
+        }
+        StaticResourceHandler handler = new StaticResourceHandler(Path.of(location), getServletContext(),
+                Long.parseLong(getInitParameter("staticCacheSize", String.valueOf(8L << 20))),
+                Integer.parseInt(getInitParameter("staticCacheFileSize", String.valueOf(64 * 1024))));
+        handler.setCacheControl(getInitParameter("staticCacheControl"));
+        return handler;
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+        if (deadlineTimer != null) {
+            deadlineTimer.shutdownNow();
+        }
+        container.close();
+        if (metrics != null) {
+            metrics.close();
+        }
+        CompressingResponse.clearPool();
+        LoggerFactory.release();
+        super.destroy();
+    }
+
+    private String getInitParameter(String name, String defaultValue) {
+        String value = getInitParameter(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Conteneur des composants injectés dans les contrôleurs.
+     */
+    protected Container getContainer() {
+        return container;
+    }
+
+    /**
+     * Point d'extension pour déclarer des convertisseurs de paramètres
+     * supplémentaires, avant l'enregistrement des contrôleurs.
+     */
+    protected void registerConverters(ConverterRegistry registry) {
+    }
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                scanDirectory(file, packageName + "." + file.getName(), classLoader);
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
+    /**
+     * Point d'extension pour ajouter des intercepteurs par code, après ceux
+     * déclarés comme composants ou dans le paramètre interceptors.
+     */
+    protected void registerInterceptors(List<InterceptorRegistration> registrations) {
+    }
+
+    private void scanControllers(String basePackage) throws Exception {
+        // Utiliser le classloader de la servlet au lieu du thread
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        List<Class<?>> controllers = new ArrayList<>();
+
+        // Index généré à la compilation : pas de parcours du classpath, sauf
+        // si aucun index ne couvre le package (index d'une bibliothèque)
+        RouteIndex index = RouteIndex.load(classLoader);
+        if (index != null && index.covers(basePackage)) {
+            for (String className : index.getComponents(basePackage)) {
+                Class<?> clazz = loadIndexed(classLoader, className, Component.class);
+                if (clazz != null) {
+                    container.register(clazz);
+                }
+            }
+            for (String className : index.getControllers(basePackage)) {
+                Class<?> clazz = loadIndexed(classLoader, className, Controller.class);
+                if (clazz != null) {
+                    controllers.add(clazz);
+                }
+            }
+        } else {
+            // Pré-filtrage sur le bytecode : seules les classes candidates sont chargées
+            ClassPathScanner scanner = new ClassPathScanner(classLoader, Controller.class, Component.class);
+            List<String> candidates = scanner.scan(basePackage);
+            if (candidates.isEmpty()) {
+                LOG.warn("Aucun contrôleur trouvé dans: {}", basePackage);
+            }
+
+            for (String className : candidates) {
                 try {
                     Class<?> clazz = classLoader.loadClass(className);
 
                     if (clazz.isAnnotationPresent(Controller.class)) {
-                        registerController(clazz);
+                        controllers.add(clazz);
+                    } else if (clazz.isAnnotationPresent(Component.class)) {
+                        container.register(clazz);
                     }
                 } catch (ClassNotFoundException e) {
-                    System.err.println("Impossible de charger: " + className);
+                    LOG.error("Impossible de charger: {}", className);
                     throw e;
                 }
             }
         }
+
+        String configured = getInitParameter("interceptors");
+        if (configured != null) {
+            for (String className : configured.split(",")) {
+                if (!className.isBlank()) {
+                    container.register(classLoader.loadClass(className.trim()));
+                }
+            }
+        }
+
+        // Composants d'abord (graphe de dépendances), puis les contrôleurs
+        container.initialize();
+        for (HandlerInterceptor interceptor : container.getBeansOfType(HandlerInterceptor.class)) {
+            interceptors.add(InterceptorRegistration.of(interceptor));
+        }
+        registerInterceptors(interceptors);
+        for (Class<?> controllerClass : controllers) {
+            registerController(controllerClass);
+        }
+    }
+
+    /**
+     * Classe d'une entrée d'index, ou null si elle a disparu ou perdu son
+     * annotation depuis la génération de l'index.
+     */
+    private static Class<?> loadIndexed(ClassLoader classLoader, String className,
+            Class<? extends Annotation> annotation) {
+        try {
+            Class<?> clazz = classLoader.loadClass(className);
+            if (clazz.isAnnotationPresent(annotation)) {
+                return clazz;
+            }
+        } catch (ClassNotFoundException e) {
+            // entrée périmée
+        }
+        LOG.warn("Entrée d'index ignorée: {} (@{} absent)", className, annotation.getSimpleName());
+        return null;
     }
 
     private void registerController(Class<?> controllerClass) throws Exception {
-        Object controllerInstance = controllerClass.getDeclaredConstructor().newInstance();
+        InstanceProvider controllerInstance = container.providerFor(controllerClass);
 
         for (Method method : controllerClass.getDeclaredMethods()) {
             if (method.isAnnotationPresent(GetMapping.class)) {
                 GetMapping annotation = method.getAnnotation(GetMapping.class);
                 String url = annotation.value();
-                urlMappings.put("GET:" + url, new ControllerMapping(controllerInstance, method, "GET"));
-                System.out.println("Enregistré: GET " + url + " -> " + controllerClass.getSimpleName() + "." + method.getName());
+                ControllerMapping mapping = new ControllerMapping(controllerInstance, method, "GET", url, converters, modelBinder);
+                addMapping("GET", url, mapping);
+                LOG.info("Enregistré: GET {} -> {}.{}", url, controllerClass.getSimpleName(), method.getName());
             }
 
             if (method.isAnnotationPresent(PostMapping.class)) {
                 PostMapping annotation = method.getAnnotation(PostMapping.class);
                 String url = annotation.value();
-                urlMappings.put("POST:" + url, new ControllerMapping(controllerInstance, method, "POST"));
-                System.out.println("Enregistré: POST " + url + " -> " + controllerClass.getSimpleName() + "." + method.getName());
+                ControllerMapping mapping = new ControllerMapping(controllerInstance, method, "POST", url, converters, modelBinder);
+                addMapping("POST", url, mapping);
+                LOG.info("Enregistré: POST {} -> {}.{}", url, controllerClass.getSimpleName(), method.getName());
             }
 
             if (method.isAnnotationPresent(RequestMapping.class)) {
                 RequestMapping annotation = method.getAnnotation(RequestMapping.class);
                 String url = annotation.value();
                 String httpMethod = annotation.method().name();
-                urlMappings.put(httpMethod + ":" + url, new ControllerMapping(controllerInstance, method, httpMethod));
-                System.out.println("Enregistré: " + httpMethod + " " + url + " -> " + controllerClass.getSimpleName() + "." + method.getName());
+                ControllerMapping mapping = new ControllerMapping(controllerInstance, method, httpMethod, url, converters, modelBinder);
+                addMapping(httpMethod, url, mapping);
+                LOG.info("Enregistré: {} {} -> {}", httpMethod, url, controllerClass.getSimpleName() + "." + method.getName());
             }
         }
     }
 
+    private void addMapping(String httpMethod, String url, ControllerMapping mapping) {
+        mapping.setInterceptors(InterceptorRegistration.chainFor(url, interceptors));
+        urlMappings.add(httpMethod, url, mapping);
+        metrics.register(mapping.getMetrics());
+    }
+
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        String uri = req.getRequestURI().substring(req.getContextPath().length());
+        String uri = req.getRequestURI();
+        int contextLength = req.getContextPath().length();
         String method = req.getMethod();
-        String key = method + ":" + uri;
 
-        ControllerMapping mapping = urlMappings.get(key);
+        if (isMetricsRequest(method, uri, contextLength)) {
+            writeMetrics(resp);
+            return;
+        }
 
-        if (mapping == null) {
+        RouteMatch<ControllerMapping> match = urlMappings.find(method, uri, contextLength);
+
+        if (match == null) {
+            if (staticResources != null && ("GET".equals(method) || "HEAD".equals(method))
+                    && staticResources.serve(req, resp)) {
+                return;
+            }
             resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            resp.getWriter().println("URL non trouvée: " + method + " " + uri);
+            resp.getWriter().println("URL non trouvée: " + method + " " + uri.substring(contextLength));
             return;
         }
 
+        // Limites vérifiées avant toute lecture du corps
+        ControllerMapping mapping = match.getHandler();
+        RateLimiter rateLimiter = mapping.getRateLimiter();
+        if (rateLimiter != null) {
+            long wait = rateLimiter.tryAcquire(req);
+            if (wait > 0) {
+                resp.setHeader("Retry-After", String.valueOf((wait + 999_999_999L) / 1_000_000_000L));
+                resp.sendError(SC_TOO_MANY_REQUESTS, "Trop de requêtes");
+                return;
+            }
+        }
+        ConcurrencyLimiter concurrencyLimiter = mapping.getConcurrencyLimiter();
+        if (concurrencyLimiter == null) {
+            process(match, req, resp);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            resp.setHeader("Retry-After", "1");
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Trop de requêtes simultanées");
+            return;
+        }
+        boolean async = false;
         try {
-            Object result = invokeMethod(mapping, req, resp);
+            async = process(match, req, resp);
+        } finally {
+            // En asynchrone, la place est libérée par AsyncExchange
+            if (!async) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
 
-            if (result != null) {
-                resp.setContentType("text/html;charset=UTF-8");
-                PrintWriter out = resp.getWriter();
-                out.println(result.toString());
+    /**
+     * Compression, lecture du corps multipart puis appel du contrôleur.
+     * Retourne vrai si la réponse est passée en asynchrone.
+     */
+    private boolean process(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        HttpServletResponse response = resp;
+        String method = req.getMethod();
+        if (compressionThreshold >= 0 && !"HEAD".equals(method)) {
+            response = new CompressingResponse(resp,
+                    StaticResourceHandler.accepts(req.getHeader("Accept-Encoding"), "gzip"),
+                    compressionThreshold, compressionLevel);
+        }
+
+        boolean async = false;
+        boolean completed = false;
+        try {
+            if (!MultipartParser.isMultipart(req)) {
+                async = dispatch(match, req, response);
+            } else {
+                MultipartRequest multipart;
+                try {
+                    multipart = multipartParser.parse(req);
+                } catch (MultipartException e) {
+                    resp.sendError(e.getStatus(), e.getMessage());
+                    return false;
+                }
+                HttpServletRequest wrapped = new MultipartHttpServletRequest(req, multipart);
+                try {
+                    async = dispatch(match, wrapped, response);
+                } finally {
+                    // En asynchrone, les fichiers sont supprimés par AsyncExchange
+                    if (!async) {
+                        multipart.close();
+                    }
+                }
+            }
+
+            // En asynchrone, le flux compressé est terminé par AsyncExchange
+            if (response instanceof CompressingResponse && !async) {
+                ((CompressingResponse) response).finish();
+            }
+            completed = true;
+            return async;
+        } finally {
+            // Erreur après le choix de gzip : le Deflater retourne au pool
+            if (!completed && response instanceof CompressingResponse) {
+                ((CompressingResponse) response).abort();
             }
+        }
+    }
+
+    /**
+     * Exécute la chaîne d'intercepteurs de la route autour de {@link #handle}.
+     * Les routes sans intercepteur n'ont qu'un test de longueur à payer.
+     */
+    private boolean dispatch(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        ControllerMapping mapping = match.getHandler();
+        HandlerInterceptor[] chain = mapping.getInterceptors();
+        if (chain.length == 0) {
+            return handle(match, req, resp);
+        }
+
+        int applied = 0;
+        boolean async = false;
+        Exception error = null;
+        try {
+            for (; applied < chain.length; applied++) {
+                if (!chain[applied].preHandle(req, resp, mapping)) {
+                    return false;
+                }
+            }
+            async = handle(match, req, resp);
+            return async;
+        } catch (ServletException | IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } catch (Exception e) {
+            error = e;
+            throw new ServletException("Erreur dans un intercepteur", e);
+        } finally {
+            // En asynchrone, afterCompletion est appelé par AsyncExchange
+            if (!async) {
+                afterCompletion(chain, applied, mapping, req, resp, error);
+            }
+        }
+    }
+
+    private void afterCompletion(HandlerInterceptor[] chain, int applied, ControllerMapping mapping,
+            HttpServletRequest req, HttpServletResponse resp, Exception error) {
+        for (int i = applied - 1; i >= 0; i--) {
+            try {
+                chain[i].afterCompletion(req, resp, mapping, error);
+            } catch (Exception e) {
+                LOG.error("Erreur dans afterCompletion de {}", chain[i].getClass().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Appelle le contrôleur et rend le résultat. Retourne vrai si la réponse
+     * est passée en asynchrone et sera terminée par {@link AsyncExchange#finish}.
+     */
+    private boolean handle(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        ControllerMapping mapping = match.getHandler();
+        long timeout = mapping.getTimeout() >= 0 ? mapping.getTimeout() : requestTimeout;
+        if (mapping.getCacheable() != null || mapping.getSingleFlight() != null) {
+            serveShared(match, req, resp, timeout);
+            return false;
+        }
+
+        if (timeout > 0) {
+            dispatchWithDeadline(match, req, resp, timeout);
+            return true;
+        }
+
+        if (mapping.isAsync()) {
+            dispatchAsync(match, req, resp);
+            return true;
+        }
+
+        try {
+            // Le CompletionStage peut encore utiliser la requête après la fin de la réponse
+            DetachableExchange detachable = mapping.isCompletionStage() ? new DetachableExchange(req, resp) : null;
+            Object result = detachable != null
+                    ? invokeMethod(match, detachable.getRequest(), detachable.getResponse())
+                    : invokeMethod(match, req, resp);
+            if (result instanceof CompletionStage) {
+                AsyncExchange exchange = startAsync(mapping, req, resp, asyncTimeout, detachable);
+                exchange.start();
+                exchange.complete(result);
+                return true;
+            }
+            render(mapping, result, req, resp);
+            return false;
         } catch (Exception e) {
+            if (rejectUnavailable(e, resp)) {
+                return false;
+            }
             throw new ServletException("Erreur lors de l'invocation de la méthode", e);
         }
     }
 
-    private Object invokeMethod(ControllerMapping mapping, HttpServletRequest req, HttpServletResponse resp) throws Exception {
-        Method method = mapping.getMethod();
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
+    /**
+     * Route en cache ou regroupée, rendue dans le thread du conteneur. Avec un
+     * délai, les requêtes qui attendent le rendu d'une autre abandonnent à
+     * l'échéance (503) ; celle qui rend ne peut être interrompue et vérifie
+     * l'échéance via {@link RequestContext}.
+     */
+    private void serveShared(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp,
+            long timeout) throws ServletException, IOException {
+        ControllerMapping mapping = match.getHandler();
+        RequestContext previous = null;
+        if (timeout > 0) {
+            RequestContext context = new RequestContext(timeout);
+            req.setAttribute(RequestContext.ATTRIBUTE, context);
+            previous = context.attach();
+        }
+        try {
+            if (mapping.getCacheable() != null) {
+                responseCache.serve(mapping, req, resp, capture -> renderNow(match, req, capture));
+            } else {
+                coalescer.serve(mapping, req, resp, capture -> renderNow(match, req, capture));
+            }
+        } catch (Exception e) {
+            if (!rejectUnavailable(e, resp)) {
+                throw new ServletException("Erreur lors de l'invocation de la méthode", e);
+            }
+        } finally {
+            if (timeout > 0) {
+                RequestContext.detach(previous);
+            }
+        }
+    }
 
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter param = parameters[i];
+    /**
+     * Pool de contrôleurs saturé ou délai dépassé : 503 avec Retry-After
+     * plutôt qu'une erreur 500. Retourne faux si l'erreur a une autre cause.
+     */
+    private static boolean rejectUnavailable(Throwable error, HttpServletResponse resp) throws IOException {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InstanceUnavailableException || t instanceof DeadlineExceededException) {
+                LOG.warn("Requête refusée: {}", t.getMessage());
+                if (!resp.isCommitted()) {
+                    resp.setHeader("Retry-After", "1");
+                    resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, t.getMessage());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 
-            if (param.getType() == HttpServletRequest.class) {
-                args[i] = req;
-            } else if (param.getType() == HttpServletResponse.class) {
-                args[i] = resp;
-            } else if (param.isAnnotationPresent(RequestParam.class)) {
-                RequestParam annotation = param.getAnnotation(RequestParam.class);
-                String paramName = annotation.value();
-                String paramValue = req.getParameter(paramName);
+    /**
+     * Métriques des routes, exposées en JMX et sur {@code metricsPath}.
+     */
+    protected MetricsRegistry getMetrics() {
+        return metrics;
+    }
 
-                if (paramValue == null && annotation.required()) {
-                    throw new ServletException("Paramètre obligatoire manquant: " + paramName);
+    private boolean isMetricsRequest(String method, String uri, int contextLength) {
+        return !metricsPath.isEmpty() && "GET".equals(method)
+                && uri.length() - contextLength == metricsPath.length()
+                && uri.startsWith(metricsPath, contextLength);
+    }
+
+    /**
+     * Exposition au format Prometheus sur l'URL donnée par le paramètre
+     * d'initialisation metricsPath (vide par défaut : désactivée). Cette URL
+     * est servie avant les intercepteurs : la protéger par un filtre ou la
+     * configuration du conteneur.
+     */
+    private void writeMetrics(HttpServletResponse resp) throws IOException {
+        StringBuilder text = new StringBuilder(4096);
+        metrics.writePrometheus(text);
+        resp.setContentType("text/plain;version=0.0.4;charset=UTF-8");
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append(text).writeTo(resp);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Exécute le handler sur {@link #asyncExecutor} et libère le thread du
+     * conteneur. La servlet doit être déclarée avec asyncSupported=true. Le
+     * handler reçoit une requête et une réponse coupées dès que la requête est
+     * terminée (timeout ou erreur du conteneur).
+     */
+    private void dispatchAsync(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp) {
+        DetachableExchange detachable = new DetachableExchange(req, resp);
+        AsyncExchange exchange = startAsync(match.getHandler(), req, resp, asyncTimeout, detachable);
+        asyncExecutor.execute(() -> {
+            if (!exchange.start()) {
+                return;
+            }
+            try {
+                exchange.complete(invokeMethod(match, detachable.getRequest(), detachable.getResponse()));
+            } catch (Throwable t) {
+                exchange.fail(t);
+            }
+        });
+    }
+
+    /**
+     * Exécute le handler sur {@link #asyncExecutor} avec une échéance. Si elle
+     * est atteinte, le client reçoit 503, le thread du handler est interrompu
+     * et son CompletionStage annulé ; un résultat tardif est ignoré. Le
+     * permis de concurrence et les fichiers temporaires ne sont libérés qu'à
+     * la fin effective du handler, qui ne peut plus toucher à la requête ni à
+     * la réponse une fois le 503 envoyé ({@link DetachableExchange}).
+     */
+    private void dispatchWithDeadline(RouteMatch<ControllerMapping> match, HttpServletRequest req,
+            HttpServletResponse resp, long timeout) {
+        ControllerMapping mapping = match.getHandler();
+        RequestContext context = new RequestContext(timeout);
+        req.setAttribute(RequestContext.ATTRIBUTE, context);
+        // Filet de sécurité côté conteneur : l'échéance est gérée par deadlineTimer
+        DetachableExchange detachable = new DetachableExchange(req, resp);
+        AsyncExchange exchange = startAsync(mapping, req, resp, timeout + 5000, detachable);
+
+        BiConsumer<Object, Throwable> outcome = (value, error) -> {
+            if (context.complete()) {
+                exchange.finish(value, error);
+            }
+        };
+        Future<?> task = asyncExecutor.submit(() -> {
+            if (!exchange.start()) {
+                return;
+            }
+            RequestContext previous = context.attach();
+            try {
+                exchange.complete(invokeMethod(match, detachable.getRequest(), detachable.getResponse()), outcome);
+            } catch (Throwable t) {
+                exchange.fail(t, outcome);
+            } finally {
+                RequestContext.detach(previous);
+            }
+        });
+        context.onExpire(() -> task.cancel(true));
+        context.setTimer(deadlineTimer.schedule(() -> {
+            if (context.expire()) {
+                // Hors du thread du timer : la déconnexion attend l'appel en cours du handler
+                asyncExecutor.execute(() -> exchange.finish(null,
+                        new DeadlineExceededException("Délai de " + timeout + " ms dépassé")));
+            }
+        }, timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Passe la requête en asynchrone avec un délai explicite et un listener,
+     * pour que le timeout ou une erreur du conteneur termine aussi la requête.
+     */
+    private AsyncExchange startAsync(ControllerMapping mapping, HttpServletRequest req, HttpServletResponse resp,
+            long timeout, DetachableExchange detachable) {
+        AsyncContext async = req.startAsync(req, resp);
+        async.setTimeout(timeout);
+        AsyncExchange exchange = new AsyncExchange(mapping, async, req, resp, detachable);
+        async.addListener(exchange);
+        return exchange;
+    }
+
+    /**
+     * Requête passée en asynchrone. Elle est terminée une seule fois : par le
+     * résultat du handler, par une erreur, ou par le timeout du conteneur. La
+     * requête et la réponse sont gardées ici, car AsyncContext.getRequest()
+     * échoue une fois la requête terminée par le conteneur.
+     *
+     * Le handler peut survivre à la réponse (délai dépassé) : le permis de
+     * concurrence et le multipart sont libérés à sa fin, ou à la fin de la
+     * requête s'il n'a jamais démarré. Son CompletionStage est alors annulé
+     * et sa requête/réponse déconnectées avant que le conteneur ne les
+     * recycle. Un handler qui retourne un CompletionStage sans le déclarer
+     * (type Object) reçoit les objets du conteneur, sans cette protection.
+     */
+    private final class AsyncExchange implements AsyncListener {
+        // États du handler
+        private static final int IDLE = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+
+        private final ControllerMapping mapping;
+        private final AsyncContext async;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final DetachableExchange detachable;
+        // Lus au départ : la requête peut être recyclée avant la fin du handler
+        private final MultipartRequest multipart;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final AtomicInteger handler = new AtomicInteger(IDLE);
+        private volatile CompletableFuture<?> stage;
+
+        AsyncExchange(ControllerMapping mapping, AsyncContext async, HttpServletRequest request,
+                HttpServletResponse response, DetachableExchange detachable) {
+            this.mapping = mapping;
+            this.async = async;
+            this.detachable = detachable;
+            this.multipart = MultipartHttpServletRequest.of(request);
+            this.request = request;
+            this.response = response;
+        }
+
+        /** Le handler démarre ; faux si la requête est déjà terminée. */
+        boolean start() {
+            return handler.compareAndSet(IDLE, RUNNING);
+        }
+
+        /** Termine avec le résultat du handler, à sa fin s'il s'agit d'un CompletionStage. */
+        void complete(Object result) {
+            complete(result, this::finish);
+        }
+
+        void complete(Object result, BiConsumer<Object, Throwable> outcome) {
+            if (!(result instanceof CompletionStage)) {
+                conclude(result, null, outcome);
+                return;
+            }
+            CompletionStage<?> pending = (CompletionStage<?>) result;
+            try {
+                stage = pending.toCompletableFuture();
+            } catch (UnsupportedOperationException e) {
+                // Stage non annulable : on attend simplement sa fin
+            }
+            if (finished.get()) {
+                cancelStage();
+            }
+            pending.whenComplete((value, error) -> conclude(value, error, outcome));
+        }
+
+        void fail(Throwable error) {
+            fail(error, this::finish);
+        }
+
+        void fail(Throwable error, BiConsumer<Object, Throwable> outcome) {
+            conclude(null, error, outcome);
+        }
+
+        private void conclude(Object result, Throwable error, BiConsumer<Object, Throwable> outcome) {
+            try {
+                outcome.accept(result, error);
+            } finally {
+                if (handler.getAndSet(DONE) != DONE) {
+                    release();
                 }
+            }
+        }
 
-                args[i] = convertParameter(paramValue, param.getType());
-            } else {
-                args[i] = null;
+        void finish(Object result, Throwable error) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
             }
+            disconnect();
+            Throwable failure = null;
+            try {
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    error = error.getCause();
+                }
+                if (error != null) {
+                    throw error;
+                }
+                render(mapping, result, request, response);
+                if (response instanceof CompressingResponse) {
+                    ((CompressingResponse) response).finish();
+                }
+            } catch (Throwable t) {
+                failure = t;
+                if (response instanceof CompressingResponse) {
+                    ((CompressingResponse) response).abort();
+                }
+                int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                if (t instanceof DeadlineExceededException || t instanceof InstanceUnavailableException) {
+                    status = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+                    LOG.warn("{} {}: {}", mapping.getHttpMethod(), mapping.getPath(), t.getMessage());
+                } else {
+                    log("Erreur lors de l'invocation asynchrone de " + mapping.getMethod().getName(), t);
+                }
+                try {
+                    if (!response.isCommitted()) {
+                        response.sendError(status);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log("Impossible d'envoyer l'erreur", e);
+                }
+            } finally {
+                completed(failure);
+                async.complete();
+            }
+        }
+
+        private void completed(Throwable failure) {
+            HandlerInterceptor[] chain = mapping.getInterceptors();
+            if (chain.length > 0) {
+                Exception cause = failure == null || failure instanceof Exception ? (Exception) failure
+                        : new ServletException(failure);
+                afterCompletion(chain, chain.length, mapping, request, response, cause);
+            }
+            cancelStage();
+            // Handler jamais démarré : personne d'autre ne libérera ses ressources
+            if (handler.compareAndSet(IDLE, DONE)) {
+                release();
+            }
+        }
+
+        private void cancelStage() {
+            CompletableFuture<?> pending = stage;
+            if (pending != null) {
+                pending.cancel(true);
+            }
+        }
+
+        /** Plus aucun accès du handler à la requête : elle va être terminée. */
+        private void disconnect() {
+            if (detachable != null) {
+                detachable.disconnect();
+            }
+        }
+
+        private void release() {
+            if (multipart != null) {
+                multipart.close();
+            }
+            if (mapping.getConcurrencyLimiter() != null) {
+                mapping.getConcurrencyLimiter().release();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish(null, new DeadlineExceededException("Délai asynchrone de " + async.getTimeout() + " ms dépassé"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            Throwable error = event.getThrowable();
+            finish(null, error != null ? error : new IOException("Erreur de la requête asynchrone"));
         }
 
-        return method.invoke(mapping.getController(), args);
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Requête terminée par le conteneur sans timeout ni erreur signalés
+            if (finished.compareAndSet(false, true)) {
+                disconnect();
+                completed(null);
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * Rendu synchrone utilisé par le cache et le regroupement : un résultat CompletionStage est
+     * attendu dans le thread courant, au plus jusqu'à l'échéance de la requête.
+     */
+    private void renderNow(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        Object result = invokeMethod(match, req, resp);
+        if (result instanceof CompletionStage) {
+            CompletableFuture<?> future = ((CompletionStage<?>) result).toCompletableFuture();
+            RequestContext context = RequestContext.of(req);
+            try {
+                result = context.hasDeadline() ? future.get(context.getRemainingMillis(), TimeUnit.MILLISECONDS)
+                        : future.get();
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new DeadlineExceededException("Délai dépassé en attendant le handler");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        }
+        render(match.getHandler(), result, req, resp);
+    }
+
+    /** Rend le résultat ; un échec du rendu compte comme une erreur de la route. */
+    private void render(ControllerMapping mapping, Object result, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        try {
+            doRender(mapping, result, req, resp);
+        } catch (Exception | Error e) {
+            mapping.getMetrics().failed(e);
+            throw e;
+        }
     }
 
-    private Object convertParameter(String value, Class<?> targetType) {
-        if (value == null) return null;
+    private void doRender(ControllerMapping mapping, Object result, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        HandlerInterceptor[] chain = mapping.getInterceptors();
+        for (int i = chain.length - 1; i >= 0; i--) {
+            chain[i].postHandle(req, resp, mapping, result);
+        }
 
-        if (targetType == String.class) {
-            return value;
-        } else if (targetType == int.class || targetType == Integer.class) {
-            return Integer.parseInt(value);
-        } else if (targetType == long.class || targetType == Long.class) {
-            return Long.parseLong(value);
-        } else if (targetType == double.class || targetType == Double.class) {
-            return Double.parseDouble(value);
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.parseBoolean(value);
+        if (mapping.isResponseBody()) {
+            resp.setContentType("application/json;charset=UTF-8");
+            Json.write(result, resp.getOutputStream());
+            return;
         }
 
-        return value;
+        if (result == null) {
+            return;
+        }
+
+        if (result instanceof ModelView) {
+            ModelView modelView = (ModelView) result;
+            View view = viewResolver.resolveViewName(modelView.getView());
+            if (view == null) {
+                throw new ServletException("Vue introuvable: " + modelView.getView());
+            }
+            view.render(modelView.getModel(), req, resp);
+            return;
+        }
+
+        resp.setContentType("text/html;charset=UTF-8");
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append(result.toString()).writeTo(resp);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private Object invokeMethod(RouteMatch<ControllerMapping> match, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        return match.getHandler().invoke(req, resp, match);
     }
 }
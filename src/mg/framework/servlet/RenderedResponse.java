@@ -0,0 +1,167 @@
+package mg.framework.servlet;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Réponse rendue une fois et rejouée sur d'autres requêtes : statut,
+ * Content-Type, en-têtes, cookies, corps et ETag éventuel.
+ */
+final class RenderedResponse {
+    private final int status;
+    private final String contentType;
+    private final Map<String, List<String>> headers;
+    private final List<Cookie> cookies;
+    private final byte[] body;
+    private final String etag;
+
+    private RenderedResponse(int status, String contentType, Map<String, List<String>> headers,
+            List<Cookie> cookies, byte[] body, String etag) {
+        this.status = status;
+        this.contentType = contentType;
+        this.headers = headers;
+        this.cookies = cookies;
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * @param withEtag calcule un ETag fort (SHA-256) pour les réponses 200
+     */
+    static RenderedResponse of(ResponseCapture capture, boolean withEtag) {
+        byte[] body = capture.toByteArray();
+        int status = capture.getStatus();
+        String etag = withEtag && status == HttpServletResponse.SC_OK ? etag(body) : null;
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        capture.getCapturedHeaders().forEach((name, values) -> headers.put(name, List.copyOf(values)));
+        List<Cookie> cookies = new ArrayList<>(capture.getCookies().size());
+        for (Cookie cookie : capture.getCookies()) {
+            cookies.add((Cookie) cookie.clone());
+        }
+        return new RenderedResponse(status, capture.getContentType(), headers, cookies, body, etag);
+    }
+
+    /**
+     * Clé d'une requête : l'URI (variables de chemin comprises) suivie des
+     * valeurs des paramètres donnés, ou de tous les paramètres triés par nom
+     * si {@code params} est null.
+     */
+    static String key(HttpServletRequest req, String[] params) {
+        if (params == null) {
+            params = req.getParameterMap().keySet().toArray(new String[0]);
+            Arrays.sort(params);
+        }
+        if (params.length == 0) {
+            return req.getRequestURI();
+        }
+        StringBuilder key = new StringBuilder(req.getRequestURI());
+        for (int i = 0; i < params.length; i++) {
+            key.append(i == 0 ? '?' : '&').append(params[i]);
+            String[] values = req.getParameterValues(params[i]);
+            if (values != null) {
+                for (String value : values) {
+                    // \u0000 sépare les valeurs sans ambiguïté
+                    key.append('\u0000').append(value);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * Faux si la réponse pose un cookie ou un Cache-Control private/no-store :
+     * elle est propre à la requête qui l'a produite et ne doit pas être
+     * servie à d'autres clients.
+     */
+    boolean isShareable() {
+        if (!cookies.isEmpty() || headers.containsKey("Set-Cookie")) {
+            return false;
+        }
+        List<String> cacheControl = headers.get("Cache-Control");
+        if (cacheControl != null) {
+            for (String value : cacheControl) {
+                String directives = value.toLowerCase(Locale.ROOT);
+                if (directives.contains("private") || directives.contains("no-store")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    int weight() {
+        return body.length + 64;
+    }
+
+    void writeTo(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            List<String> values = header.getValue();
+            resp.setHeader(header.getKey(), values.get(0));
+            for (int i = 1; i < values.size(); i++) {
+                resp.addHeader(header.getKey(), values.get(i));
+            }
+        }
+        for (Cookie cookie : cookies) {
+            resp.addCookie(cookie);
+        }
+        if (etag != null) {
+            resp.setHeader("ETag", etag);
+            if (matches(req.getHeader("If-None-Match"), etag)) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        if (status >= 400 && body.length == 0) {
+            resp.sendError(status);
+            return;
+        }
+        resp.setStatus(status);
+        if (contentType != null) {
+            resp.setContentType(contentType);
+        }
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            // Comparaison faible : l'ETag devient W/"..." quand la réponse est compressée
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package mg.framework.servlet;
+
+import mg.framework.core.ControllerMapping;
+import mg.framework.core.RequestContext;
+import mg.framework.core.SingleFlight;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Regroupe les requêtes concurrentes identiques des routes
+ * {@link mg.framework.annotation.SingleFlight} : une seule invocation, dont
+ * la réponse capturée est rejouée pour chaque requête en attente. Aucune
+ * réponse n'est conservée, les données ne sont donc jamais périmées. Sans
+ * {@code key}, la clé reprend les paramètres lus par le handler. Une requête
+ * en attente abandonne à son échéance ({@link RequestContext}).
+ */
+public class RequestCoalescer {
+    private final SingleFlight<String, RenderedResponse> flights = new SingleFlight<>();
+
+    public void serve(ControllerMapping mapping, HttpServletRequest req, HttpServletResponse resp,
+            ResponseCache.Renderer renderer) throws Exception {
+        String[] params = mapping.getSingleFlight().key();
+        String key = mapping.getHttpMethod() + ' '
+                + RenderedResponse.key(req, params.length > 0 ? params : mapping.getBoundParameters());
+
+        boolean[] rendered = new boolean[1];
+        RenderedResponse shared = flights.execute(key, () -> {
+            rendered[0] = true;
+            ResponseCapture capture = new ResponseCapture(resp);
+            renderer.render(capture);
+            return RenderedResponse.of(capture, false);
+        }, RequestContext.of(req).getRemainingMillis());
+        // Réponse propre à la requête qui l'a rendue : les suivantes refont leur rendu
+        if (!rendered[0] && !shared.isShareable()) {
+            renderer.render(resp);
+            return;
+        }
+        shared.writeTo(req, resp);
+    }
+
+    /** Nombre d'invocations partagées en cours. */
+    public int inFlight() {
+        return flights.inFlight();
+    }
+}
@@ -0,0 +1,82 @@
+package mg.framework.servlet;
+
+import mg.framework.annotation.Cacheable;
+import mg.framework.core.ControllerMapping;
+import mg.framework.core.RequestContext;
+import mg.framework.core.SingleFlight;
+import mg.framework.core.TinyLfuCache;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cache des réponses rendues des routes {@link Cacheable}.
+ *
+ * La clé est l'URI (variables de chemin comprises) suivie des paramètres
+ * {@code varyBy}, par défaut ceux que lit le handler. Une réponse en cache
+ * porte un ETag fort : un If-None-Match correspondant reçoit un 304 sans
+ * appeler le handler. Les ratés concurrents sur la même clé ne provoquent
+ * qu'un seul rendu, les autres l'attendent au plus jusqu'à l'échéance de
+ * la requête. Une réponse qui pose un cookie ou un Cache-Control
+ * private/no-store n'est ni mise en cache ni partagée.
+ */
+public class ResponseCache {
+
+    /** Rendu complet d'une requête dans la réponse fournie. */
+    public interface Renderer {
+        void render(HttpServletResponse resp) throws Exception;
+    }
+
+    private final TinyLfuCache<String, RenderedResponse> cache;
+    private final SingleFlight<String, RenderedResponse> flights = new SingleFlight<>();
+
+    /**
+     * @param maximumBytes taille maximale des corps en cache
+     */
+    public ResponseCache(long maximumBytes) {
+        this.cache = new TinyLfuCache<>(maximumBytes, (int) Math.min(1 << 20, maximumBytes / 4096),
+                RenderedResponse::weight);
+    }
+
+    public void serve(ControllerMapping mapping, HttpServletRequest req, HttpServletResponse resp, Renderer renderer)
+            throws Exception {
+        Cacheable cacheable = mapping.getCacheable();
+        String[] varyBy = cacheable.varyBy().length > 0 ? cacheable.varyBy() : mapping.getBoundParameters();
+        String key = RenderedResponse.key(req, varyBy);
+
+        RenderedResponse cached = cache.get(key);
+        if (cached == null) {
+            boolean[] rendered = new boolean[1];
+            cached = flights.execute(key, () -> {
+                RenderedResponse again = cache.get(key);
+                if (again != null) {
+                    return again;
+                }
+                rendered[0] = true;
+                ResponseCapture capture = new ResponseCapture(resp);
+                renderer.render(capture);
+                RenderedResponse response = RenderedResponse.of(capture, true);
+                if (response.getStatus() == HttpServletResponse.SC_OK && response.isShareable()) {
+                    cache.put(key, response, TimeUnit.SECONDS.toNanos(cacheable.ttl()));
+                }
+                return response;
+            }, RequestContext.of(req).getRemainingMillis());
+            // Réponse propre à la requête qui l'a rendue : les suivantes refont leur rendu
+            if (!rendered[0] && !cached.isShareable()) {
+                renderer.render(resp);
+                return;
+            }
+        }
+        cached.writeTo(req, resp);
+    }
+
+    public void invalidate(String key) {
+        cache.remove(key);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
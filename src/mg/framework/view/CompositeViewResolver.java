@@ -0,0 +1,26 @@
+package mg.framework.view;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interroge les résolveurs dans l'ordre et retourne la première vue trouvée.
+ */
+public class CompositeViewResolver implements ViewResolver {
+    private final List<ViewResolver> resolvers;
+
+    public CompositeViewResolver(ViewResolver... resolvers) {
+        this.resolvers = Arrays.asList(resolvers);
+    }
+
+    @Override
+    public View resolveViewName(String viewName) throws Exception {
+        for (ViewResolver resolver : resolvers) {
+            View view = resolver.resolveViewName(viewName);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+}
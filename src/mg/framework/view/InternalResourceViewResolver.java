@@ -0,0 +1,39 @@
+package mg.framework.view;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+
+/**
+ * Résolveur par défaut : transfère vers une ressource du conteneur (JSP),
+ * {@code prefix + nom + suffix}, avec le modèle en attributs de requête.
+ */
+public class InternalResourceViewResolver implements ViewResolver {
+    private final String prefix;
+    private final String suffix;
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    public InternalResourceViewResolver(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    @Override
+    public View resolveViewName(String viewName) {
+        return views.computeIfAbsent(viewName, name -> {
+            String path = prefix + name + suffix;
+            return (model, req, resp) -> {
+                for (Map.Entry<String, Object> entry : model.entrySet()) {
+                    req.setAttribute(entry.getKey(), entry.getValue());
+                }
+                RequestDispatcher dispatcher = req.getRequestDispatcher(path);
+                if (dispatcher == null) {
+                    throw new ServletException("Vue introuvable: " + path);
+                }
+                dispatcher.forward(req, resp);
+            };
+        });
+    }
+}
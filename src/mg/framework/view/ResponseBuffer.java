@@ -0,0 +1,159 @@
+package mg.framework.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tampon de réponse en octets, encodé une seule fois en UTF-8 puis envoyé en
+ * une écriture avec le bon Content-Length.
+ *
+ * Les tampons sont recyclés via {@link #acquire()} / {@link #release()} ; un
+ * tampon ayant beaucoup grossi est ramené à sa taille initiale avant d'être
+ * remis dans le pool.
+ */
+public final class ResponseBuffer {
+    private static final int INITIAL_SIZE = 8 * 1024;
+    private static final int MAX_RETAINED_SIZE = 256 * 1024;
+    private static final BlockingQueue<ResponseBuffer> POOL = new ArrayBlockingQueue<>(64);
+
+    private byte[] buf;
+    private int count;
+
+    private ResponseBuffer() {
+        this.buf = new byte[INITIAL_SIZE];
+    }
+
+    public static ResponseBuffer acquire() {
+        ResponseBuffer buffer = POOL.poll();
+        return buffer != null ? buffer : new ResponseBuffer();
+    }
+
+    public void release() {
+        count = 0;
+        if (buf.length > MAX_RETAINED_SIZE) {
+            buf = new byte[INITIAL_SIZE];
+        }
+        POOL.offer(this);
+    }
+
+    public ResponseBuffer write(byte[] bytes) {
+        return write(bytes, 0, bytes.length);
+    }
+
+    public ResponseBuffer write(byte[] bytes, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(bytes, offset, buf, count, length);
+        count += length;
+        return this;
+    }
+
+    /**
+     * Encode le texte en UTF-8 directement dans le tampon.
+     */
+    public ResponseBuffer append(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(count + length);
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (count == buf.length) {
+                    ensureCapacity(count + 1 + length - i);
+                }
+                buf[count++] = (byte) c;
+            } else {
+                ensureCapacity(count + 4 + length - i);
+                if (c < 0x800) {
+                    buf[count++] = (byte) (0xC0 | (c >> 6));
+                    buf[count++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buf[count++] = '?';
+                } else {
+                    buf[count++] = (byte) (0xE0 | (c >> 12));
+                    buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[count++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Comme {@link #append(CharSequence)}, en échappant les caractères HTML.
+     */
+    public ResponseBuffer appendEscaped(CharSequence text) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String entity;
+            switch (text.charAt(i)) {
+                case '<': entity = "&lt;"; break;
+                case '>': entity = "&gt;"; break;
+                case '&': entity = "&amp;"; break;
+                case '"': entity = "&quot;"; break;
+                case '\'': entity = "&#39;"; break;
+                default: continue;
+            }
+            append(text.subSequence(start, i));
+            append(entity);
+            start = i + 1;
+        }
+        return start == 0 ? append(text) : append(text.subSequence(start, length));
+    }
+
+    public ResponseBuffer append(Object value) {
+        return append(String.valueOf(value));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /**
+     * Fixe Content-Length et envoie le contenu en une seule écriture. Si le
+     * handler a déjà pris le Writer de la réponse, le contenu y est ajouté,
+     * sans Content-Length.
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        OutputStream out;
+        try {
+            out = response.getOutputStream();
+        } catch (IllegalStateException e) {
+            PrintWriter writer = response.getWriter();
+            writer.write(new String(buf, 0, count, StandardCharsets.UTF_8));
+            writer.flush();
+            return;
+        }
+        response.setContentLength(count);
+        out.write(buf, 0, count);
+        out.flush();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(capacity, buf.length << 1));
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package mg.framework.view;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template compilé : un arbre de fragments littéraux (déjà encodés en UTF-8)
+ * et de nœuds d'expression, analysé une seule fois.
+ *
+ * Syntaxe :
+ * <pre>
+ * {{client.nom}}                 valeur échappée (HTML)
+ * {{{contenu}}}                  valeur brute
+ * {{#each lignes as ligne}} ... {{/each}}
+ * {{#if client.actif}} ... {{else}} ... {{/if}}
+ * {{! commentaire }}
+ * </pre>
+ * Les chemins se résolvent sur le modèle, puis sur les Map, getters
+ * ({@code getX}, {@code isX} booléen), accesseurs de record et champs
+ * publics. Aucune autre méthode n'est appelée : {@code {{fichier.delete}}}
+ * est simplement absent.
+ */
+public final class Template {
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final MethodHandle MISSING = MethodHandles.constant(Object.class, null);
+
+    private final String name;
+    private final Node[] nodes;
+
+    private Template(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void render(Map<String, Object> model, ResponseBuffer out) {
+        render(nodes, new Scope(null, null, null, model), out);
+    }
+
+    public static Template compile(String name, String source) {
+        Parser parser = new Parser(name, source);
+        return new Template(name, parser.parse());
+    }
+
+    private static void render(Node[] nodes, Scope scope, ResponseBuffer out) {
+        for (Node node : nodes) {
+            node.render(scope, out);
+        }
+    }
+
+    // ---- Nœuds ----
+
+    private interface Node {
+        void render(Scope scope, ResponseBuffer out);
+    }
+
+    private static final class Literal implements Node {
+        private final byte[] bytes;
+
+        Literal(String text) {
+            this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void render(Scope scope, ResponseBuffer out) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class Expression implements Node {
+        private final String[] path;
+        private final boolean escape;
+
+        Expression(String[] path, boolean escape) {
+            this.path = path;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Scope scope, ResponseBuffer out) {
+            Object value = scope.resolve(path);
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (escape) {
+                out.appendEscaped(text);
+            } else {
+                out.append(text);
+            }
+        }
+    }
+
+    private static final class Each implements Node {
+        private final String variable;
+        private final String[] path;
+        private final Node[] body;
+
+        Each(String variable, String[] path, Node[] body) {
+            this.variable = variable;
+            this.path = path;
+            this.body = body;
+        }
+
+        @Override
+        public void render(Scope scope, ResponseBuffer out) {
+            Object items = scope.resolve(path);
+            if (items instanceof Iterable) {
+                for (Object item : (Iterable<?>) items) {
+                    Template.render(body, new Scope(scope, variable, item, null), out);
+                }
+            } else if (items instanceof Map) {
+                for (Object entry : ((Map<?, ?>) items).entrySet()) {
+                    Template.render(body, new Scope(scope, variable, entry, null), out);
+                }
+            } else if (items != null && items.getClass().isArray()) {
+                int length = Array.getLength(items);
+                for (int i = 0; i < length; i++) {
+                    Template.render(body, new Scope(scope, variable, Array.get(items, i), null), out);
+                }
+            }
+        }
+    }
+
+    private static final class Condition implements Node {
+        private final String[] path;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        Condition(String[] path, Node[] then, Node[] otherwise) {
+            this.path = path;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Scope scope, ResponseBuffer out) {
+            Template.render(isTrue(scope.resolve(path)) ? then : otherwise, scope, out);
+        }
+
+        private static boolean isTrue(Object value) {
+            if (value == null) return false;
+            if (value instanceof Boolean) return (Boolean) value;
+            if (value instanceof CharSequence) return ((CharSequence) value).length() > 0;
+            if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+            if (value instanceof Map) return !((Map<?, ?>) value).isEmpty();
+            if (value.getClass().isArray()) return Array.getLength(value) > 0;
+            return true;
+        }
+    }
+
+    // ---- Résolution des valeurs ----
+
+    private static final class Scope {
+        private final Scope parent;
+        private final String variable;
+        private final Object value;
+        private final Map<String, Object> model;
+
+        Scope(Scope parent, String variable, Object value, Map<String, Object> model) {
+            this.parent = parent;
+            this.variable = variable;
+            this.value = value;
+            this.model = model;
+        }
+
+        Object resolve(String[] path) {
+            Object current = lookup(path[0]);
+            for (int i = 1; i < path.length && current != null; i++) {
+                current = property(current, path[i]);
+            }
+            return current;
+        }
+
+        private Object lookup(String name) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.model != null) {
+                    return scope.model.get(name);
+                }
+                if (name.equals(scope.variable)) {
+                    return scope.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static Object property(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        MethodHandle accessor = ACCESSORS.get(target.getClass())
+                .computeIfAbsent(name, key -> accessor(target.getClass(), key));
+        try {
+            return (Object) accessor.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Lecture impossible de " + name, t);
+        }
+    }
+
+    private static MethodHandle accessor(Class<?> type, String name) {
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        MethodType generic = MethodType.methodType(Object.class, Object.class);
+
+        List<Method> candidates = new ArrayList<>(3);
+        if (!"class".equals(name)) {
+            candidates.add(findMethod(type, "get" + suffix));
+        }
+        Method is = findMethod(type, "is" + suffix);
+        if (is != null && (is.getReturnType() == boolean.class || is.getReturnType() == Boolean.class)) {
+            candidates.add(is);
+        }
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (component.getName().equals(name)) {
+                    candidates.add(component.getAccessor());
+                }
+            }
+        }
+        for (Method method : candidates) {
+            if (method != null) {
+                try {
+                    return unreflect(method).asType(generic);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    // candidat suivant
+                }
+            }
+        }
+        try {
+            Field field = type.getField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(generic);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            return MethodHandles.dropArguments(MISSING, 0, Object.class);
+        }
+    }
+
+    /**
+     * Cherche la méthode sans argument de préférence sur un type public
+     * (ex: Map.Entry.getKey plutôt que HashMap.Node.getKey).
+     */
+    private static Method findMethod(Class<?> type, String name) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        Method fallback = null;
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            try {
+                Method method = current.getMethod(name);
+                if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())) {
+                    if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                        return method;
+                    }
+                    if (fallback == null) {
+                        fallback = method;
+                    }
+                }
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            Collections.addAll(queue, current.getInterfaces());
+        }
+        return fallback;
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return MethodHandles.publicLookup().unreflect(method);
+        }
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    // ---- Analyse ----
+
+    private static final class Parser {
+        private final String name;
+        private final String source;
+
+        Parser(String name, String source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        Node[] parse() {
+            // Pile des blocs ouverts : chaque niveau accumule ses nœuds
+            Deque<Block> blocks = new ArrayDeque<>();
+            Block root = new Block(null, null, null);
+            blocks.push(root);
+
+            int pos = 0;
+            while (pos < source.length()) {
+                int open = source.indexOf("{{", pos);
+                if (open < 0) {
+                    blocks.peek().add(new Literal(source.substring(pos)));
+                    break;
+                }
+                if (open > pos) {
+                    blocks.peek().add(new Literal(source.substring(pos, open)));
+                }
+
+                boolean raw = source.startsWith("{{{", open);
+                int close = source.indexOf(raw ? "}}}" : "}}", open);
+                if (close < 0) {
+                    throw error(open, "balise non fermée");
+                }
+                String tag = source.substring(open + (raw ? 3 : 2), close).trim();
+                pos = close + (raw ? 3 : 2);
+
+                if (raw) {
+                    blocks.peek().add(new Expression(path(tag, open), false));
+                } else if (tag.startsWith("!")) {
+                    continue;
+                } else if (tag.startsWith("#each ")) {
+                    String[] parts = tag.substring(6).trim().split("\\s+");
+                    if (parts.length != 3 || !"as".equals(parts[1])) {
+                        throw error(open, "syntaxe attendue {{#each liste as element}}");
+                    }
+                    blocks.push(new Block("each", parts[2], path(parts[0], open)));
+                } else if (tag.startsWith("#if ")) {
+                    blocks.push(new Block("if", null, path(tag.substring(4).trim(), open)));
+                } else if (tag.equals("else")) {
+                    Block block = blocks.peek();
+                    if (!"if".equals(block.kind) || block.otherwise != null) {
+                        throw error(open, "{{else}} hors d'un {{#if}}");
+                    }
+                    block.otherwise = new ArrayList<>();
+                } else if (tag.startsWith("/")) {
+                    Block block = blocks.pop();
+                    if (block == root || !tag.substring(1).equals(block.kind)) {
+                        throw error(open, "fermeture inattendue {{" + tag + "}}");
+                    }
+                    blocks.peek().add(block.toNode());
+                } else {
+                    blocks.peek().add(new Expression(path(tag, open), true));
+                }
+            }
+
+            if (blocks.size() > 1) {
+                throw error(source.length(), "bloc {{#" + blocks.peek().kind + "}} non fermé");
+            }
+            return root.nodes.toArray(new Node[0]);
+        }
+
+        private String[] path(String expression, int pos) {
+            if (expression.isEmpty()) {
+                throw error(pos, "expression vide");
+            }
+            return expression.split("\\.");
+        }
+
+        private IllegalArgumentException error(int pos, String message) {
+            int line = 1;
+            for (int i = 0; i < pos && i < source.length(); i++) {
+                if (source.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            return new IllegalArgumentException("Template " + name + ", ligne " + line + " : " + message);
+        }
+    }
+
+    private static final class Block {
+        private final String kind;
+        private final String variable;
+        private final String[] path;
+        private final List<Node> nodes = new ArrayList<>();
+        private List<Node> otherwise;
+
+        Block(String kind, String variable, String[] path) {
+            this.kind = kind;
+            this.variable = variable;
+            this.path = path;
+        }
+
+        void add(Node node) {
+            (otherwise != null ? otherwise : nodes).add(node);
+        }
+
+        Node toNode() {
+            Node[] body = nodes.toArray(new Node[0]);
+            if ("each".equals(kind)) {
+                return new Each(variable, path, body);
+            }
+            return new Condition(path, body, otherwise != null ? otherwise.toArray(new Node[0]) : new Node[0]);
+        }
+    }
+}
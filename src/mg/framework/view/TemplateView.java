@@ -0,0 +1,30 @@
+package mg.framework.view;
+
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class TemplateView implements View {
+    private final Template template;
+
+    public TemplateView(Template template) {
+        this.template = template;
+    }
+
+    public Template getTemplate() {
+        return template;
+    }
+
+    @Override
+    public void render(Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        resp.setContentType("text/html;charset=UTF-8");
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            template.render(model, buffer);
+            buffer.writeTo(resp);
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package mg.framework.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.ServletContext;
+
+/**
+ * Résout les vues vers des {@link Template} compilés, lus depuis
+ * {@code prefix + nom + suffix} dans l'application web.
+ *
+ * Le template compilé est mis en cache par nom de vue. En production, la
+ * ressource n'est plus relue après le premier chargement (l'absence de
+ * template est aussi mise en cache). En mode développement, la date de
+ * modification est vérifiée au plus une fois par {@code checkInterval} ms.
+ */
+public class TemplateViewResolver implements ViewResolver {
+    private final ServletContext context;
+    private final String prefix;
+    private final String suffix;
+    private final boolean devMode;
+    private final long checkInterval;
+    private final Map<String, CachedTemplate> cache = new ConcurrentHashMap<>();
+
+    public TemplateViewResolver(ServletContext context, String prefix, String suffix,
+            boolean devMode, long checkInterval) {
+        this.context = context;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.devMode = devMode;
+        this.checkInterval = checkInterval;
+    }
+
+    @Override
+    public View resolveViewName(String viewName) throws IOException {
+        CachedTemplate cached = cache.get(viewName);
+        if (cached == null) {
+            try {
+                cached = cache.computeIfAbsent(viewName, name -> {
+                    try {
+                        return load(name);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else if (devMode && System.currentTimeMillis() >= cached.nextCheck) {
+            cached = reloadIfModified(viewName, cached);
+        }
+        return cached.view;
+    }
+
+    private CachedTemplate reloadIfModified(String viewName, CachedTemplate cached) throws IOException {
+        cached.nextCheck = System.currentTimeMillis() + checkInterval;
+        URL url = context.getResource(prefix + viewName + suffix);
+        if (url == null ? cached.url == null : lastModified(url) == cached.lastModified) {
+            return cached;
+        }
+        CachedTemplate reloaded = load(viewName);
+        cache.put(viewName, reloaded);
+        return reloaded;
+    }
+
+    private CachedTemplate load(String viewName) throws IOException {
+        String path = prefix + viewName + suffix;
+        URL url = context.getResource(path);
+        if (url == null) {
+            return new CachedTemplate(null, null, 0, nextCheck());
+        }
+
+        long lastModified = lastModified(url);
+        String source;
+        try (InputStream in = url.openStream()) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Template template = Template.compile(path, source);
+        return new CachedTemplate(new TemplateView(template), url, lastModified, nextCheck());
+    }
+
+    private long nextCheck() {
+        return devMode ? System.currentTimeMillis() + checkInterval : Long.MAX_VALUE;
+    }
+
+    private static long lastModified(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new File(url.toURI()).lastModified();
+            } catch (URISyntaxException e) {
+                return new File(url.getFile()).lastModified();
+            }
+        }
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getLastModified();
+    }
+
+    private static final class CachedTemplate {
+        private final View view;
+        private final URL url;
+        private final long lastModified;
+        private volatile long nextCheck;
+
+        CachedTemplate(View view, URL url, long lastModified, long nextCheck) {
+            this.view = view;
+            this.url = url;
+            this.lastModified = lastModified;
+            this.nextCheck = nextCheck;
+        }
+    }
+}
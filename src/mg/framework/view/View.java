@@ -0,0 +1,10 @@
+package mg.framework.view;
+
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public interface View {
+    void render(Map<String, Object> model, HttpServletRequest req, HttpServletResponse resp) throws Exception;
+}
@@ -0,0 +1,12 @@
+package mg.framework.view;
+
+/**
+ * Associe un nom de vue (ModelView.getView()) à une {@link View}.
+ * Appelé à chaque rendu : les implémentations mettent en cache leurs vues.
+ */
+public interface ViewResolver {
+    /**
+     * @return la vue, ou {@code null} si ce résolveur ne la connaît pas
+     */
+    View resolveViewName(String viewName) throws Exception;
+}
@@ -0,0 +1,132 @@
+package framework;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import mg.framework.annotation.ModelAttribute;
+
+import org.junit.jupiter.api.Test;
+
+class FrameworkServletTest {
+    public static class Person {
+        String name;
+        int age;
+    }
+
+    static class RecordingServlet extends FrameworkServlet {
+        Map<String, Object> success;
+        Exception error;
+
+        @Override
+        protected void onSuccess(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters) {
+            success = parameters;
+        }
+
+        @Override
+        protected void onError(HttpServletRequest request, HttpServletResponse response,
+                Map<String, Object> parameters, Exception e) {
+            error = e;
+        }
+    }
+
+    static class MapServlet extends RecordingServlet {
+        Object saved;
+
+        @SuppressWarnings("unused")
+        private void save(Map<String, Object> parameters) {
+            saved = parameters.get("name");
+        }
+    }
+
+    static class ModelServlet extends RecordingServlet {
+        Person saved;
+
+        public void save(@ModelAttribute("person") Person person) {
+            saved = person;
+        }
+    }
+
+    static class FailingServlet extends RecordingServlet {
+        public void save(Map<String, Object> parameters) {
+            throw new IllegalStateException("refusé");
+        }
+    }
+
+    static class NoSaveServlet extends RecordingServlet {
+    }
+
+    static HttpServletRequest request(Map<String, String[]> parameters) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(FrameworkServletTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameterMap":
+                            return parameters;
+                        case "getParameterValues":
+                            return parameters.get(args[0]);
+                        case "getParameter":
+                            String[] values = parameters.get(args[0]);
+                            return values != null ? values[0] : null;
+                        case "getParameterNames":
+                            return Collections.enumeration(parameters.keySet());
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            return attributes.put((String) args[0], args[1]);
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    void privateMapSaveReceivesLazyParameters() throws Exception {
+        MapServlet servlet = new MapServlet();
+        servlet.processRequest(request(Map.of("name", new String[] { "Rakoto" })), null);
+
+        assertNull(servlet.error);
+        assertEquals("Rakoto", servlet.saved);
+        assertEquals(Map.of("name", "Rakoto"), new HashMap<>(servlet.success));
+    }
+
+    @Test
+    void modelSaveIsBoundWithPrefix() throws Exception {
+        ModelServlet servlet = new ModelServlet();
+        servlet.processRequest(request(Map.of(
+                "person.name", new String[] { "Soa" },
+                "person.age", new String[] { "31" })), null);
+
+        assertNull(servlet.error);
+        assertEquals("Soa", servlet.saved.name);
+        assertEquals(31, servlet.saved.age);
+        assertEquals("Soa", servlet.success.get("person.name"));
+    }
+
+    @Test
+    void exceptionFromSaveIsWrappedAsWithReflection() throws Exception {
+        FailingServlet servlet = new FailingServlet();
+        servlet.processRequest(request(Map.of()), null);
+
+        assertNull(servlet.success);
+        assertInstanceOf(InvocationTargetException.class, servlet.error);
+        assertEquals("refusé", servlet.error.getCause().getMessage());
+    }
+
+    @Test
+    void missingSaveIsReported() throws Exception {
+        NoSaveServlet servlet = new NoSaveServlet();
+        servlet.processRequest(request(Map.of()), null);
+
+        assertInstanceOf(NoSuchMethodException.class, servlet.error);
+    }
+}
@@ -0,0 +1,123 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import mg.framework.annotation.Component;
+import mg.framework.annotation.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassPathScannerTest {
+    @Controller
+    public static class Home {
+    }
+
+    @Component
+    public static class Service {
+    }
+
+    public static class Plain {
+    }
+
+    @TempDir
+    Path tmp;
+
+    private static byte[] bytes(Class<?> type) throws IOException {
+        String name = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = ClassPathScannerTest.class.getClassLoader().getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /** Fichiers du package demo.app : classes annotées, classe ordinaire et fichiers invalides. */
+    private static String[][] entries() {
+        return new String[][] {
+            { "demo/app/Home.class", "Home" },
+            { "demo/app/admin/Service.class", "Service" },
+            { "demo/app/Plain.class", "Plain" },
+            { "demo/app/Truncated.class", "Truncated" },
+            { "demo/app/BadTag.class", "BadTag" },
+            { "demo/app/NotAClass.class", "NotAClass" },
+            { "demo/other/Elsewhere.class", "Home" },
+        };
+    }
+
+    private static byte[] content(String kind) throws IOException {
+        switch (kind) {
+            case "Home":
+                return bytes(Home.class);
+            case "Service":
+                return bytes(Service.class);
+            case "Plain":
+                return bytes(Plain.class);
+            case "Truncated":
+                return Arrays.copyOf(bytes(Home.class), 12);
+            case "BadTag":
+                // magic, version, 5 entrées, puis un tag inexistant
+                return new byte[] { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 61, 0, 5, 99 };
+            default:
+                return "pas une classe".getBytes();
+        }
+    }
+
+    private static List<String> scan(URL root) throws IOException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { root }, null)) {
+            return new ClassPathScanner(loader, Controller.class, Component.class).scan("demo.app");
+        }
+    }
+
+    @Test
+    void scansDirectoryAndSkipsInvalidFiles() throws Exception {
+        for (String[] entry : entries()) {
+            Path file = tmp.resolve(entry[0]);
+            Files.createDirectories(file.getParent());
+            Files.write(file, content(entry[1]));
+        }
+
+        assertEquals(List.of("demo.app.Home", "demo.app.admin.Service"), scan(tmp.toUri().toURL()));
+    }
+
+    @Test
+    void scansGeneratedJarAndSkipsInvalidEntries() throws Exception {
+        Path jar = tmp.resolve("app.jar");
+        try (OutputStream file = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(file)) {
+            out.putNextEntry(new JarEntry("demo/app/"));
+            out.closeEntry();
+            for (String[] entry : entries()) {
+                out.putNextEntry(new JarEntry(entry[0]));
+                out.write(content(entry[1]));
+                out.closeEntry();
+            }
+        }
+
+        assertEquals(List.of("demo.app.Home", "demo.app.admin.Service"), scan(jar.toUri().toURL()));
+    }
+
+    @Test
+    void missingPackageGivesNoClasses() throws Exception {
+        assertEquals(List.of(), scan(tmp.toUri().toURL()));
+    }
+
+    @Test
+    void constantPoolIsReadWithoutLoadingTheClass() throws Exception {
+        ClassPathScanner scanner = new ClassPathScanner(getClass().getClassLoader(), Controller.class);
+
+        assertTrue(scanner.references(new ByteArrayInputStream(bytes(Home.class))));
+        assertFalse(scanner.references(new ByteArrayInputStream(bytes(Plain.class))));
+        assertFalse(scanner.references(new ByteArrayInputStream(content("NotAClass"))));
+    }
+}
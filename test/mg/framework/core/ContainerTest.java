@@ -0,0 +1,218 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.Inject;
+import mg.framework.annotation.Scope;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContainerTest {
+    /** Créations et fermetures, dans l'ordre. */
+    static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+    static class Resource implements AutoCloseable {
+        Resource() {
+            EVENTS.add("new " + getClass().getSimpleName());
+        }
+
+        @Override
+        public void close() {
+            EVENTS.add("close " + getClass().getSimpleName());
+        }
+    }
+
+    public static class Clock extends Resource {
+    }
+
+    public static class Database extends Resource {
+        final Clock clock;
+
+        public Database(Clock clock) {
+            this.clock = clock;
+        }
+    }
+
+    public static class Repository extends Resource {
+        final Database database;
+        final Clock clock;
+
+        public Repository(Database database, Clock clock) {
+            this.database = database;
+            this.clock = clock;
+        }
+    }
+
+    public static class Service {
+        final Repository repository;
+        final String origin;
+
+        public Service() {
+            this.repository = null;
+            this.origin = "défaut";
+        }
+
+        @Inject
+        public Service(Repository repository) {
+            this.repository = repository;
+            this.origin = "inject";
+        }
+    }
+
+    public static class Plain {
+        final boolean byDefault;
+
+        public Plain() {
+            this.byDefault = true;
+        }
+
+        public Plain(Clock clock) {
+            this.byDefault = false;
+        }
+    }
+
+    public static class Broken {
+        public Broken(Database database) {
+            throw new IllegalArgumentException("configuration absente");
+        }
+    }
+
+    public static class Ping {
+        public Ping(Pong pong) {
+        }
+    }
+
+    public static class Pong {
+        public Pong(Ping ping) {
+        }
+    }
+
+    public interface Named {
+    }
+
+    public static class Settings implements Named {
+    }
+
+    public static class NeedsSettings {
+        final Named named;
+
+        public NeedsSettings(Named named) {
+            this.named = named;
+        }
+    }
+
+    @Controller(scope = Scope.PROTOTYPE)
+    public static class Orders {
+        final Service service;
+
+        public Orders(Service service) {
+            this.service = service;
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        EVENTS.clear();
+    }
+
+    private static Container container(Class<?>... types) throws Exception {
+        Container container = new Container();
+        for (Class<?> type : types) {
+            container.register(type);
+        }
+        container.initialize();
+        return container;
+    }
+
+    @Test
+    void constructorInjectionSharesSingletons() throws Exception {
+        Container container = container(Repository.class, Database.class, Clock.class);
+
+        Repository repository = container.getBean(Repository.class);
+        assertSame(container.getBean(Database.class), repository.database);
+        assertSame(container.getBean(Clock.class), repository.clock);
+        assertSame(repository.clock, repository.database.clock);
+    }
+
+    @Test
+    void injectAnnotationSelectsTheConstructor() throws Exception {
+        Container container = container(Service.class, Repository.class, Database.class, Clock.class, Plain.class);
+
+        Service service = container.getBean(Service.class);
+        assertEquals("inject", service.origin);
+        assertSame(container.getBean(Repository.class), service.repository);
+        // Plusieurs constructeurs sans @Inject : celui sans argument
+        assertTrue(container.getBean(Plain.class).byDefault);
+    }
+
+    @Test
+    void dependenciesAreCreatedByLevel() throws Exception {
+        container(Repository.class, Database.class, Clock.class);
+
+        assertEquals(List.of("new Clock", "new Database", "new Repository"), EVENTS);
+    }
+
+    @Test
+    void closeRunsInReverseCreationOrder() throws Exception {
+        Container container = container(Repository.class, Database.class, Clock.class);
+        EVENTS.clear();
+
+        container.close();
+        assertEquals(List.of("close Repository", "close Database", "close Clock"), EVENTS);
+
+        container.close();
+        assertEquals(3, EVENTS.size());
+    }
+
+    @Test
+    void cyclesAreReported() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> container(Ping.class, Pong.class));
+
+        assertTrue(e.getMessage().contains("Dépendance circulaire"), e.getMessage());
+        assertTrue(e.getMessage().contains("Ping") && e.getMessage().contains("Pong"), e.getMessage());
+    }
+
+    @Test
+    void failingConstructorClosesWhatWasCreated() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> container(Broken.class, Database.class, Clock.class));
+
+        assertTrue(e.getMessage().contains(Broken.class.getName()), e.getMessage());
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertEquals("configuration absente", cause.getMessage());
+        assertEquals(List.of("new Clock", "new Database", "close Database", "close Clock"), EVENTS);
+    }
+
+    @Test
+    void missingDependencyIsReportedAndInstancesAreInjected() throws Exception {
+        IllegalStateException missing = assertThrows(IllegalStateException.class, () -> container(Database.class));
+        assertTrue(missing.getMessage().contains("requis par " + Database.class.getName()), missing.getMessage());
+
+        Container container = new Container();
+        container.registerInstance(Named.class, new Settings());
+        container.register(NeedsSettings.class);
+        container.initialize();
+        assertInstanceOf(Settings.class, container.getBean(NeedsSettings.class).named);
+    }
+
+    @Test
+    void controllersReceiveComponents() throws Exception {
+        Container container = container(Service.class, Repository.class, Database.class, Clock.class);
+
+        InstanceProvider provider = container.providerFor(Orders.class);
+        Orders first = (Orders) provider.acquire(null);
+        Orders second = (Orders) provider.acquire(null);
+        assertNotSame(first, second);
+        assertSame(container.getBean(Service.class), first.service);
+        assertEquals(List.of(container.getBean(Clock.class)), container.getBeansOfType(Clock.class));
+    }
+}
@@ -0,0 +1,244 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import mg.framework.annotation.ModelAttribute;
+import mg.framework.annotation.PathVariable;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.Scope;
+import mg.framework.metrics.RouteMetrics;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+class ControllerMappingTest {
+    public static class Filter {
+        String status;
+        int page;
+    }
+
+    public static class Orders {
+        public String show(@PathVariable("id") long id, @PathVariable("line") int line) {
+            return id + "/" + line;
+        }
+
+        public String list(@RequestParam("page") int page, @RequestParam(value = "size", required = false) int size,
+                @RequestParam(value = "sort", required = false) String sort) {
+            return page + "," + size + "," + sort;
+        }
+
+        public int sum(@RequestParam("n") int[] values) {
+            int total = 0;
+            for (int value : values) {
+                total += value;
+            }
+            return total;
+        }
+
+        public String[] tags(@RequestParam(value = "tag", required = false) String[] tags) {
+            return tags;
+        }
+
+        public Filter search(@ModelAttribute("filter") Filter filter) {
+            return filter;
+        }
+
+        public Object[] raw(HttpServletRequest req, HttpServletResponse resp, RequestContext context, String other) {
+            return new Object[] { req, resp, context, other };
+        }
+
+        public static String ping() {
+            return "pong";
+        }
+
+        public void fail() throws IOException {
+            throw new IOException("échec");
+        }
+
+        public CompletionStage<String> later() {
+            return pending;
+        }
+    }
+
+    /** Résultat de Orders.later, terminé par le test. */
+    static CompletableFuture<String> pending;
+
+    private static final Router<String> ROUTES = new Router<>();
+
+    static {
+        ROUTES.add("GET", "/orders/{id}/lines/{line}", "show");
+    }
+
+    private static ControllerMapping mapping(String path, String name, Class<?>... types) throws Exception {
+        ConverterRegistry converters = new ConverterRegistry();
+        return new ControllerMapping(InstanceProviders.create(Orders.class, Scope.SINGLETON, 0),
+                Orders.class.getMethod(name, types), "GET", path, converters, new ModelBinder(converters));
+    }
+
+    private static HttpServletRequest request(Map<String, String[]> params, Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(ControllerMappingTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameter":
+                            String[] values = params.get(args[0]);
+                            return values != null ? values[0] : null;
+                        case "getParameterValues":
+                            return params.get(args[0]);
+                        case "getParameterMap":
+                            return params;
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static HttpServletRequest request(String... pairs) {
+        Map<String, String[]> params = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            params.merge(pairs[i], new String[] { pairs[i + 1] }, (a, b) -> {
+                String[] merged = Arrays.copyOf(a, a.length + 1);
+                merged[a.length] = b[0];
+                return merged;
+            });
+        }
+        return request(params, Map.of());
+    }
+
+    @Test
+    void pathVariablesAreConvertedByPosition() throws Exception {
+        ControllerMapping show = mapping("/orders/{id}/lines/{line}", "show", long.class, int.class);
+        RouteMatch<String> match = ROUTES.find("GET", "/orders/42/lines/3");
+
+        assertEquals("42/3", show.invoke(request(), null, match));
+    }
+
+    @Test
+    void unknownPathVariableIsRejectedAtRegistration() {
+        assertThrows(IllegalArgumentException.class, () -> mapping("/orders/{id}", "show", long.class, int.class));
+    }
+
+    @Test
+    void requestParamsUseDefaultsWhenOptional() throws Exception {
+        ControllerMapping list = mapping("/orders", "list", int.class, int.class, String.class);
+
+        assertEquals("2,0,null", list.invoke(request("page", "2"), null, null));
+        assertEquals("2,50,date", list.invoke(request("page", "2", "size", "50", "sort", "date"), null, null));
+    }
+
+    @Test
+    void missingOrInvalidRequiredParamFails() throws Exception {
+        ControllerMapping list = mapping("/orders", "list", int.class, int.class, String.class);
+
+        ServletException missing = assertThrows(ServletException.class, () -> list.invoke(request(), null, null));
+        assertTrue(missing.getMessage().contains("page"));
+        ServletException invalid = assertThrows(ServletException.class,
+                () -> list.invoke(request("page", "x"), null, null));
+        assertTrue(invalid.getMessage().contains("'x'"));
+    }
+
+    @Test
+    void arrayParamsAreConvertedElementWise() throws Exception {
+        ControllerMapping sum = mapping("/sum", "sum", int[].class);
+        ControllerMapping tags = mapping("/tags", "tags", String[].class);
+
+        assertEquals(6, sum.invoke(request("n", "1", "n", "2", "n", "3"), null, null));
+        assertThrows(ServletException.class, () -> sum.invoke(request(), null, null));
+        assertArrayEquals(new String[] { "a", "b" },
+                (String[]) tags.invoke(request("tag", "a", "tag", "b"), null, null));
+        assertNull(tags.invoke(request(), null, null));
+    }
+
+    @Test
+    void modelAttributeIsBoundWithItsPrefix() throws Exception {
+        ControllerMapping search = mapping("/search", "search", Filter.class);
+
+        Filter filter = (Filter) search.invoke(request("filter.status", "open", "filter.page", "4", "page", "9"),
+                null, null);
+        assertEquals("open", filter.status);
+        assertEquals(4, filter.page);
+    }
+
+    @Test
+    void servletObjectsContextAndUnannotatedParameters() throws Exception {
+        ControllerMapping raw = mapping("/raw", "raw", HttpServletRequest.class, HttpServletResponse.class,
+                RequestContext.class, String.class);
+        HttpServletResponse resp = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (p, m, a) -> null);
+
+        HttpServletRequest plain = request();
+        Object[] args = (Object[]) raw.invoke(plain, resp, null);
+        assertSame(plain, args[0]);
+        assertSame(resp, args[1]);
+        assertSame(RequestContext.NONE, args[2]);
+        assertNull(args[3]);
+
+        RequestContext context = new RequestContext(60_000);
+        args = (Object[]) raw.invoke(request(Map.of(), Map.of(RequestContext.ATTRIBUTE, context)), resp, null);
+        assertSame(context, args[2]);
+        assertNull(raw.getBoundParameters());
+    }
+
+    @Test
+    void staticHandlersAndCheckedExceptions() throws Exception {
+        assertEquals("pong", mapping("/ping", "ping").invoke(request(), null, null));
+
+        ControllerMapping fail = mapping("/fail", "fail");
+        assertEquals("échec", assertThrows(IOException.class,
+                () -> fail.invoke(request(), null, null)).getMessage());
+    }
+
+    @Test
+    void metricsCountSynchronousCallsAndFailures() throws Exception {
+        ControllerMapping fail = mapping("/fail", "fail");
+        assertThrows(IOException.class, () -> fail.invoke(request(), null, null));
+
+        RouteMetrics metrics = fail.getMetrics();
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getExceptions().get(IOException.class).sum());
+    }
+
+    @Test
+    void metricsOfCompletionStageAreRecordedWhenItCompletes() throws Exception {
+        ControllerMapping later = mapping("/later", "later");
+        RouteMetrics metrics = later.getMetrics();
+
+        pending = new CompletableFuture<>();
+        later.invoke(request(), null, null);
+        assertEquals(1, metrics.getInFlight());
+        assertEquals(0, metrics.getRequestCount());
+        pending.complete("ok");
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(0, metrics.getErrorCount());
+
+        pending = new CompletableFuture<>();
+        later.invoke(request(), null, null);
+        pending.completeExceptionally(new IllegalStateException("échec"));
+        assertEquals(2, metrics.getRequestCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertEquals(1, metrics.getExceptions().get(IllegalStateException.class).sum());
+        assertEquals(2, metrics.getLatencies().count());
+    }
+
+    @Test
+    void boundParametersListRequestParams() throws Exception {
+        assertArrayEquals(new String[] { "page", "size", "sort" },
+                mapping("/orders", "list", int.class, int.class, String.class).getBoundParameters());
+        assertNull(mapping("/search", "search", Filter.class).getBoundParameters());
+    }
+}
@@ -0,0 +1,93 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class ConverterRegistryTest {
+    enum Color { RED, GREEN }
+
+    private final ConverterRegistry registry = new ConverterRegistry();
+
+    private Object convert(Class<?> type, String value) throws Exception {
+        return registry.get(type).convert(value);
+    }
+
+    @Test
+    void parseIntMatchesIntegerParseInt() {
+        for (String value : new String[] { "0", "42", "-42", "+7", "2147483647", "-2147483648", "007" }) {
+            assertEquals(Integer.parseInt(value), ConverterRegistry.parseInt(value), value);
+        }
+        for (String value : new String[] { "", "-", "+", "2147483648", "-2147483649", "12a", " 1", "1.0" }) {
+            assertThrows(NumberFormatException.class, () -> ConverterRegistry.parseInt(value), value);
+        }
+    }
+
+    @Test
+    void parseLongCoversFullRange() {
+        assertEquals(Long.MAX_VALUE, ConverterRegistry.parseLong("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, ConverterRegistry.parseLong("-9223372036854775808"));
+        assertThrows(NumberFormatException.class, () -> ConverterRegistry.parseLong("9223372036854775808"));
+        assertEquals(12L, ConverterRegistry.parseLong(new StringBuilder("12")));
+    }
+
+    @Test
+    void primitivesAndWrappersShareConverters() throws Exception {
+        assertEquals(5, convert(int.class, "5"));
+        assertEquals(5, convert(Integer.class, "5"));
+        assertEquals((short) -3, convert(short.class, "-3"));
+        assertEquals((byte) 127, convert(Byte.class, "127"));
+        assertEquals(1.5d, convert(double.class, "1.5"));
+        assertEquals('x', convert(char.class, "x"));
+        assertThrows(NumberFormatException.class, () -> convert(byte.class, "128"));
+        assertThrows(NumberFormatException.class, () -> convert(short.class, "40000"));
+        assertThrows(IllegalArgumentException.class, () -> convert(char.class, "xy"));
+    }
+
+    @Test
+    void booleanIsTrueOnlyForTrueIgnoringCase() throws Exception {
+        assertEquals(true, convert(boolean.class, "TRUE"));
+        assertEquals(true, convert(Boolean.class, "true"));
+        assertEquals(false, convert(boolean.class, "yes"));
+        assertEquals(false, convert(boolean.class, ""));
+    }
+
+    @Test
+    void libraryTypes() throws Exception {
+        UUID id = UUID.randomUUID();
+        assertEquals(id, convert(UUID.class, id.toString()));
+        assertEquals(new BigDecimal("12.50"), convert(BigDecimal.class, "12.50"));
+        assertEquals(LocalDate.of(2024, 2, 29), convert(LocalDate.class, "2024-02-29"));
+        assertEquals(Duration.ofMinutes(5), convert(Duration.class, "PT5M"));
+    }
+
+    @Test
+    void enumsAreResolvedByName() throws Exception {
+        assertTrue(registry.supports(Color.class));
+        assertEquals(Color.GREEN, convert(Color.class, "GREEN"));
+        assertSame(registry.get(Color.class), registry.get(Color.class));
+        assertThrows(IllegalArgumentException.class, () -> convert(Color.class, "green"));
+    }
+
+    @Test
+    void customConverterAndUnsupportedType() throws Exception {
+        assertFalse(registry.supports(StringBuilder.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(StringBuilder.class));
+
+        registry.register(StringBuilder.class, value -> new StringBuilder(value).reverse());
+        assertEquals("cba", convert(StringBuilder.class, "abc").toString());
+    }
+
+    @Test
+    void defaultValuesForPrimitives() {
+        assertEquals(0, ConverterRegistry.defaultValue(int.class));
+        assertEquals(false, ConverterRegistry.defaultValue(boolean.class));
+        assertEquals(0d, ConverterRegistry.defaultValue(double.class));
+        assertNull(ConverterRegistry.defaultValue(Integer.class));
+    }
+}
@@ -0,0 +1,65 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import mg.framework.annotation.Scope;
+
+import org.junit.jupiter.api.Test;
+
+class InstanceProvidersTest {
+    public static class Worker {
+        public CompletableFuture<String> pending;
+
+        public String run() {
+            return "ok";
+        }
+
+        public CompletableFuture<String> later() {
+            pending = new CompletableFuture<>();
+            return pending;
+        }
+    }
+
+    private static ControllerMapping mapping(InstanceProvider instances, String name) throws Exception {
+        ConverterRegistry converters = new ConverterRegistry();
+        return new ControllerMapping(instances, Worker.class.getMethod(name), "GET", "/" + name,
+                converters, new ModelBinder(converters));
+    }
+
+    @Test
+    void pooledFailsFastWhenSaturated() throws Exception {
+        InstanceProvider pool = InstanceProviders.create(Worker.class, Scope.POOLED, 1);
+
+        Object first = pool.acquire(null);
+        long start = System.nanoTime();
+        assertThrows(InstanceUnavailableException.class, () -> pool.acquire(null));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+
+        pool.release(first);
+        assertSame(first, pool.acquire(null));
+    }
+
+    @Test
+    void pooledInstanceIsReleasedAfterSynchronousHandler() throws Exception {
+        InstanceProvider pool = InstanceProviders.create(Worker.class, Scope.POOLED, 1);
+        ControllerMapping run = mapping(pool, "run");
+
+        assertEquals("ok", run.invoke(null, null, null));
+        assertEquals("ok", run.invoke(null, null, null));
+    }
+
+    @Test
+    void pooledInstanceIsKeptUntilStageCompletes() throws Exception {
+        InstanceProvider pool = InstanceProviders.create(Worker.class, Scope.POOLED, 1);
+        ControllerMapping later = mapping(pool, "later");
+
+        CompletableFuture<?> stage = (CompletableFuture<?>) later.invoke(null, null, null);
+        assertThrows(InstanceUnavailableException.class, () -> pool.acquire(null));
+
+        stage.complete(null);
+        Worker worker = (Worker) pool.acquire(null);
+        assertSame(stage, worker.pending);
+    }
+}
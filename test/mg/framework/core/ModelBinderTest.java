@@ -0,0 +1,111 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ModelBinderTest {
+    public static class Address {
+        String city;
+        int zip;
+    }
+
+    public static class Line {
+        String product;
+        int quantity;
+    }
+
+    public static class Order {
+        private String customer;
+        boolean urgent;
+        Address address;
+        List<Line> lines;
+        List<String> tags;
+        int[] codes;
+        final String ignored = "x";
+        int setterCalls;
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+            setterCalls++;
+        }
+    }
+
+    private final ModelBinder binder = new ModelBinder(new ConverterRegistry());
+
+    private static Map<String, String[]> params(String... pairs) {
+        Map<String, String[]> map = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.merge(pairs[i], new String[] { pairs[i + 1] }, (a, b) -> {
+                String[] merged = new String[a.length + 1];
+                System.arraycopy(a, 0, merged, 0, a.length);
+                merged[a.length] = b[0];
+                return merged;
+            });
+        }
+        return map;
+    }
+
+    @Test
+    void bindsSimplePropertiesThroughSetterOrField() {
+        Order order = binder.bind(Order.class, params("customer", "Rija", "urgent", "true", "unknown", "1"), "");
+
+        assertEquals("Rija", order.getCustomer());
+        assertEquals(1, order.setterCalls);
+        assertTrue(order.urgent);
+        assertEquals("x", order.ignored);
+    }
+
+    @Test
+    void bindsNestedAndIndexedPaths() {
+        Order order = binder.bind(Order.class, params(
+                "address.city", "Antananarivo",
+                "address.zip", "101",
+                "lines[1].product", "riz",
+                "lines[1].quantity", "3",
+                "tags[0]", "a",
+                "codes[2]", "7"), "");
+
+        assertEquals("Antananarivo", order.address.city);
+        assertEquals(101, order.address.zip);
+        assertEquals(2, order.lines.size());
+        assertNull(order.lines.get(0));
+        assertEquals("riz", order.lines.get(1).product);
+        assertEquals(3, order.lines.get(1).quantity);
+        assertEquals(List.of("a"), order.tags);
+        assertArrayEquals(new int[] { 0, 0, 7 }, order.codes);
+    }
+
+    @Test
+    void repeatedValuesFillListsAndArrays() {
+        Order order = binder.bind(Order.class, params("tags", "a", "tags", "b", "codes", "1", "codes", "2"), "");
+
+        assertEquals(List.of("a", "b"), order.tags);
+        assertArrayEquals(new int[] { 1, 2 }, order.codes);
+    }
+
+    @Test
+    void prefixSelectsParameters() {
+        Order order = binder.bind(Order.class, params("order.customer", "A", "customer", "B", "orderx.customer", "C"),
+                "order");
+
+        assertEquals("A", order.getCustomer());
+    }
+
+    @Test
+    void rejectsInvalidValuesAndIndexes() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> binder.bind(Order.class, params("address.zip", "abc"), ""));
+        assertTrue(e.getMessage().contains("address.zip"));
+        assertThrows(IllegalArgumentException.class,
+                () -> binder.bind(Order.class, params("tags[" + ModelBinder.MAX_INDEX + "]", "x"), ""));
+    }
+}
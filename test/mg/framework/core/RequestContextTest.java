@@ -0,0 +1,118 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RequestContextTest {
+
+    @Test
+    void completeAndExpireHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < 2000; round++) {
+            RequestContext context = new RequestContext(60_000);
+            AtomicInteger cancellations = new AtomicInteger();
+            context.onExpire(cancellations::incrementAndGet);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+
+            CompletableFuture<Boolean> expired = CompletableFuture.supplyAsync(() -> {
+                await(barrier);
+                return context.expire();
+            });
+            await(barrier);
+            boolean completed = context.complete();
+
+            assertNotEquals(completed, expired.get(5, TimeUnit.SECONDS), "tour " + round);
+            assertEquals(completed ? 0 : 1, cancellations.get(), "tour " + round);
+            assertEquals(!completed, context.isExpired(), "tour " + round);
+        }
+    }
+
+    @Test
+    void cancellationRegisteredDuringExpiryStillRuns() throws Exception {
+        for (int round = 0; round < 2000; round++) {
+            RequestContext context = new RequestContext(60_000);
+            CountDownLatch cancelled = new CountDownLatch(1);
+            CyclicBarrier barrier = new CyclicBarrier(2);
+
+            CompletableFuture<Boolean> expired = CompletableFuture.supplyAsync(() -> {
+                await(barrier);
+                return context.expire();
+            });
+            await(barrier);
+            context.onExpire(cancelled::countDown);
+
+            assertTrue(expired.get(5, TimeUnit.SECONDS));
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS), "tour " + round);
+        }
+    }
+
+    @Test
+    void timerSetAfterCompletionIsCancelled() {
+        RequestContext context = new RequestContext(60_000);
+        assertTrue(context.complete());
+        assertFalse(context.expire());
+
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        context.setTimer(timer);
+        assertTrue(timer.isCancelled());
+    }
+
+    @Test
+    void completionCancelsTheTimer() {
+        RequestContext context = new RequestContext(60_000);
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        context.setTimer(timer);
+
+        assertTrue(context.complete());
+        assertTrue(timer.isCancelled());
+        assertFalse(context.complete());
+    }
+
+    @Test
+    void deadlineIsCheckedCooperatively() throws Exception {
+        RequestContext context = new RequestContext(1);
+        Thread.sleep(5);
+
+        assertTrue(context.isExpired());
+        assertEquals(0, context.getRemainingMillis());
+        assertThrows(DeadlineExceededException.class, context::checkDeadline);
+    }
+
+    @Test
+    void noneHasNoDeadline() {
+        assertFalse(RequestContext.NONE.hasDeadline());
+        assertEquals(Long.MAX_VALUE, RequestContext.NONE.getRemainingMillis());
+        assertFalse(RequestContext.NONE.isExpired());
+        RequestContext.NONE.checkDeadline();
+    }
+
+    @Test
+    void attachRestoresThePreviousContext() {
+        RequestContext outer = new RequestContext(60_000);
+        RequestContext inner = new RequestContext(60_000);
+        assertSame(RequestContext.NONE, RequestContext.current());
+
+        RequestContext none = outer.attach();
+        RequestContext previous = inner.attach();
+        assertSame(inner, RequestContext.current());
+
+        RequestContext.detach(previous);
+        assertSame(outer, RequestContext.current());
+        RequestContext.detach(none);
+        assertSame(RequestContext.NONE, RequestContext.current());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
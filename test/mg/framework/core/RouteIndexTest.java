@@ -0,0 +1,57 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RouteIndexTest {
+    @TempDir
+    Path dir;
+
+    private RouteIndex load(String... lines) throws Exception {
+        Path file = dir.resolve(RouteIndex.LOCATION);
+        Files.createDirectories(file.getParent());
+        Files.write(file, List.of(lines));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, null)) {
+            return RouteIndex.load(loader);
+        }
+    }
+
+    @Test
+    void noIndexOnClasspath() throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, null)) {
+            assertNull(RouteIndex.load(loader));
+        }
+    }
+
+    @Test
+    void filtersByPackage() throws Exception {
+        RouteIndex index = load(
+                "# commentaire",
+                "controller app.web.Orders",
+                "controller application.Other",
+                "component app.Service",
+                "urlmapping app.legacy.Pages /pages list",
+                "mapping app.web.Orders GET /orders list");
+
+        assertEquals(List.of("app.web.Orders"), index.getControllers("app"));
+        assertEquals(List.of("app.Service"), index.getComponents("app"));
+        assertEquals(List.of("app.legacy.Pages"), index.getUrlMappingClasses("app"));
+        assertEquals(List.of("app.web.Orders", "application.Other"), index.getControllers(""));
+    }
+
+    @Test
+    void coversOnlyIndexedPackages() throws Exception {
+        RouteIndex index = load("controller lib.admin.AdminController");
+
+        assertTrue(index.covers("lib"));
+        assertFalse(index.covers("app"));
+    }
+}
@@ -0,0 +1,114 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RouterTest {
+
+    @Test
+    void staticRoutesMatchExactly() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/orders", "list");
+        router.add("GET", "/orders/new", "form");
+
+        assertEquals("list", router.find("GET", "/orders").getHandler());
+        assertEquals("form", router.find("GET", "/orders/new").getHandler());
+        assertNull(router.find("GET", "/orders/ne"));
+        assertNull(router.find("POST", "/orders"));
+        assertEquals(2, router.size());
+    }
+
+    @Test
+    void staticSegmentWinsOverVariableAndVariableOverWildcard() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/files/*", "wildcard");
+        router.add("GET", "/files/{name}", "variable");
+        router.add("GET", "/files/index", "static");
+
+        assertEquals("static", router.find("GET", "/files/index").getHandler());
+        assertEquals("variable", router.find("GET", "/files/readme").getHandler());
+        RouteMatch<String> match = router.find("GET", "/files/docs/readme");
+        assertEquals("wildcard", match.getHandler());
+        assertEquals("docs/readme", match.getVariable("*"));
+    }
+
+    @Test
+    void backtracksWhenStaticBranchFails() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/users/me/settings", "settings");
+        router.add("GET", "/users/{id}/orders", "orders");
+
+        RouteMatch<String> match = router.find("GET", "/users/me/orders");
+        assertEquals("orders", match.getHandler());
+        assertEquals("me", match.getVariable("id"));
+    }
+
+    @Test
+    void variablesAreExposedInPatternOrder() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/shops/{shop}/items/{id}", "item");
+
+        RouteMatch<String> match = router.find("GET", "/shops/s1/items/42");
+        assertEquals(2, match.getVariableCount());
+        assertEquals("s1", match.getValue(0));
+        assertEquals("42", match.getValue(1));
+        assertEquals(Map.of("shop", "s1", "id", "42"), match.getVariables());
+        assertEquals(List.of("shop", "id"), Router.variableNames("/shops/{shop}/items/{id}"));
+    }
+
+    @Test
+    void matchesAreNotSharedBetweenLookups() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/items/{id}", "item");
+
+        RouteMatch<String> first = router.find("GET", "/items/1");
+        RouteMatch<String> second = router.find("GET", "/items/2");
+        assertEquals("1", first.getVariable("id"));
+        assertEquals("2", second.getVariable("id"));
+    }
+
+    @Test
+    void findSkipsContextPath() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/items/{id}", "item");
+
+        RouteMatch<String> match = router.find("GET", "/app/items/7", "/app".length());
+        assertEquals("7", match.getVariable("id"));
+    }
+
+    @Test
+    void namedWildcardCapturesRemainder() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/static/{*path}", "static");
+
+        assertEquals("css/site.css", router.find("GET", "/static/css/site.css").getVariable("path"));
+        assertEquals("", router.find("GET", "/static/").getVariable("path"));
+    }
+
+    @Test
+    void variablesArePercentDecoded() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/users/{name}", "user");
+        router.add("GET", "/files/{*path}", "file");
+
+        assertEquals("Jérôme", router.find("GET", "/users/J%C3%A9r%C3%B4me").getVariable("name"));
+        assertEquals("a+b c", router.find("GET", "/users/a+b%20c").getVariable("name"));
+        assertEquals("100%", router.find("GET", "/users/100%").getVariable("name"));
+        assertEquals("a b/c", router.find("GET", "/files/a%20b/c").getVariable("path"));
+    }
+
+    @Test
+    void rejectsDuplicateAndInvalidPatterns() {
+        Router<String> router = new Router<>();
+        router.add("GET", "/items/{id}", "item");
+
+        assertThrows(IllegalStateException.class, () -> router.add("GET", "/items/{other}", "again"));
+        assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/items/x{id}", "bad"));
+        assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/items/{}", "bad"));
+        assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/files/{*path}/x", "bad"));
+    }
+}
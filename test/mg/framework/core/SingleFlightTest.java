@@ -0,0 +1,108 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    /** Attend qu'un appel suiveur soit bloqué sur le résultat du premier. */
+    static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "le suiveur n'attend pas");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> call(() -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "résultat";
+        }));
+        started.await();
+
+        CompletableFuture<String> follower = new CompletableFuture<>();
+        Thread thread = new Thread(() -> follower.complete(call(() -> {
+            calls.incrementAndGet();
+            return "autre";
+        })));
+        thread.start();
+        awaitWaiting(thread);
+        assertEquals(1, flights.inFlight());
+
+        release.countDown();
+        assertEquals("résultat", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("résultat", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void differentKeysDoNotWait() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(() -> call(() -> {
+            release.await();
+            return "a";
+        }));
+
+        assertEquals("b", flights.execute("b", () -> "b"));
+        release.countDown();
+        assertEquals("a", blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failureReachesCallerAndIsNotKept() throws Exception {
+        IOException failure = new IOException("échec");
+        assertSame(failure, assertThrows(IOException.class, () -> flights.execute("k", () -> {
+            throw failure;
+        })));
+
+        assertEquals(0, flights.inFlight());
+        assertEquals("ok", flights.execute("k", () -> "ok"));
+    }
+
+    @Test
+    void followerGivesUpAtItsDeadline() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> call(() -> {
+            started.countDown();
+            release.await();
+            return "lent";
+        }));
+        started.await();
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> flights.execute("k", () -> "autre", 50));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        release.countDown();
+        assertEquals("lent", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flights.inFlight());
+    }
+
+    /** Appel sur la clé "k", pour les threads qui ne peuvent pas lever d'exception vérifiée. */
+    private String call(Callable<String> body) {
+        try {
+            return flights.execute("k", body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package mg.framework.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void getReturnsWhatWasPut() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(1000, 16, String::length);
+        cache.put("a", "alpha", HOUR);
+        cache.put("b", "beta", HOUR);
+
+        assertEquals("alpha", cache.get("a"));
+        assertEquals("beta", cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(9, cache.weight());
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(1000, 16, String::length);
+        cache.put("a", "alpha", HOUR);
+        cache.put("a", "z", HOUR);
+        assertEquals("z", cache.get("a"));
+        assertEquals(1, cache.weight());
+
+        cache.remove("a");
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void expiredEntriesAreDropped() throws Exception {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(1000, 16, String::length);
+        cache.put("a", "alpha", TimeUnit.MILLISECONDS.toNanos(1));
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void valueHeavierThanCacheIsIgnored() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(4, 16, String::length);
+        cache.put("a", "alpha", HOUR);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void weightStaysBounded() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 64, String::length);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "0123456789", HOUR);
+            assertTrue(cache.weight() <= 100, "poids " + cache.weight());
+        }
+    }
+
+    @Test
+    void frequentEntriesSurviveAScan() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 64, String::length);
+        for (int hot = 0; hot < 5; hot++) {
+            cache.put(hot, "0123456789", HOUR);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int hot = 0; hot < 5; hot++) {
+                cache.get(hot);
+            }
+        }
+        // Balayage d'entrées vues une seule fois
+        for (int cold = 100; cold < 300; cold++) {
+            cache.put(cold, "0123456789", HOUR);
+        }
+
+        for (int hot = 0; hot < 5; hot++) {
+            assertNotNull(cache.get(hot), "entrée fréquente " + hot);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package mg.framework.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+    enum Status { OPEN, CLOSED }
+
+    public static class Item {
+        public String label = "x";
+
+        public int getQuantity() {
+            return 3;
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public String getURL() {
+            return "u";
+        }
+
+        public void getNothing() {
+        }
+
+        public static String getStatic() {
+            return "s";
+        }
+    }
+
+    public static class Empty {
+    }
+
+    public record Point(int x, int y, String name) {
+    }
+
+    private static String json(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Json.write(value, out);
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    void scalars() throws IOException {
+        assertEquals("null", json(null));
+        assertEquals("true", json(true));
+        assertEquals("-42", json(-42));
+        assertEquals(String.valueOf(Long.MIN_VALUE), json(Long.MIN_VALUE));
+        assertEquals("2", json(2.0));
+        assertEquals("2.5", json(2.5f));
+        assertEquals("null", json(Double.NaN));
+        assertEquals("12.50", json(new BigDecimal("12.50")));
+        assertEquals("\"CLOSED\"", json(Status.CLOSED));
+        assertEquals("\"2024-02-29\"", json(LocalDate.of(2024, 2, 29)));
+        assertEquals("\"c\"", json('c'));
+        assertEquals("null", json(Optional.empty()));
+        assertEquals("1", json(Optional.of(1)));
+    }
+
+    @Test
+    void stringsAreEscapedAndEncoded() throws IOException {
+        assertEquals("\"a\\\"b\\\\c\\n\\t\\u0001\"", json("a\"b\\c\n\t\u0001"));
+        assertEquals("\"été € 😀\"", json("été € 😀"));
+        assertEquals("\"?\"", json("\uD800"));
+    }
+
+    @Test
+    void collectionsMapsAndArrays() throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", List.of(1, 2));
+        map.put("b", null);
+        map.put("c", Map.of());
+        assertEquals("{\"a\":[1,2],\"b\":null,\"c\":{}}", json(map));
+        assertEquals("[1,2]", json(new int[] { 1, 2 }));
+        assertEquals("[3]", json(new long[] { 3 }));
+        assertEquals("[1.5]", json(new double[] { 1.5 }));
+        assertEquals("[true,false]", json(new boolean[] { true, false }));
+        assertEquals("\"ab\"", json(new char[] { 'a', 'b' }));
+        assertEquals("[\"x\",null]", json(new String[] { "x", null }));
+        assertEquals("[]", json(List.of()));
+    }
+
+    @Test
+    void beansUseGettersSortedByMethodNameThenPublicFields() throws IOException {
+        assertEquals("{\"quantity\":3,\"URL\":\"u\",\"active\":true,\"label\":\"x\"}", json(new Item()));
+        assertEquals("{}", json(new Empty()));
+    }
+
+    @Test
+    void recordsKeepComponentOrder() throws IOException {
+        assertEquals("{\"x\":1,\"y\":2,\"name\":\"p\"}", json(new Point(1, 2, "p")));
+        assertEquals("[{\"x\":0,\"y\":0,\"name\":null}]", json(List.of(new Point(0, 0, null))));
+    }
+
+    @Test
+    void largeOutputIsFlushedAcrossBuffers() throws IOException {
+        char[] chars = new char[50_000];
+        Arrays.fill(chars, 'é');
+        String text = new String(chars);
+        assertEquals("\"" + text + "\"", json(text));
+    }
+}
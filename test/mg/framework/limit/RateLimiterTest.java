@@ -0,0 +1,82 @@
+package mg.framework.limit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+    /** Requête dont le corps ne doit pas être lu : getParameter échoue. */
+    private static HttpServletRequest request(String address, String query) {
+        return (HttpServletRequest) Proxy.newProxyInstance(RateLimiterTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRemoteAddr":
+                            return address;
+                        case "getQueryString":
+                            return query;
+                        case "getParameter":
+                        case "getParameterMap":
+                        case "getInputStream":
+                        case "getReader":
+                            throw new AssertionError("corps lu par " + method.getName());
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    void sharedLimitIgnoresClient() {
+        RateLimiter limiter = new RateLimiter(1, 1, "");
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.2", null)) > 0);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void limitPerAddress() {
+        RateLimiter limiter = new RateLimiter(1, 1, "ip");
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.1", null)));
+        assertTrue(limiter.tryAcquire(request("10.0.0.1", null)) > 0);
+        assertEquals(0, limiter.tryAcquire(request("10.0.0.2", null)));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void limitPerQueryParameterWithoutReadingBody() {
+        RateLimiter limiter = new RateLimiter(1, 1, "param:user");
+        assertEquals(0, limiter.tryAcquire(request("h", "user=J%C3%A9r%C3%B4me&x=1")));
+        assertTrue(limiter.tryAcquire(request("h", "x=2&user=J%C3%A9r%C3%B4me")) > 0);
+        assertEquals(0, limiter.tryAcquire(request("h", "user=autre")));
+        assertEquals(0, limiter.tryAcquire(request("h", null)));
+    }
+
+    @Test
+    void queryParameterParsing() {
+        assertEquals("a b", RateLimiter.queryParameter("user=a+b", "user"));
+        assertEquals("", RateLimiter.queryParameter("flag&user", "user"));
+        assertEquals("1", RateLimiter.queryParameter("username=0&user=1&user=2", "user"));
+        assertNull(RateLimiter.queryParameter("username=0", "user"));
+        assertNull(RateLimiter.queryParameter("", "user"));
+        assertEquals("100%", RateLimiter.queryParameter("user=100%", "user"));
+    }
+
+    @Test
+    void keyCountIsCappedAndExtraKeysShareABucket() {
+        // Débit très lent : aucun seau ne redevient plein pendant le test
+        RateLimiter limiter = new RateLimiter(0.001, 1, "ip");
+        for (int i = 0; i < 10_500; i++) {
+            limiter.tryAcquire(request("10.0." + (i >> 8) + "." + (i & 255), null));
+        }
+        assertEquals(10_000, limiter.size());
+
+        // Au-delà du plafond, les nouvelles clés partagent le seau de débordement
+        assertTrue(limiter.tryAcquire(request("192.168.0.1", null)) > 0);
+        assertTrue(limiter.tryAcquire(request("192.168.0.2", null)) > 0);
+        assertEquals(10_000, limiter.size());
+    }
+}
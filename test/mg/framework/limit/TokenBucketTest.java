@@ -0,0 +1,81 @@
+package mg.framework.limit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstThenSteadyRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 0;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND / 10, wait);
+
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertTrue(bucket.tryAcquire(now + wait) > 0);
+    }
+
+    @Test
+    void refusedRequestsDoNotConsume() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        assertEquals(0, bucket.tryAcquire(0));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void idleOnceFullAgain() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        assertTrue(bucket.isIdle(0));
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isIdle(0));
+        assertTrue(bucket.isIdle(SECOND / 5));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 50);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, admitted.get());
+    }
+}
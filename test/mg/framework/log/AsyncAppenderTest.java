@@ -0,0 +1,59 @@
+package mg.framework.log;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncAppenderTest {
+    private static boolean workerAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> "mg-log-appender".equals(thread.getName()) && thread.isAlive());
+    }
+
+    @Test
+    void closeWritesPendingEvents() {
+        StringWriter out = new StringWriter();
+        AsyncAppender appender = new AsyncAppender(16, out);
+        assertTrue(appender.append(Level.INFO, "test", "bonjour", null));
+        appender.close();
+
+        assertTrue(out.toString().contains("INFO  [" + Thread.currentThread().getName() + "] test - bonjour"));
+        assertFalse(appender.append(Level.INFO, "test", "trop tard", null));
+    }
+
+    @Test
+    void shutdownStopsWorkerAndGetRecreatesIt() {
+        AsyncAppender first = AsyncAppender.get();
+        assertTrue(workerAlive());
+
+        LoggerFactory.shutdown();
+        assertFalse(workerAlive());
+
+        AsyncAppender second = AsyncAppender.get();
+        assertNotSame(first, second);
+        assertTrue(workerAlive());
+        LoggerFactory.shutdown();
+    }
+
+    @Test
+    void lastReleaseStopsTheSharedWorker() {
+        LoggerFactory.retain();
+        LoggerFactory.retain();
+        AsyncAppender.get();
+
+        // Une servlet détruite sur deux : les journaux de l'autre continuent
+        LoggerFactory.release();
+        assertTrue(workerAlive());
+
+        LoggerFactory.release();
+        assertFalse(workerAlive());
+
+        // Référence rendue en trop : sans effet
+        AsyncAppender.get();
+        LoggerFactory.release();
+        assertTrue(workerAlive());
+        LoggerFactory.shutdown();
+    }
+}
@@ -0,0 +1,70 @@
+package mg.framework.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperBound((int) value));
+        }
+        // Au-delà, 8 sous-buckets par puissance de deux
+        assertEquals(16, LatencyHistogram.indexOf(16));
+        assertEquals(16, LatencyHistogram.indexOf(17));
+        assertEquals(17, LatencyHistogram.indexOf(18));
+        assertEquals(17, LatencyHistogram.upperBound(16));
+        assertEquals(24, LatencyHistogram.indexOfPowerOfTwo(5));
+    }
+
+    @Test
+    void bucketsAreContiguousWithBoundedRelativeError() {
+        long previous = -1;
+        for (int index = 0; index < LatencyHistogram.BUCKETS; index++) {
+            long upper = LatencyHistogram.upperBound(index);
+            long lower = previous + 1;
+            assertEquals(index, LatencyHistogram.indexOf(lower), "début du bucket " + index);
+            assertEquals(index, LatencyHistogram.indexOf(upper), "fin du bucket " + index);
+            assertTrue(upper - lower <= Math.max(0, lower / 8), "largeur du bucket " + index);
+            previous = upper;
+        }
+    }
+
+    @Test
+    void recordsCountSumAndClampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.quantile(0.5));
+
+        histogram.record(-5);
+        histogram.record(1000);
+        histogram.record(1L << 50);
+
+        long[] snapshot = histogram.snapshot();
+        assertEquals(1, snapshot[0]);
+        assertEquals(1, snapshot[LatencyHistogram.indexOf(1000)]);
+        assertEquals(1, snapshot[LatencyHistogram.BUCKETS - 1]);
+        assertEquals(3, histogram.count());
+        assertEquals(1000 + (1L << 50), histogram.sum());
+    }
+
+    @Test
+    void quantilesGiveTheUpperBoundOfTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long millis = TimeUnit.MILLISECONDS.toNanos(1);
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * millis);
+        }
+
+        long p50 = histogram.quantile(0.50);
+        assertTrue(p50 >= 50 * millis && p50 <= 50 * millis * 9 / 8, "p50 = " + p50);
+        long p99 = histogram.quantile(0.99);
+        assertTrue(p99 >= 99 * millis && p99 <= 99 * millis * 9 / 8, "p99 = " + p99);
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(100 * millis)), histogram.quantile(1.0));
+        assertEquals(histogram.quantile(1.0) / 1e6, histogram.quantileMillis(1.0), 1e-9);
+    }
+}
@@ -0,0 +1,110 @@
+package mg.framework.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+    private static final String LABELS = "{servlet=\"tests\",method=\"GET\",route=\"/commandes\"";
+
+    private static List<String> lines(MetricsRegistry registry) throws IOException {
+        StringBuilder text = new StringBuilder();
+        registry.writePrometheus(text);
+        assertTrue(text.toString().endsWith("\n"));
+        return List.of(text.toString().split("\n"));
+    }
+
+    private static String value(List<String> lines, String prefix) {
+        for (String line : lines) {
+            if (line.startsWith(prefix)) {
+                return line.substring(line.lastIndexOf(' ') + 1);
+            }
+        }
+        return fail("ligne absente: " + prefix);
+    }
+
+    @Test
+    void writesCountersByRoute() throws Exception {
+        try (MetricsRegistry registry = new MetricsRegistry("tests")) {
+            RouteMetrics metrics = registry.register("GET", "/commandes");
+            metrics.stop(metrics.start());
+            metrics.start();
+            metrics.failed(new IOException("connexion perdue"));
+
+            List<String> lines = lines(registry);
+            assertTrue(lines.contains("# TYPE mg_requests_total counter"));
+            assertTrue(lines.contains("# TYPE mg_requests_in_flight gauge"));
+            assertEquals("1", value(lines, "mg_requests_total" + LABELS + "}"));
+            assertEquals("1", value(lines, "mg_requests_in_flight" + LABELS + "}"));
+            assertEquals("1", value(lines,
+                    "mg_request_exceptions_total" + LABELS + ",exception=\"java.io.IOException\"}"));
+        }
+    }
+
+    @Test
+    void histogramBucketsAreCumulative() throws Exception {
+        try (MetricsRegistry registry = new MetricsRegistry("tests")) {
+            LatencyHistogram latencies = registry.register("GET", "/commandes").getLatencies();
+            latencies.record(1000);
+            latencies.record(2_000_000);
+            latencies.record(200_000_000_000L);
+
+            List<String> lines = lines(registry);
+            assertTrue(lines.contains("# TYPE mg_request_duration_seconds histogram"));
+            // 1000 ns < 2^10 ns ; 2 ms entre 2^20 et 2^21 ns ; 200 s au-delà de 2^36 ns
+            String bucket = "mg_request_duration_seconds_bucket" + LABELS + ",le=";
+            assertEquals("1", value(lines, bucket + "\"1.023E-6\"}"));
+            assertEquals("1", value(lines, bucket + "\"0.001048575\"}"));
+            assertEquals("2", value(lines, bucket + "\"0.002097151\"}"));
+            assertEquals("2", value(lines, bucket + "\"68.719476735\"}"));
+            assertEquals("3", value(lines, bucket + "\"+Inf\"}"));
+            assertEquals("3", value(lines, "mg_request_duration_seconds_count" + LABELS + "}"));
+            assertEquals(200.002001, Double.parseDouble(value(lines, "mg_request_duration_seconds_sum" + LABELS + "}")),
+                    1e-9);
+
+            long previous = 0;
+            int buckets = 0;
+            for (String line : lines) {
+                if (line.startsWith(bucket)) {
+                    long count = Long.parseLong(value(List.of(line), bucket));
+                    assertTrue(count >= previous, line);
+                    previous = count;
+                    buckets++;
+                }
+            }
+            // 2^10 .. 2^36, puis +Inf
+            assertEquals(28, buckets);
+        }
+    }
+
+    @Test
+    void escapesLabelValues() throws Exception {
+        try (MetricsRegistry registry = new MetricsRegistry("tests")) {
+            registry.register("GET", "/a\"b\\c\nd");
+
+            List<String> lines = lines(registry);
+            assertEquals("0", value(lines,
+                    "mg_requests_total{servlet=\"tests\",method=\"GET\",route=\"/a\\\"b\\\\c\\nd\"}"));
+        }
+    }
+
+    @Test
+    void routesArePublishedInJmxUntilClose() throws Exception {
+        ObjectName name = new ObjectName("mg.framework:type=RouteMetrics,servlet=\"jmx\",name=\"GET /jmx\"");
+        MetricsRegistry registry = new MetricsRegistry("jmx");
+        RouteMetrics metrics = registry.register("GET", "/jmx");
+        metrics.stop(metrics.start());
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RequestCount"));
+
+        registry.close();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,51 @@
+package mg.framework.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class RouteMetricsTest {
+    @Test
+    void countsRequestsInFlightAndLatencies() {
+        RouteMetrics metrics = new RouteMetrics("GET", "/commandes");
+
+        long first = metrics.start();
+        long second = metrics.start();
+        assertEquals(2, metrics.getInFlight());
+        assertEquals(0, metrics.getRequestCount());
+
+        metrics.stop(first);
+        metrics.stop(second);
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(2, metrics.getRequestCount());
+        assertEquals(2, metrics.getLatencies().count());
+        assertTrue(metrics.getMeanMillis() >= 0);
+        assertTrue(metrics.getMaxMillis() >= metrics.getP50Millis());
+    }
+
+    @Test
+    void countsExceptionsByType() {
+        RouteMetrics metrics = new RouteMetrics("POST", "/commandes");
+
+        metrics.failed(new IOException("connexion perdue"));
+        metrics.failed(new IOException("disque plein"));
+        metrics.failed(new IllegalStateException("état"));
+
+        assertEquals(3, metrics.getErrorCount());
+        assertEquals(2, metrics.getExceptions().get(IOException.class).sum());
+        assertEquals(1, metrics.getExceptions().get(IllegalStateException.class).sum());
+        assertEquals("POST", metrics.getMethod());
+        assertEquals("/commandes", metrics.getRoute());
+    }
+
+    @Test
+    void emptyMetricsReportZero() {
+        RouteMetrics metrics = new RouteMetrics("GET", "/vide");
+
+        assertEquals(0, metrics.getMeanMillis());
+        assertEquals(0, metrics.getP99Millis());
+        assertEquals(0, metrics.getErrorCount());
+    }
+}
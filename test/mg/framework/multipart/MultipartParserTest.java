@@ -0,0 +1,167 @@
+package mg.framework.multipart;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MultipartParserTest {
+    private static final String BOUNDARY = "----mgBoundary42";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @TempDir
+    Path dir;
+
+    private MultipartParser parser(int threshold, long maxFileSize) {
+        MultipartConfig config = new MultipartConfig();
+        config.setLocation(dir);
+        config.setMemoryThreshold(threshold);
+        config.setMaxFileSize(maxFileSize);
+        return new MultipartParser(config);
+    }
+
+    private static byte[] body(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("préambule ignoré\r\n".getBytes(StandardCharsets.UTF_8));
+        for (Object part : parts) {
+            out.writeBytes(part instanceof byte[] ? (byte[]) part : part.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static String field(String name, String value) {
+        return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n";
+    }
+
+    private static String fileHeader(String name, String filename) {
+        return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                + filename + "\"\r\nContent-Type: text/plain\r\n\r\n";
+    }
+
+    private static String end() {
+        return "--" + BOUNDARY + "--\r\n";
+    }
+
+    private long tempFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    /** Flux qui rend au plus {@code chunk} octets par lecture. */
+    private static InputStream chunked(byte[] data, int chunk) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, chunk));
+            }
+        };
+    }
+
+    @Test
+    void fieldsAndSmallFiles() throws Exception {
+        byte[] data = body(field("nom", "Éloïse"), field("tag", "a"), field("tag", "b"),
+                fileHeader("doc", "notes.txt"), "contenu\r\n", end());
+
+        MultipartRequest request = parser(1024, -1).parse(new ByteArrayInputStream(data), CONTENT_TYPE,
+                StandardCharsets.UTF_8);
+
+        assertArrayEquals(new String[] { "Éloïse" }, request.getParameterMap().get("nom"));
+        assertArrayEquals(new String[] { "a", "b" }, request.getParameterMap().get("tag"));
+        MultipartFile file = request.getFile("doc");
+        assertEquals("notes.txt", file.getOriginalFilename());
+        assertEquals("text/plain", file.getContentType());
+        assertEquals("contenu", new String(file.getBytes(), StandardCharsets.UTF_8));
+        assertFalse(file.isOnDisk());
+        request.close();
+    }
+
+    @Test
+    void delimiterSplitAcrossReads() throws Exception {
+        byte[] content = new byte[200_000];
+        Arrays.fill(content, (byte) '-');
+        byte[] data = body(fileHeader("doc", "tirets.txt"), content, "\r\n", field("après", "ok"), end());
+
+        for (int chunk : new int[] { 1, 7, 65_536, 65_537 }) {
+            MultipartRequest request = parser(1 << 20, -1).parse(chunked(data, chunk), CONTENT_TYPE,
+                    StandardCharsets.UTF_8);
+            assertArrayEquals(content, request.getFile("doc").getBytes(), "blocs de " + chunk);
+            assertArrayEquals(new String[] { "ok" }, request.getParameterMap().get("après"));
+            request.close();
+        }
+    }
+
+    @Test
+    void largeFileIsSpilledAndDeletedOnClose() throws Exception {
+        byte[] content = new byte[100_000];
+        Arrays.fill(content, (byte) 'x');
+        byte[] data = body(fileHeader("doc", "gros.bin"), content, "\r\n", end());
+
+        MultipartRequest request = parser(1024, -1).parse(new ByteArrayInputStream(data), CONTENT_TYPE,
+                StandardCharsets.UTF_8);
+        MultipartFile file = request.getFile("doc");
+        assertTrue(file.isOnDisk());
+        assertEquals(content.length, file.getSize());
+        assertEquals(1, tempFiles());
+
+        request.close();
+        assertEquals(0, tempFiles());
+    }
+
+    @Test
+    void tooLargeFileIsRejectedWithoutLeavingFiles() throws Exception {
+        byte[] first = new byte[5000];
+        byte[] second = new byte[50_000];
+        byte[] data = body(fileHeader("a", "a.bin"), first, "\r\n", fileHeader("b", "b.bin"), second, "\r\n", end());
+
+        MultipartException e = assertThrows(MultipartException.class, () -> parser(1024, 10_000)
+                .parse(new ByteArrayInputStream(data), CONTENT_TYPE, StandardCharsets.UTF_8));
+        assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getStatus());
+        assertEquals(0, tempFiles());
+    }
+
+    @Test
+    void truncatedBodyDeletesSpilledFiles() throws Exception {
+        byte[] content = new byte[5000];
+        // Le flux s'arrête juste après un délimiteur : ni "--" ni nouvelle partie
+        byte[] data = body(fileHeader("a", "a.bin"), content, "\r\n--" + BOUNDARY);
+
+        MultipartException e = assertThrows(MultipartException.class, () -> parser(1024, -1)
+                .parse(new ByteArrayInputStream(data), CONTENT_TYPE, StandardCharsets.UTF_8));
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, e.getStatus());
+        assertEquals(0, tempFiles());
+    }
+
+    @Test
+    void missingBoundaryIsRejected() {
+        assertThrows(MultipartException.class, () -> parser(1024, -1)
+                .parse(new ByteArrayInputStream(new byte[0]), "multipart/form-data", StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void defaultsAreFinite() {
+        MultipartConfig config = new MultipartConfig();
+        assertEquals(MultipartConfig.DEFAULT_MAX_FILE_SIZE, config.getMaxFileSize());
+        assertEquals(MultipartConfig.DEFAULT_MAX_REQUEST_SIZE, config.getMaxRequestSize());
+    }
+
+    @Test
+    void parameterHandlesQuotesAndEscapes() {
+        String header = "form-data; name=\"doc\"; filename=\"a \\\"b\\\".txt\"";
+        assertEquals("doc", MultipartParser.parameter(header, "name"));
+        assertEquals("a \"b\".txt", MultipartParser.parameter(header, "filename"));
+        assertEquals(BOUNDARY, MultipartParser.parameter(CONTENT_TYPE, "boundary"));
+        assertNull(MultipartParser.parameter(header, "size"));
+    }
+}
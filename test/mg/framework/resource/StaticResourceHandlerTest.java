@@ -0,0 +1,217 @@
+package mg.framework.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StaticResourceHandlerTest {
+    @TempDir
+    Path root;
+
+    private StaticResourceHandler handler() {
+        return new StaticResourceHandler(root, null, 1 << 20, 64 * 1024);
+    }
+
+    /** Réponse enregistrée : statut, en-têtes et corps. */
+    private static final class Recorded {
+        int status = 200;
+        final Map<String, Object> headers = new HashMap<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        boolean streamOpened;
+    }
+
+    private static HttpServletRequest request(String path, Map<String, String> headers,
+            Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(StaticResourceHandlerTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURI":
+                            return path;
+                        case "getContextPath":
+                            return "";
+                        case "getMethod":
+                            return "GET";
+                        case "getHeader":
+                            return headers.get(args[0]);
+                        case "getDateHeader":
+                            return -1L;
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static HttpServletResponse response(Recorded recorded) {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                recorded.body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(StaticResourceHandlerTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setStatus":
+                            recorded.status = (Integer) args[0];
+                            return null;
+                        case "setHeader":
+                        case "addHeader":
+                        case "setDateHeader":
+                        case "setContentType":
+                            recorded.headers.put(args.length > 1 ? (String) args[0] : "Content-Type",
+                                    args[args.length - 1]);
+                            return null;
+                        case "setContentLengthLong":
+                            recorded.headers.put("Content-Length", args[0]);
+                            return null;
+                        case "getOutputStream":
+                            recorded.streamOpened = true;
+                            return out;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+
+    @Test
+    void servesCachedAndLargeFiles() throws Exception {
+        Files.writeString(root.resolve("site.css"), "body{color:red}", StandardCharsets.UTF_8);
+        byte[] large = content(100 * 1024);
+        Files.write(root.resolve("video.bin"), large);
+        StaticResourceHandler handler = handler();
+
+        Recorded small = new Recorded();
+        assertTrue(handler.serve(request("/site.css", Map.of(), new HashMap<>()), response(small)));
+        assertEquals("body{color:red}", small.body.toString(StandardCharsets.UTF_8));
+        assertEquals("text/css", small.headers.get("Content-Type"));
+
+        Recorded whole = new Recorded();
+        assertTrue(handler.serve(request("/video.bin", Map.of(), new HashMap<>()), response(whole)));
+        assertArrayEquals(large, whole.body.toByteArray());
+
+        Recorded partial = new Recorded();
+        handler.serve(request("/video.bin", Map.of("Range", "bytes=70000-70009"), new HashMap<>()), response(partial));
+        assertEquals(206, partial.status);
+        assertEquals("bytes 70000-70009/102400", partial.headers.get("Content-Range"));
+        assertEquals(new String(large, 70000, 10, StandardCharsets.US_ASCII),
+                partial.body.toString(StandardCharsets.US_ASCII));
+
+        assertFalse(handler.serve(request("/absent.css", Map.of(), new HashMap<>()), response(new Recorded())));
+    }
+
+    @Test
+    void largeFilesAreHandedToTomcatSendfile() throws Exception {
+        Files.write(root.resolve("video.bin"), content(100 * 1024));
+        Files.writeString(root.resolve("site.css"), "body{color:red}", StandardCharsets.UTF_8);
+        StaticResourceHandler handler = handler();
+
+        Map<String, Object> attributes = new HashMap<>(Map.of(StaticResourceHandler.SENDFILE_SUPPORT, Boolean.TRUE));
+        Recorded recorded = new Recorded();
+        assertTrue(handler.serve(request("/video.bin", Map.of("Range", "bytes=100-"), attributes), response(recorded)));
+        assertFalse(recorded.streamOpened);
+        assertEquals(root.resolve("video.bin").toAbsolutePath().toString(),
+                attributes.get(StaticResourceHandler.SENDFILE_FILENAME));
+        assertEquals(100L, attributes.get(StaticResourceHandler.SENDFILE_START));
+        assertEquals(100L * 1024, attributes.get(StaticResourceHandler.SENDFILE_END));
+        assertEquals(100L * 1024 - 100, recorded.headers.get("Content-Length"));
+
+        // Fichier en cache : écrit directement
+        Map<String, Object> small = new HashMap<>(Map.of(StaticResourceHandler.SENDFILE_SUPPORT, Boolean.TRUE));
+        Recorded cached = new Recorded();
+        handler.serve(request("/site.css", Map.of(), small), response(cached));
+        assertNull(small.get(StaticResourceHandler.SENDFILE_FILENAME));
+        assertEquals("body{color:red}", cached.body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void resolvesInsideRoot() {
+        StaticResourceHandler handler = handler();
+        assertEquals(root.resolve("css/site.css").toAbsolutePath(), handler.resolve("/css/site.css"));
+        assertEquals(root.resolve("a b.txt").toAbsolutePath(), handler.resolve("/a%20b.txt"));
+    }
+
+    @Test
+    void refusesProtectedAndEscapingPaths() {
+        StaticResourceHandler handler = handler();
+        assertNull(handler.resolve(""));
+        assertNull(handler.resolve("/WEB-INF/web.xml"));
+        assertNull(handler.resolve("/meta-inf/context.xml"));
+        assertNull(handler.resolve("/.git/config"));
+        assertNull(handler.resolve("/../secret"));
+        assertNull(handler.resolve("/%2e%2e/secret"));
+        assertNull(handler.resolve("/a\\b"));
+        assertNull(handler.resolve("/bad%zz"));
+    }
+
+    @Test
+    void refusesJspSources() {
+        StaticResourceHandler handler = handler();
+        assertNull(handler.resolve("/index.jsp"));
+        assertNull(handler.resolve("/pages/form.JSPX"));
+        assertNull(handler.resolve("/include/header.jspf"));
+        assertNull(handler.resolve("/index.jsp."));
+        assertNull(handler.resolve("/index%2Ejsp"));
+        assertNotNull(handler.resolve("/jsp/guide.html"));
+    }
+
+    @Test
+    void parseRangeSingleRanges() {
+        assertArrayEquals(new long[] { 0, 99 }, StaticResourceHandler.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[] { 500, 999 }, StaticResourceHandler.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[] { 900, 999 }, StaticResourceHandler.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[] { 0, 999 }, StaticResourceHandler.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[] { 990, 999 }, StaticResourceHandler.parseRange("bytes=990-5000", 1000));
+    }
+
+    @Test
+    void parseRangeUnsatisfiable() {
+        assertEquals(0, StaticResourceHandler.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, StaticResourceHandler.parseRange("bytes=-0", 1000).length);
+        assertEquals(0, StaticResourceHandler.parseRange("bytes=-10", 0).length);
+    }
+
+    @Test
+    void parseRangeIgnoredHeaders() {
+        assertNull(StaticResourceHandler.parseRange("items=0-1", 1000));
+        assertNull(StaticResourceHandler.parseRange("bytes=0-1,5-6", 1000));
+        assertNull(StaticResourceHandler.parseRange("bytes=5", 1000));
+        assertNull(StaticResourceHandler.parseRange("bytes=9-2", 1000));
+        assertNull(StaticResourceHandler.parseRange("bytes=a-b", 1000));
+    }
+}
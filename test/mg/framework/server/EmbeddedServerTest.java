@@ -0,0 +1,134 @@
+package mg.framework.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmbeddedServerTest {
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static EmbeddedServer server;
+
+    @TempDir
+    static Path root;
+
+    @BeforeAll
+    static void start() throws Exception {
+        Path views = Files.createDirectories(root.resolve("WEB-INF/views"));
+        Files.writeString(views.resolve("accueil.html"), "Bonjour {{nom}}", StandardCharsets.UTF_8);
+        Files.writeString(root.resolve("robots.txt"), "User-agent: *", StandardCharsets.UTF_8);
+
+        server = new EmbeddedServer(0, "mg.framework.server.app");
+        server.setHost("127.0.0.1");
+        server.setContextPath("/app");
+        server.setDocumentRoot(root);
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    private static URI uri(EmbeddedServer target, String path) {
+        return URI.create("http://127.0.0.1:" + target.getPort() + path);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return CLIENT.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(server, path)));
+    }
+
+    @Test
+    void servesControllersUnderTheContextPath() throws Exception {
+        HttpResponse<String> response = get("/app/bonjour?name=Rabe");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("bonjour Rabe", response.body());
+        assertEquals("text/html;charset=UTF-8", response.headers().firstValue("Content-Type").orElse(null));
+
+        assertEquals(404, get("/app/inconnue").statusCode());
+    }
+
+    @Test
+    void readsFormBodiesAndWritesJson() throws Exception {
+        HttpResponse<String> echo = send(HttpRequest.newBuilder(uri(server, "/app/echo"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("texte=Fianarantsoa")));
+        assertEquals(200, echo.statusCode());
+        assertEquals("reçu Fianarantsoa", echo.body());
+
+        HttpResponse<String> json = get("/app/ville");
+        assertEquals(200, json.statusCode());
+        assertEquals("{\"ville\":\"Antananarivo\"}", json.body());
+    }
+
+    @Test
+    void rendersTemplatesFromTheDocumentRoot() throws Exception {
+        HttpResponse<String> response = get("/app/accueil");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("Bonjour Rabe", response.body());
+    }
+
+    @Test
+    void jspViewsAreRejectedWithAServerError() throws Exception {
+        assertEquals(500, get("/app/jsp").statusCode());
+
+        ServerContext context = new ServerContext("", null, Map.of());
+        UnsupportedOperationException e = assertThrows(UnsupportedOperationException.class,
+                () -> context.getRequestDispatcher("/WEB-INF/views/absente.jsp"));
+        assertTrue(e.getMessage().contains("/WEB-INF/views/absente.jsp"), e.getMessage());
+    }
+
+    @Test
+    void staticFilesAreServedOnlyFromAConfiguredLocation() throws Exception {
+        // Racine de l'application non servie par défaut
+        assertEquals(404, get("/app/robots.txt").statusCode());
+        assertEquals(404, get("/app/WEB-INF/views/accueil.html").statusCode());
+
+        EmbeddedServer other = new EmbeddedServer(0, "mg.framework.server.app");
+        other.setHost("127.0.0.1");
+        other.setInitParameter("staticLocation", root.toString());
+        other.start();
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri(other, "/robots.txt")));
+            assertEquals(200, response.statusCode());
+            assertEquals("User-agent: *", response.body());
+            assertEquals(404, send(HttpRequest.newBuilder(uri(other, "/WEB-INF/views/accueil.html"))).statusCode());
+        } finally {
+            other.stop(0);
+        }
+    }
+
+    @Test
+    void stopClosesTheListener() throws Exception {
+        EmbeddedServer other = new EmbeddedServer(0, "mg.framework.server.app");
+        other.setHost("127.0.0.1");
+        other.start();
+        URI uri = uri(other, "/bonjour?name=Soa");
+        assertEquals("bonjour Soa", send(HttpRequest.newBuilder(uri)).body());
+
+        other.stop(0);
+        HttpClient fresh = HttpClient.newHttpClient();
+        assertThrows(IOException.class, () -> fresh.send(HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(5)).build(), HttpResponse.BodyHandlers.ofString()));
+        other.stop(0);
+    }
+}
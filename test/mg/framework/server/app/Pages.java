@@ -0,0 +1,41 @@
+package mg.framework.server.app;
+
+import java.util.Map;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.GetMapping;
+import mg.framework.annotation.PostMapping;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.ResponseBody;
+
+import servlet.ModelView;
+
+/** Routes utilisées par EmbeddedServerTest. */
+@Controller
+public class Pages {
+    @GetMapping("/bonjour")
+    public String bonjour(@RequestParam("name") String name) {
+        return "bonjour " + name;
+    }
+
+    @PostMapping("/echo")
+    public String echo(@RequestParam("texte") String texte) {
+        return "reçu " + texte;
+    }
+
+    @GetMapping("/ville")
+    @ResponseBody
+    public Map<String, Object> ville() {
+        return Map.of("ville", "Antananarivo");
+    }
+
+    @GetMapping("/accueil")
+    public ModelView accueil() {
+        return new ModelView("accueil").addObject("nom", "Rabe");
+    }
+
+    @GetMapping("/jsp")
+    public ModelView jsp() {
+        return new ModelView("absente");
+    }
+}
@@ -0,0 +1,112 @@
+package mg.framework.servlet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CompressingResponseTest {
+    private final Map<String, String> headers = new HashMap<>();
+    private final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+    private HttpServletResponse target() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class }, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStatus":
+                            return 200;
+                        case "getContentType":
+                            return "text/html;charset=UTF-8";
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "setHeader":
+                        case "addHeader":
+                            headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "getHeader":
+                            return headers.get(args[0]);
+                        case "containsHeader":
+                            return headers.containsKey(args[0]);
+                        case "setContentLengthLong":
+                            headers.put("Content-Length", String.valueOf(args[0]));
+                            return null;
+                        case "getOutputStream":
+                            return new ServletOutputStream() {
+                                @Override
+                                public void write(int b) {
+                                    sent.write(b);
+                                }
+
+                                @Override
+                                public boolean isReady() {
+                                    return true;
+                                }
+
+                                @Override
+                                public void setWriteListener(WriteListener listener) {
+                                }
+                            };
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @AfterEach
+    void clearPool() {
+        CompressingResponse.clearPool();
+    }
+
+    @Test
+    void largeBodyIsGzipped() throws Exception {
+        String text = "<p>bonjour</p>".repeat(200);
+        CompressingResponse response = new CompressingResponse(target(), true, 256, 6);
+        response.getWriter().write(text);
+        response.finish();
+
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(sent.toByteArray()))) {
+            assertEquals(text, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, CompressingResponse.pooled());
+    }
+
+    @Test
+    void smallBodyIsSentAsIs() throws Exception {
+        CompressingResponse response = new CompressingResponse(target(), true, 256, 6);
+        response.getWriter().write("court");
+        response.finish();
+
+        assertNull(headers.get("Content-Encoding"));
+        assertEquals("5", headers.get("Content-Length"));
+        assertEquals("court", sent.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void abortReturnsDeflaterAfterFailure() throws Exception {
+        CompressingResponse response = new CompressingResponse(target(), true, 16, 6);
+        response.getOutputStream().write(new byte[1000]);
+        assertEquals("gzip", headers.get("Content-Encoding"));
+        assertEquals(0, CompressingResponse.pooled());
+
+        response.abort();
+        assertEquals(1, CompressingResponse.pooled());
+        assertThrows(IOException.class, () -> response.getOutputStream().write(1));
+
+        CompressingResponse.clearPool();
+        assertEquals(0, CompressingResponse.pooled());
+    }
+}
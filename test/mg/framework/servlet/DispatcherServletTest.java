@@ -0,0 +1,201 @@
+package mg.framework.servlet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mg.framework.server.EmbeddedServer;
+import mg.framework.servlet.app.AsyncRoutes;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DispatcherServletTest {
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static EmbeddedServer server;
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new EmbeddedServer(0, "mg.framework.servlet.app");
+        server.setHost("127.0.0.1");
+        server.setInitParameter("asyncTimeout", "300");
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    private static HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .timeout(Duration.ofSeconds(10)).build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Throwable late(String name) throws Exception {
+        return AsyncRoutes.LATE.computeIfAbsent(name, key -> new CompletableFuture<>())
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void asyncHandlerRunsOffTheContainerThread() throws Exception {
+        HttpResponse<String> response = get("/async?name=Rabe");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("bonjour Rabe", response.body());
+    }
+
+    @Test
+    void completionStageIsRenderedWhenItCompletes() throws Exception {
+        HttpResponse<String> response = get("/stage?name=Rabe");
+        assertEquals(200, response.statusCode());
+        assertEquals("plus tard Rabe", response.body());
+
+        assertEquals(500, get("/stage/failed").statusCode());
+    }
+
+    @Test
+    void containerTimeoutDisconnectsTheAsyncHandler() throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/async/slow");
+
+        assertEquals(503, response.statusCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(750), "réponse avant la fin du handler");
+        assertInstanceOf(IllegalStateException.class, late("slow"));
+    }
+
+    @Test
+    void containerTimeoutDisconnectsTheCompletionStage() throws Exception {
+        assertEquals(503, get("/stage/slow").statusCode());
+        assertInstanceOf(IllegalStateException.class, late("stage"));
+    }
+
+    @Test
+    void handlerRunningPastItsDeadlineCannotTouchTheExchange() throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = get("/deadline");
+
+        assertEquals(503, response.statusCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(750), "réponse avant la fin du handler");
+        assertInstanceOf(IllegalStateException.class, late("deadline"));
+        assertInstanceOf(IllegalStateException.class, late("deadline-request"));
+    }
+
+    @Test
+    void containerErrorDisconnectsTheAsyncHandler() throws Exception {
+        AsyncRoutes.release = new CountDownLatch(1);
+        AsyncRoutes.started = new CountDownLatch(1);
+        DispatcherServlet servlet = new DispatcherServlet();
+        servlet.init(config(Map.of("basePackage", "mg.framework.servlet.app", "compression", "false")));
+        List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        AtomicInteger status = new AtomicInteger(200);
+        try {
+            AsyncContext async = proxy(AsyncContext.class, (name, args) -> {
+                switch (name) {
+                    case "addListener":
+                        listeners.add((AsyncListener) args[0]);
+                        return null;
+                    case "complete":
+                        completed.set(true);
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+            Map<String, Object> attributes = new HashMap<>();
+            HttpServletRequest req = proxy(HttpServletRequest.class, (name, args) -> {
+                switch (name) {
+                    case "getRequestURI":
+                        return "/async/blocked";
+                    case "getContextPath":
+                        return "";
+                    case "getMethod":
+                        return "GET";
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "startAsync":
+                        return async;
+                    default:
+                        return null;
+                }
+            });
+            HttpServletResponse resp = proxy(HttpServletResponse.class, (name, args) -> {
+                if (name.equals("sendError") || name.equals("setStatus")) {
+                    status.set((Integer) args[0]);
+                }
+                return name.equals("isCommitted") ? false : null;
+            });
+
+            servlet.service(req, resp);
+            assertEquals(1, listeners.size());
+            assertTrue(AsyncRoutes.started.await(5, TimeUnit.SECONDS));
+            listeners.get(0).onError(new AsyncEvent(async, new IOException("connexion perdue")));
+
+            assertEquals(500, status.get());
+            assertTrue(completed.get());
+            AsyncRoutes.release.countDown();
+            assertInstanceOf(IllegalStateException.class, late("blocked"));
+            assertEquals(500, status.get());
+        } finally {
+            AsyncRoutes.release.countDown();
+            servlet.destroy();
+        }
+    }
+
+    private interface Handler {
+        Object call(String name, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(DispatcherServletTest.class.getClassLoader(), new Class<?>[] { type },
+                (p, method, args) -> handler.call(method.getName(), args)));
+    }
+
+    private static ServletConfig config(Map<String, String> parameters) {
+        ServletContext context = proxy(ServletContext.class, (name, args) -> null);
+        return proxy(ServletConfig.class, (name, args) -> {
+            switch (name) {
+                case "getInitParameter":
+                    return parameters.get(args[0]);
+                case "getServletName":
+                    return "erreurs";
+                case "getServletContext":
+                    return context;
+                case "getInitParameterNames":
+                    return Collections.enumeration(parameters.keySet());
+                default:
+                    return null;
+            }
+        });
+    }
+}
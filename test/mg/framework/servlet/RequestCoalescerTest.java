@@ -0,0 +1,85 @@
+package mg.framework.servlet;
+
+import static mg.framework.servlet.ResponseCacheTest.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.Scope;
+import mg.framework.annotation.SingleFlight;
+import mg.framework.core.ControllerMapping;
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.InstanceProviders;
+import mg.framework.core.ModelBinder;
+import mg.framework.servlet.ResponseCacheTest.FakeResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+    public static class Reports {
+        @SingleFlight
+        public String byYear(@RequestParam("year") int year) {
+            return null;
+        }
+    }
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    private ControllerMapping mapping() throws Exception {
+        ConverterRegistry converters = new ConverterRegistry();
+        return new ControllerMapping(InstanceProviders.create(Reports.class, Scope.SINGLETON, 0),
+                Reports.class.getMethod("byYear", int.class), "GET", "/report", converters,
+                new ModelBinder(converters));
+    }
+
+    private FakeResponse serve(ControllerMapping mapping, HttpServletRequest req, String body,
+            CountDownLatch release) throws Exception {
+        FakeResponse resp = new FakeResponse();
+        coalescer.serve(mapping, req, resp.proxy(), capture -> {
+            if (release != null) {
+                release.await();
+            }
+            capture.setHeader("Content-Disposition", "attachment; filename=" + body);
+            capture.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        });
+        return resp;
+    }
+
+    @Test
+    void defaultKeySeparatesBoundParameterValues() throws Exception {
+        ControllerMapping mapping = mapping();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<FakeResponse> y2023 = CompletableFuture.supplyAsync(() -> {
+            try {
+                return serve(mapping, request("/report", Map.of("year", "2023")), "2023", release);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Clé différente : ne doit pas attendre l'appel en cours pour 2023
+        FakeResponse y2024 = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> serve(mapping, request("/report", Map.of("year", "2024")), "2024", null));
+        release.countDown();
+
+        assertEquals("2024", y2024.text());
+        assertEquals("2023", y2023.get(5, TimeUnit.SECONDS).text());
+    }
+
+    @Test
+    void headersAreReplayed() throws Exception {
+        FakeResponse resp = serve(mapping(), request("/report", Map.of("year", "2024")), "r.csv", null);
+
+        assertEquals("r.csv", resp.text());
+        assertEquals("attachment; filename=r.csv", resp.headers.get("Content-Disposition").get(0));
+        assertEquals(0, coalescer.inFlight());
+    }
+}
@@ -0,0 +1,218 @@
+package mg.framework.servlet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mg.framework.annotation.Cacheable;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.Scope;
+import mg.framework.core.ControllerMapping;
+import mg.framework.core.ConverterRegistry;
+import mg.framework.core.InstanceProviders;
+import mg.framework.core.ModelBinder;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+    public static class Reports {
+        @Cacheable
+        public String byYear(@RequestParam("year") int year) {
+            return null;
+        }
+
+        @Cacheable
+        public String raw(HttpServletRequest req) {
+            return null;
+        }
+
+        @Cacheable(varyBy = "lang")
+        public String localized(@RequestParam("year") int year) {
+            return null;
+        }
+    }
+
+    /** Réponse qui enregistre ce que le cache lui envoie. */
+    static final class FakeResponse {
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final List<Cookie> cookies = new ArrayList<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int status = 200;
+
+        HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { HttpServletResponse.class }, (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "setHeader":
+                                headers.put((String) args[0], new ArrayList<>(List.of((String) args[1])));
+                                return null;
+                            case "addHeader":
+                                headers.computeIfAbsent((String) args[0], k -> new ArrayList<>()).add((String) args[1]);
+                                return null;
+                            case "addCookie":
+                                cookies.add((Cookie) args[0]);
+                                return null;
+                            case "setStatus":
+                            case "sendError":
+                                status = (Integer) args[0];
+                                return null;
+                            case "getCharacterEncoding":
+                                return "UTF-8";
+                            case "getOutputStream":
+                                return new ServletOutputStream() {
+                                    @Override
+                                    public void write(int b) {
+                                        body.write(b);
+                                    }
+
+                                    @Override
+                                    public boolean isReady() {
+                                        return true;
+                                    }
+
+                                    @Override
+                                    public void setWriteListener(WriteListener listener) {
+                                    }
+                                };
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        String text() {
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    static HttpServletRequest request(String uri, Map<String, String> params) {
+        Map<String, String[]> map = new HashMap<>();
+        params.forEach((name, value) -> map.put(name, new String[] { value }));
+        return (HttpServletRequest) Proxy.newProxyInstance(ResponseCacheTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURI":
+                            return uri;
+                        case "getParameterMap":
+                            return map;
+                        case "getParameterValues":
+                            return map.get(args[0]);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static ControllerMapping mapping(String name, Class<?>... types) throws Exception {
+        ConverterRegistry converters = new ConverterRegistry();
+        return new ControllerMapping(InstanceProviders.create(Reports.class, Scope.SINGLETON, 0),
+                Reports.class.getMethod(name, types), "GET", "/reports", converters, new ModelBinder(converters));
+    }
+
+    private final ResponseCache cache = new ResponseCache(1 << 20);
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private FakeResponse serve(ControllerMapping mapping, HttpServletRequest req, String body,
+            Map<String, String> headers) throws Exception {
+        FakeResponse resp = new FakeResponse();
+        cache.serve(mapping, req, resp.proxy(), capture -> {
+            renders.incrementAndGet();
+            headers.forEach(capture::setHeader);
+            capture.setContentType("text/plain");
+            capture.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        });
+        return resp;
+    }
+
+    @Test
+    void headersAreReplayedFromCache() throws Exception {
+        ControllerMapping mapping = mapping("byYear", int.class);
+        Map<String, String> headers = Map.of("Cache-Control", "max-age=60",
+                "Content-Disposition", "attachment; filename=report.csv");
+
+        FakeResponse first = serve(mapping, request("/reports", Map.of("year", "2024")), "csv", headers);
+        FakeResponse second = serve(mapping, request("/reports", Map.of("year", "2024")), "csv", headers);
+
+        assertEquals(1, renders.get());
+        for (FakeResponse resp : List.of(first, second)) {
+            assertEquals("csv", resp.text());
+            assertEquals(List.of("max-age=60"), resp.headers.get("Cache-Control"));
+            assertEquals(List.of("attachment; filename=report.csv"), resp.headers.get("Content-Disposition"));
+        }
+    }
+
+    @Test
+    void defaultKeyUsesBoundParameters() throws Exception {
+        ControllerMapping mapping = mapping("byYear", int.class);
+
+        FakeResponse y2023 = serve(mapping, request("/reports", Map.of("year", "2023")), "2023", Map.of());
+        FakeResponse y2024 = serve(mapping, request("/reports", Map.of("year", "2024")), "2024", Map.of());
+        serve(mapping, request("/reports", Map.of("year", "2024", "utm", "x")), "2024", Map.of());
+
+        assertEquals("2023", y2023.text());
+        assertEquals("2024", y2024.text());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void requestArgumentMakesEveryParameterPartOfTheKey() throws Exception {
+        ControllerMapping mapping = mapping("raw", HttpServletRequest.class);
+
+        serve(mapping, request("/reports", Map.of("a", "1")), "a", Map.of());
+        serve(mapping, request("/reports", Map.of("a", "2")), "b", Map.of());
+        serve(mapping, request("/reports", Map.of("a", "1")), "a", Map.of());
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void explicitVaryByReplacesTheDefault() throws Exception {
+        ControllerMapping mapping = mapping("localized", int.class);
+
+        serve(mapping, request("/reports", Map.of("year", "2023", "lang", "fr")), "fr", Map.of());
+        FakeResponse other = serve(mapping, request("/reports", Map.of("year", "2024", "lang", "fr")), "x", Map.of());
+
+        assertEquals("fr", other.text());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void privateResponsesAreNotCached() throws Exception {
+        ControllerMapping mapping = mapping("byYear", int.class);
+
+        serve(mapping, request("/reports", Map.of("year", "2024")), "a", Map.of("Cache-Control", "private"));
+        FakeResponse second = serve(mapping, request("/reports", Map.of("year", "2024")), "b", Map.of());
+
+        assertEquals("b", second.text());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void responsesSettingCookiesAreNotCached() throws Exception {
+        ControllerMapping mapping = mapping("byYear", int.class);
+        FakeResponse first = new FakeResponse();
+        cache.serve(mapping, request("/reports", Map.of("year", "2024")), first.proxy(), capture -> {
+            renders.incrementAndGet();
+            capture.addCookie(new Cookie("session", "secret"));
+        });
+        FakeResponse second = serve(mapping, request("/reports", Map.of("year", "2024")), "b", Map.of());
+
+        assertEquals("session", first.cookies.get(0).getName());
+        assertTrue(second.cookies.isEmpty());
+        assertEquals(2, renders.get());
+    }
+}
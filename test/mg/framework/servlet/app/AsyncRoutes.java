@@ -0,0 +1,104 @@
+package mg.framework.servlet.app;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import mg.framework.annotation.Controller;
+import mg.framework.annotation.GetMapping;
+import mg.framework.annotation.RequestParam;
+import mg.framework.annotation.Timeout;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/** Routes asynchrones utilisées par DispatcherServletTest. */
+@Controller
+public class AsyncRoutes {
+    /** Issue de l'accès tardif de chaque handler à sa requête : l'exception levée, ou null. */
+    public static final Map<String, CompletableFuture<Throwable>> LATE = new ConcurrentHashMap<>();
+    /** Libère le handler de /async/blocked. */
+    public static volatile CountDownLatch release = new CountDownLatch(1);
+    /** Ouvert quand le handler de /async/blocked a démarré. */
+    public static volatile CountDownLatch started = new CountDownLatch(1);
+
+    private interface Access {
+        void run() throws Exception;
+    }
+
+    private static void late(String name, Access access) {
+        CompletableFuture<Throwable> outcome = LATE.computeIfAbsent(name, key -> new CompletableFuture<>());
+        try {
+            access.run();
+            outcome.complete(null);
+        } catch (Exception e) {
+            outcome.complete(e);
+        }
+    }
+
+    /** Attend sans réagir à l'interruption, comme un appel bloquant mal écrit. */
+    private static void busy(long millis) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                // ignorée volontairement
+            }
+        }
+    }
+
+    @GetMapping(value = "/async", async = true)
+    public String async(@RequestParam("name") String name) {
+        return "bonjour " + name;
+    }
+
+    @GetMapping("/stage")
+    public CompletionStage<String> stage(@RequestParam("name") String name) {
+        return CompletableFuture.supplyAsync(() -> "plus tard " + name);
+    }
+
+    @GetMapping("/stage/failed")
+    public CompletionStage<String> failed() {
+        return CompletableFuture.failedFuture(new IllegalStateException("échec"));
+    }
+
+    @GetMapping(value = "/async/slow", async = true)
+    public String slow(HttpServletResponse resp) {
+        busy(800);
+        late("slow", () -> resp.getWriter().write("trop tard"));
+        return "trop tard";
+    }
+
+    @GetMapping("/stage/slow")
+    public CompletionStage<String> slowStage(HttpServletResponse resp) {
+        return CompletableFuture.supplyAsync(() -> {
+            busy(800);
+            late("stage", () -> resp.setHeader("X-Late", "oui"));
+            return "trop tard";
+        });
+    }
+
+    @GetMapping("/deadline")
+    @Timeout(200)
+    public String deadline(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        // Flux obtenu avant l'échéance, utilisé après
+        ServletOutputStream out = resp.getOutputStream();
+        busy(800);
+        late("deadline", () -> out.write('x'));
+        late("deadline-request", () -> req.getParameter("x"));
+        return "trop tard";
+    }
+
+    @GetMapping(value = "/async/blocked", async = true)
+    public String blocked(HttpServletResponse resp) throws Exception {
+        started.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        late("blocked", () -> resp.setStatus(200));
+        return "trop tard";
+    }
+}
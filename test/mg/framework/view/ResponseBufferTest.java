@@ -0,0 +1,144 @@
+package mg.framework.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseBufferTest {
+
+    /** Réponse minimale : un seul des deux flux peut être pris, comme dans un conteneur. */
+    static final class FakeResponse {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final StringWriter chars = new StringWriter();
+        String used;
+        int contentLength = -1;
+
+        HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { HttpServletResponse.class }, (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "getOutputStream":
+                                take("stream");
+                                return new ServletOutputStream() {
+                                    @Override
+                                    public void write(int b) {
+                                        bytes.write(b);
+                                    }
+
+                                    @Override
+                                    public boolean isReady() {
+                                        return true;
+                                    }
+
+                                    @Override
+                                    public void setWriteListener(WriteListener listener) {
+                                    }
+                                };
+                            case "getWriter":
+                                take("writer");
+                                return new PrintWriter(chars);
+                            case "setContentLength":
+                                contentLength = (Integer) args[0];
+                                return null;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private void take(String kind) {
+            if (used != null && !used.equals(kind)) {
+                throw new IllegalStateException(used + " déjà utilisé");
+            }
+            used = kind;
+        }
+    }
+
+    @Test
+    void appendEncodesUtf8LikeString() {
+        String text = "aé€😀" + "x".repeat(10_000) + "ü";
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append(text);
+            assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void loneSurrogateBecomesQuestionMark() {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append("a\uD800b");
+            assertEquals("a?b", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void appendEscapedEscapesHtml() {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.appendEscaped("<a href=\"x\">l'été & co</a>");
+            assertEquals("&lt;a href=&quot;x&quot;&gt;l&#39;été &amp; co&lt;/a&gt;",
+                    new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    void releasedBufferIsEmpty() {
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        buffer.append("x".repeat(300_000));
+        buffer.release();
+        ResponseBuffer again = ResponseBuffer.acquire();
+        try {
+            assertEquals(0, again.size());
+        } finally {
+            again.release();
+        }
+    }
+
+    @Test
+    void writeToUsesStreamWithContentLength() throws Exception {
+        FakeResponse response = new FakeResponse();
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append("héllo").writeTo(response.proxy());
+        } finally {
+            buffer.release();
+        }
+        assertEquals("stream", response.used);
+        assertEquals(6, response.contentLength);
+        assertEquals("héllo", response.bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeToFallsBackToWriterAlreadyInUse() throws Exception {
+        FakeResponse response = new FakeResponse();
+        HttpServletResponse proxy = response.proxy();
+        proxy.getWriter().write("début ");
+
+        ResponseBuffer buffer = ResponseBuffer.acquire();
+        try {
+            buffer.append("et fin").writeTo(proxy);
+        } finally {
+            buffer.release();
+        }
+        assertEquals("début et fin", response.chars.toString());
+        assertEquals(-1, response.contentLength);
+    }
+}
@@ -0,0 +1,154 @@
+package mg.framework.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TemplateTest {
+    public static class Client {
+        public final String ville = "Fianarantsoa";
+        private final String nom;
+        private final boolean actif;
+
+        Client(String nom, boolean actif) {
+            this.nom = nom;
+            this.actif = actif;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public boolean isActif() {
+            return actif;
+        }
+    }
+
+    public record Ligne(String produit, int quantite) {
+    }
+
+    public static class Fichier {
+        int suppressions;
+
+        public boolean delete() {
+            suppressions++;
+            return true;
+        }
+
+        public String isNom() {
+            suppressions++;
+            return "nom";
+        }
+    }
+
+    private static String render(String source, Map<String, Object> model) {
+        ResponseBuffer out = ResponseBuffer.acquire();
+        try {
+            Template.compile("test", source).render(model, out);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            out.release();
+        }
+    }
+
+    private static Map<String, Object> model(Object... pairs) {
+        Map<String, Object> model = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            model.put((String) pairs[i], pairs[i + 1]);
+        }
+        return model;
+    }
+
+    @Test
+    void literalOnly() {
+        assertEquals("Bonjour <b>à tous</b>", render("Bonjour <b>à tous</b>", model()));
+    }
+
+    @Test
+    void escapesByDefaultAndTripleBracesAreRaw() {
+        Map<String, Object> model = model("html", "<i>\"x\" & y</i>");
+        assertEquals("&lt;i&gt;&quot;x&quot; &amp; y&lt;/i&gt;|<i>\"x\" & y</i>",
+                render("{{html}}|{{{html}}}", model));
+    }
+
+    @Test
+    void resolvesGettersBooleanGettersRecordsFieldsAndMaps() {
+        Map<String, Object> model = model(
+                "client", new Client("Rabe", true),
+                "ligne", new Ligne("riz", 2),
+                "config", Map.of("theme", "sombre"));
+
+        assertEquals("Rabe true Fianarantsoa riz 2 sombre",
+                render("{{client.nom}} {{client.actif}} {{client.ville}} {{ligne.produit}} {{ligne.quantite}} {{config.theme}}",
+                        model));
+    }
+
+    @Test
+    void missingValuesRenderNothing() {
+        assertEquals("[][]", render("[{{absent}}][{{client.inconnu}}]", model("client", new Client("A", false))));
+    }
+
+    @Test
+    void onlyAccessorsAreCalled() {
+        Fichier fichier = new Fichier();
+        List<String> lignes = new ArrayList<>(List.of("a", "b"));
+        Map<String, Object> model = model("fichier", fichier, "lignes", lignes, "it", lignes.iterator());
+
+        assertEquals("[][][][][]", render("[{{fichier.delete}}][{{fichier.nom}}][{{fichier.class}}]"
+                + "[{{lignes.clear}}][{{it.next}}]", model));
+        assertEquals(0, fichier.suppressions);
+        assertEquals(List.of("a", "b"), lignes);
+        assertEquals("a", ((Iterator<?>) model.get("it")).next());
+    }
+
+    @Test
+    void eachIteratesListsArraysAndMapsWithOuterScope() {
+        Map<String, Object> model = model(
+                "lignes", List.of(new Ligne("riz", 1), new Ligne("sel", 3)),
+                "codes", new int[] { 7, 8 },
+                "devise", "Ar",
+                "prix", new LinkedHashMap<>(Map.of("riz", 2500)));
+
+        assertEquals("riz:1 Ar;sel:3 Ar;", render("{{#each lignes as l}}{{l.produit}}:{{l.quantite}} {{devise}};{{/each}}", model));
+        assertEquals("78", render("{{#each codes as c}}{{c}}{{/each}}", model));
+        assertEquals("riz=2500", render("{{#each prix as p}}{{p.key}}={{p.value}}{{/each}}", model));
+    }
+
+    @Test
+    void ifElseFollowsTruthiness() {
+        String source = "{{#if v}}oui{{else}}non{{/if}}";
+        assertEquals("oui", render(source, model("v", true)));
+        assertEquals("non", render(source, model("v", false)));
+        assertEquals("non", render(source, model("v", "")));
+        assertEquals("non", render(source, model("v", List.of())));
+        assertEquals("oui", render(source, model("v", List.of(1))));
+        assertEquals("non", render(source, model()));
+        assertEquals("oui", render(source, model("v", 0)));
+    }
+
+    @Test
+    void commentsAreDropped() {
+        assertEquals("ab", render("a{{! rien }}b", model()));
+    }
+
+    @Test
+    void syntaxErrorsReportLine() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Template.compile("page.html", "ligne 1\n{{#if x}}\n{{/each}}"));
+        assertTrue(e.getMessage().contains("page.html"));
+        assertTrue(e.getMessage().contains("ligne 3"));
+
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{nom"));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{#each a}}{{/each}}"));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{#if a}}"));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{else}}"));
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("t", "{{}}"));
+    }
+}